@@ -0,0 +1,57 @@
+package com.blog.benchmark;
+
+import com.blog.service.AIContentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AIContentService 中调用模型前后的文本处理：parseTags、truncateContent（私有方法，通过 MethodHandle 调用）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AIContentParsingBenchmark {
+
+    private static final MethodHandle PARSE_TAGS = findMethod("parseTags",
+            MethodType.methodType(Set.class, String.class));
+    private static final MethodHandle TRUNCATE_CONTENT = findMethod("truncateContent",
+            MethodType.methodType(String.class, String.class, int.class));
+
+    private AIContentService aiContentService;
+    private String tagsResponse;
+    private String content;
+
+    @Setup
+    public void setUp() {
+        aiContentService = new AIContentService(null);
+        tagsResponse = "Spring Boot，性能优化, MySQL\n缓存，Redis, JVM调优, 分布式系统";
+        content = Fixtures.content(20_000);
+    }
+
+    @Benchmark
+    public Set<?> parseTags() throws Throwable {
+        return (Set<?>) PARSE_TAGS.invokeExact(aiContentService, tagsResponse);
+    }
+
+    @Benchmark
+    public String truncateContent() throws Throwable {
+        return (String) TRUNCATE_CONTENT.invokeExact(aiContentService, content, 2000);
+    }
+
+    private static MethodHandle findMethod(String name, MethodType type) {
+        try {
+            return MethodHandles.privateLookupIn(AIContentService.class, MethodHandles.lookup())
+                    .findVirtual(AIContentService.class, name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.blog.benchmark;
+
+import com.blog.dto.response.ArticleResponse;
+import com.blog.entity.Article;
+import com.blog.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文章实体 -> 响应 DTO 的映射（列表接口每页执行 N 次）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArticleMappingBenchmark {
+
+    private Article article;
+    private User author;
+
+    @Setup
+    public void setUp() {
+        author = Fixtures.user(1L);
+        article = Fixtures.article(1L, author);
+    }
+
+    @Benchmark
+    public ArticleResponse fromArticle() {
+        return ArticleResponse.fromArticle(article);
+    }
+
+    @Benchmark
+    public ArticleResponse fromArticleWithAuthor() {
+        return ArticleResponse.fromArticleWithAuthor(article, author);
+    }
+}
@@ -0,0 +1,140 @@
+package com.blog.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 运行基准测试并与基线对比
+ *
+ * 结果以 JMH JSON 格式写入 benchmark.result（默认 target/jmh-result.json），
+ * 与 benchmark.baseline（默认 baseline.json，同为 JMH JSON）逐项比较：
+ * 变慢超过 benchmark.tolerance（默认 10%）且超出两次测量误差之和时视为回归，进程以状态码 1 退出。
+ * 加 -Dbenchmark.update-baseline=true 时用本次结果覆盖基线。其余命令行参数按 JMH 原生参数解析
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws IOException, RunnerException, CommandLineOptionException {
+        Path resultFile = Paths.get(System.getProperty("benchmark.result", "target/jmh-result.json"));
+        Path baselineFile = Paths.get(System.getProperty("benchmark.baseline", "baseline.json"));
+        double tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.10"));
+        boolean updateBaseline = Boolean.getBoolean("benchmark.update-baseline");
+
+        if (resultFile.getParent() != null) {
+            Files.createDirectories(resultFile.getParent());
+        }
+
+        // 命令行未指定基准时运行本模块的全部基准
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackageName() + ".*Benchmark");
+        }
+        Options options = builder
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString())
+                .build();
+        new Runner(options).run();
+
+        if (updateBaseline) {
+            Files.copy(resultFile, baselineFile, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("基线已更新: " + baselineFile.toAbsolutePath());
+            return;
+        }
+        if (!Files.exists(baselineFile)) {
+            System.out.println("未找到基线文件 " + baselineFile.toAbsolutePath()
+                    + "，跳过对比（使用 -Dbenchmark.update-baseline=true 生成）");
+            return;
+        }
+
+        int regressions = compare(readScores(baselineFile), readScores(resultFile), tolerance);
+        if (regressions > 0) {
+            System.out.println("发现 " + regressions + " 项性能回归");
+            System.exit(1);
+        }
+        System.out.println("未发现性能回归");
+    }
+
+    /**
+     * 返回回归项数量
+     */
+    private static int compare(Map<String, Score> baseline, Map<String, Score> current, double tolerance) {
+        int regressions = 0;
+        System.out.printf("%n%-80s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score base = baseline.get(entry.getKey());
+            if (base == null || !base.unit.equals(now.unit)) {
+                System.out.printf("%-80s %14s %14.3f %9s%n", entry.getKey(), "-", now.score, "new");
+                continue;
+            }
+
+            // 吞吐量模式分数越高越好，其余模式（平均时间、采样时间等）越低越好
+            boolean higherIsBetter = "thrpt".equals(now.mode);
+            double change = (now.score - base.score) / base.score;
+            double worse = higherIsBetter ? -change : change;
+            boolean beyondError = Math.abs(now.score - base.score) > now.error + base.error;
+            boolean regressed = worse > tolerance && beyondError;
+            if (regressed) {
+                regressions++;
+            }
+
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), base.score, now.score,
+                    change * 100, regressed ? "  <-- 回归" : "");
+        }
+        return regressions;
+    }
+
+    /**
+     * 读取 JMH JSON 结果：基准名（含参数）-> 分数
+     */
+    private static Map<String, Score> readScores(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder name = new StringBuilder(run.path("benchmark").asText());
+            JsonNode params = run.path("params");
+            if (params.isObject()) {
+                params.fields().forEachRemaining(param ->
+                        name.append(" [").append(param.getKey()).append('=').append(param.getValue().asText()).append(']'));
+            }
+
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(name.toString(), new Score(
+                    run.path("mode").asText(),
+                    metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error,
+                    metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    private static final class Score {
+        private final String mode;
+        private final double score;
+        private final double error;
+        private final String unit;
+
+        private Score(String mode, double score, double error, String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.blog.benchmark;
+
+import com.blog.entity.Article;
+import com.blog.entity.Tag;
+import com.blog.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 基准测试用的固定数据（内容长度、标签数量接近线上平均水平）
+ */
+final class Fixtures {
+
+    private static final String PARAGRAPH =
+            "Spring Boot 通过自动配置减少了大量样板代码，本文介绍如何在博客系统中使用缓存、异步任务和连接池调优。"
+                    + "We also walk through JPA fetch strategies, Redis pipelines and keyset pagination. ";
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setBio("后端开发，关注性能优化与分布式系统");
+        user.setAvatarUrl("/uploads/ab/cd/" + "0".repeat(64) + ".png");
+        user.setRole(User.UserRole.USER);
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        user.setUpdatedAt(LocalDateTime.of(2024, 6, 1, 12, 0));
+        return user;
+    }
+
+    static Article article(long id, User author) {
+        Article article = new Article();
+        article.setId(id);
+        article.setTitle("Spring Boot 性能优化实践 " + id);
+        article.setContent(content(4_000));
+        article.setSummary(PARAGRAPH.substring(0, 100));
+        article.setSlug("spring-boot-xing-neng-you-hua-shi-jian-" + id);
+        article.setAuthor(author);
+        article.setTags(tags("java", "spring", "performance", "mysql", "redis"));
+        article.setAiTags(new HashSet<>(Set.of("后端", "性能")));
+        article.setViewCount(1_024);
+        article.setLikeCount(64);
+        article.setCommentCount(16);
+        article.publish();
+        article.setPublishedAt(LocalDateTime.of(2024, 6, 1, 12, 30));
+        article.setCreatedAt(LocalDateTime.of(2024, 6, 1, 12, 0));
+        article.setUpdatedAt(LocalDateTime.of(2024, 6, 2, 12, 0));
+        return article;
+    }
+
+    static Set<Tag> tags(String... names) {
+        Set<Tag> tags = new HashSet<>();
+        long id = 1;
+        for (String name : names) {
+            Tag tag = Tag.create(name);
+            tag.setId(id++);
+            tags.add(tag);
+        }
+        return tags;
+    }
+
+    static String content(int length) {
+        StringBuilder builder = new StringBuilder(length + PARAGRAPH.length());
+        while (builder.length() < length) {
+            builder.append(PARAGRAPH);
+        }
+        return builder.substring(0, length);
+    }
+}
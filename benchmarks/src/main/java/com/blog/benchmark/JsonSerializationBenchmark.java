@@ -0,0 +1,56 @@
+package com.blog.benchmark;
+
+import com.blog.dto.response.ApiResponse;
+import com.blog.dto.response.ArticleResponse;
+import com.blog.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文章列表接口响应 ApiResponse<Page<ArticleResponse>> 的 JSON 序列化
+ *
+ * ObjectMapper 配置与 Spring Boot 默认一致（Java 时间模块，日期不输出为时间戳）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "50"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<Page<ArticleResponse>> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        User author = Fixtures.user(1L);
+        List<ArticleResponse> articles = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            articles.add(ArticleResponse.fromArticleWithAuthor(Fixtures.article(id, author), author));
+        }
+        response = ApiResponse.success("获取成功",
+                new PageImpl<>(articles, PageRequest.of(0, pageSize), 1_000));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,49 @@
+package com.blog.benchmark;
+
+import com.blog.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtTokenProvider 的令牌校验和解析（每个认证请求都会执行）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        jwtTokenProvider = new JwtTokenProvider();
+        // HS512 需要至少 64 字节的密钥
+        setField("jwtSecret", "benchmark-secret-".repeat(5));
+        setField("jwtExpirationInMs", 3_600_000L);
+        token = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(Fixtures.user(1L), null));
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Long getUserIdFromToken() {
+        return jwtTokenProvider.getUserIdFromToken(token);
+    }
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        Field field = JwtTokenProvider.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtTokenProvider, value);
+    }
+}
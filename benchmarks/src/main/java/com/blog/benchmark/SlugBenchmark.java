@@ -0,0 +1,29 @@
+package com.blog.benchmark;
+
+import com.blog.util.SlugUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SlugUtil.generateSlug（中文标题需要转拼音）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlugBenchmark {
+
+    @Param({
+            "Spring Boot Performance Tuning in Practice",
+            "Spring Boot 性能优化实践：从连接池到缓存"
+    })
+    private String title;
+
+    @Benchmark
+    public String generateSlug() {
+        return SlugUtil.generateSlug(title);
+    }
+}
@@ -0,0 +1,59 @@
+package com.blog.benchmark;
+
+import com.blog.service.RecommendationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RecommendationService.calculateTagSimilarity（推荐排序时每次比较调用两次）
+ *
+ * 被测方法是私有的，通过 MethodHandle 调用，static final 句柄会被 JIT 内联
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TagSimilarityBenchmark {
+
+    private static final MethodHandle CALCULATE_TAG_SIMILARITY = findMethod();
+
+    private RecommendationService recommendationService;
+    private Set<String> target;
+    private Set<String> overlapping;
+    private Set<String> disjoint;
+
+    @Setup
+    public void setUp() {
+        recommendationService = new RecommendationService(null, null, null);
+        target = Set.of("java", "spring", "performance", "mysql", "redis");
+        overlapping = Set.of("java", "spring", "jvm", "gc", "redis");
+        disjoint = Set.of("react", "vite", "typescript", "css", "html");
+    }
+
+    @Benchmark
+    public double overlappingTags() throws Throwable {
+        return (double) CALCULATE_TAG_SIMILARITY.invokeExact(recommendationService, target, overlapping);
+    }
+
+    @Benchmark
+    public double disjointTags() throws Throwable {
+        return (double) CALCULATE_TAG_SIMILARITY.invokeExact(recommendationService, target, disjoint);
+    }
+
+    private static MethodHandle findMethod() {
+        try {
+            return MethodHandles.privateLookupIn(RecommendationService.class, MethodHandles.lookup())
+                    .findVirtual(RecommendationService.class, "calculateTagSimilarity",
+                            MethodType.methodType(double.class, Set.class, Set.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.blog.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 压测数据写入
+ *
+ * 用 JDBC 批量插入（显式指定 ID，不经过实体和事件），点赞数和评论数按幂律分布集中在少数热门文章上，
+ * 评论既有顶层评论，也有沿上一条评论不断回复形成的深层回复链。
+ * 计数列（like_count、comment_count）写入时即与明细一致，标签使用次数和用户统计由应用自身的对账任务计算
+ */
+public class DataSeeder {
+
+    private static final int BATCH_SIZE = 5_000;
+
+    // 热门程度的幂律指数：第 k 篇文章的点赞/评论数正比于 1 / k^SKEW
+    private static final double SKEW = 0.8;
+
+    // 搜索关键词和正文都取自这个词表
+    static final String[] VOCABULARY = {
+            "spring", "boot", "java", "redis", "mysql", "kafka", "docker", "linux", "jvm", "gc",
+            "hibernate", "netty", "reactor", "micrometer", "prometheus", "nginx", "http", "tcp", "json", "grpc",
+            "性能", "缓存", "数据库", "索引", "并发", "线程", "事务", "架构", "分布式", "微服务",
+            "算法", "设计", "测试", "部署", "监控", "日志", "安全", "网络", "存储", "队列",
+            "读书", "旅行", "摄影", "音乐", "电影", "生活", "思考", "总结", "笔记", "随笔"
+    };
+
+    private final JdbcTemplate jdbc;
+    private final LoadTestOptions options;
+    private final Random random = new Random(20240101L);
+    private final LocalDateTime epoch = LocalDateTime.now().minusDays(365);
+
+    public DataSeeder(JdbcTemplate jdbc, LoadTestOptions options) {
+        this.jdbc = jdbc;
+        this.options = options;
+    }
+
+    /**
+     * 写入压测数据；库中已有文章时直接复用（使用 --db-url 指向已写入过数据的本地库）
+     */
+    Dataset seed() {
+        Long existing = jdbc.queryForObject("SELECT COUNT(*) FROM articles", Long.class);
+        if (existing != null && existing > 0) {
+            System.out.println("库中已有 " + existing + " 篇文章，跳过数据写入");
+            return loadExisting();
+        }
+
+        long startedAt = System.currentTimeMillis();
+        int users = options.users;
+        int articles = options.articles;
+        int authors = Math.max(1, users / 10);
+
+        seedUsers(users);
+        seedTags(options.tags);
+
+        int[] likes = distribute(options.likes, articles, users);
+        int[] comments = distribute(options.comments, articles, Integer.MAX_VALUE);
+        seedArticles(articles, authors, likes, comments);
+        seedArticleTags(articles, options.tags);
+        long likeRows = seedLikes(likes, users);
+        long commentRows = seedComments(comments, users);
+
+        System.out.printf("数据写入完成: 用户=%d, 文章=%d, 点赞=%d, 评论=%d, 耗时=%ds%n",
+                users, articles, likeRows, commentRows, (System.currentTimeMillis() - startedAt) / 1000);
+        return new Dataset(users, articles, commentRows);
+    }
+
+    private Dataset loadExisting() {
+        return new Dataset(
+                maxId("users"),
+                maxId("articles"),
+                maxId("comments"));
+    }
+
+    private void seedUsers(int count) {
+        // 压测使用签发的 JWT 访问，不走登录，密码只需是合法的 BCrypt 哈希
+        String password = new BCryptPasswordEncoder(4).encode("loadtest");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int id = 1; id <= count; id++) {
+            batch.add(new Object[]{id, "user" + id, "user" + id + "@loadtest.local", password,
+                    id == 1 ? "ADMIN" : "USER", true, now, now});
+            flushIfFull("INSERT INTO users (id, username, email, password, role, enabled, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch, false);
+        }
+        flushIfFull("INSERT INTO users (id, username, email, password, role, enabled, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch, true);
+        System.out.println("  用户: " + count);
+    }
+
+    private void seedTags(int count) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = "INSERT INTO tags (id, name, usage_count, created_at) VALUES (?, ?, 0, ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int id = 1; id <= count; id++) {
+            String word = VOCABULARY[(id - 1) % VOCABULARY.length];
+            String name = id <= VOCABULARY.length ? word : word + "-" + id;
+            batch.add(new Object[]{id, name, now});
+            flushIfFull(sql, batch, false);
+        }
+        flushIfFull(sql, batch, true);
+        System.out.println("  标签: " + count);
+    }
+
+    private void seedArticles(int count, int authors, int[] likes, int[] comments) {
+        String sql = "INSERT INTO articles (id, title, content, summary, slug, status, view_count, like_count, "
+                + "comment_count, created_at, updated_at, published_at, user_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int id = 1; id <= count; id++) {
+            Timestamp createdAt = Timestamp.valueOf(epoch.plusMinutes(random.nextInt(365 * 24 * 60)));
+            // 与现有查询保持一致：列表和搜索按 DRAFT 筛选公开文章
+            String status = random.nextInt(10) < 8 ? "DRAFT" : "PUBLISHED";
+            String content = paragraph(200 + random.nextInt(600));
+            batch.add(new Object[]{id, paragraph(6) + " #" + id, content, content.substring(0, Math.min(120, content.length())),
+                    "loadtest-" + id, status, random.nextInt(10_000), likes[id - 1], comments[id - 1],
+                    createdAt, createdAt, createdAt, 1 + random.nextInt(authors)});
+            flushIfFull(sql, batch, false);
+            progress("文章", id, count);
+        }
+        flushIfFull(sql, batch, true);
+    }
+
+    private void seedArticleTags(int articles, int tags) {
+        String sql = "INSERT IGNORE INTO article_tags (article_id, tag_id) VALUES (?, ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int id = 1; id <= articles; id++) {
+            int n = 1 + random.nextInt(5);
+            for (int i = 0; i < n; i++) {
+                batch.add(new Object[]{id, 1 + skewedIndex(tags)});
+                flushIfFull(sql, batch, false);
+            }
+        }
+        flushIfFull(sql, batch, true);
+        System.out.println("  文章标签关联完成");
+    }
+
+    private long seedLikes(int[] likes, int users) {
+        String sql = "INSERT INTO likes (id, type, created_at, user_id, article_id) VALUES (?, 'LIKE', ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        long id = 0;
+        long total = sum(likes);
+        for (int article = 1; article <= likes.length; article++) {
+            // 从随机位置起取连续的用户，点赞数不超过用户数，保证同一文章下用户不重复（likes 表有 user_id + article_id 唯一约束）
+            long start = random.nextInt(users);
+            for (int i = 0; i < likes[article - 1]; i++) {
+                int user = (int) ((start + i) % users) + 1;
+                batch.add(new Object[]{++id, randomTime(), user, article});
+                flushIfFull(sql, batch, false);
+                progress("点赞", id, total);
+            }
+        }
+        flushIfFull(sql, batch, true);
+        return id;
+    }
+
+    /**
+     * 评论：20% 为顶层评论，50% 回复上一条评论（形成深层回复链，深度不超过 thread-depth），其余回复本文随机一条评论
+     */
+    private long seedComments(int[] comments, int users) {
+        String sql = "INSERT INTO comments (id, content, created_at, updated_at, user_id, article_id, parent_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        long id = 0;
+        long total = sum(comments);
+        int maxDepth = Math.max(1, options.threadDepth);
+        for (int article = 1; article <= comments.length; article++) {
+            int n = comments[article - 1];
+            long firstId = id + 1;
+            int[] depth = new int[n];
+            for (int i = 0; i < n; i++) {
+                Long parent = null;
+                int roll = random.nextInt(10);
+                if (i > 0 && roll >= 2) {
+                    int target = roll < 7 ? i - 1 : random.nextInt(i);
+                    if (depth[target] + 1 < maxDepth) {
+                        parent = firstId + target;
+                        depth[i] = depth[target] + 1;
+                    }
+                }
+                Timestamp createdAt = randomTime();
+                batch.add(new Object[]{++id, paragraph(5 + random.nextInt(40)), createdAt, createdAt,
+                        1 + random.nextInt(users), article, parent});
+                flushIfFull(sql, batch, false);
+                progress("评论", id, total);
+            }
+        }
+        flushIfFull(sql, batch, true);
+        return id;
+    }
+
+    /**
+     * 按幂律把 total 分配到 buckets 个桶，每个桶不超过 cap
+     */
+    private int[] distribute(long total, int buckets, int cap) {
+        double norm = 0;
+        for (int k = 1; k <= buckets; k++) {
+            norm += 1 / Math.pow(k, SKEW);
+        }
+        int[] counts = new int[buckets];
+        for (int k = 1; k <= buckets; k++) {
+            counts[k - 1] = (int) Math.min(cap, Math.round(total / Math.pow(k, SKEW) / norm));
+        }
+        return counts;
+    }
+
+    /**
+     * 偏向小下标的随机下标（热门标签被更多文章使用）
+     */
+    private int skewedIndex(int size) {
+        return (int) Math.min(size - 1, Math.floor(size * Math.pow(random.nextDouble(), 3)));
+    }
+
+    private String paragraph(int words) {
+        StringBuilder text = new StringBuilder(words * 6);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+        }
+        return text.toString();
+    }
+
+    private Timestamp randomTime() {
+        return Timestamp.valueOf(epoch.plusMinutes(random.nextInt(365 * 24 * 60)));
+    }
+
+    private void flushIfFull(String sql, List<Object[]> batch, boolean force) {
+        if (batch.size() >= BATCH_SIZE || (force && !batch.isEmpty())) {
+            jdbc.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    private long maxId(String table) {
+        Long max = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    private static long sum(int[] values) {
+        long total = 0;
+        for (int value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    private static void progress(String name, long done, long total) {
+        if (done == total || done % 100_000 == 0) {
+            System.out.printf("  %s: %d/%d%n", name, done, total);
+        }
+    }
+
+    /**
+     * 已写入数据的规模，压测场景在此范围内随机选择用户、文章和评论
+     */
+    static final class Dataset {
+        final long users;
+        final long articles;
+        final long comments;
+
+        Dataset(long users, long articles, long comments) {
+            this.users = users;
+            this.articles = articles;
+            this.comments = comments;
+        }
+    }
+}
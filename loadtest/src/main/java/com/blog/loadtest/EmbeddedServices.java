@@ -0,0 +1,85 @@
+package com.blog.loadtest;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * 嵌入式 MariaDB 和 Redis
+ *
+ * 未通过 --db-url / --redis-port 指定本地服务时在进程内启动，退出时关闭；数据目录为临时目录，每次运行都是空库
+ */
+public class EmbeddedServices implements AutoCloseable {
+
+    private static final String DATABASE = "blog_loadtest";
+
+    private DB mariaDb;
+    private RedisServer redis;
+
+    private String jdbcUrl;
+    private int redisPort;
+
+    void start(LoadTestOptions options) throws ManagedProcessException, IOException {
+        if (options.embeddedDatabase()) {
+            DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+            config.setPort(0);
+            mariaDb = DB.newEmbeddedDB(config.build());
+            mariaDb.start();
+            mariaDb.createDB(DATABASE);
+            jdbcUrl = config.getURL(DATABASE);
+            System.out.println("嵌入式 MariaDB 已启动: " + jdbcUrl);
+        } else {
+            jdbcUrl = options.dbUrl;
+        }
+
+        if (options.embeddedRedis()) {
+            redisPort = freePort();
+            redis = new RedisServer(redisPort);
+            redis.start();
+            System.out.println("嵌入式 Redis 已启动: port=" + redisPort);
+        } else {
+            redisPort = options.redisPort;
+        }
+    }
+
+    /**
+     * 应用使用的 JDBC URL（开启批量改写，加速数据写入）
+     */
+    String jdbcUrl() {
+        String separator = jdbcUrl.contains("?") ? "&" : "?";
+        return jdbcUrl + separator + "useSSL=false&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true"
+                + "&useUnicode=true&characterEncoding=utf8&serverTimezone=Asia/Shanghai";
+    }
+
+    int redisPort() {
+        return redisPort;
+    }
+
+    @Override
+    public void close() {
+        if (redis != null) {
+            try {
+                redis.stop();
+            } catch (IOException e) {
+                System.err.println("嵌入式 Redis 关闭失败: " + e.getMessage());
+            }
+        }
+        if (mariaDb != null) {
+            try {
+                mariaDb.stop();
+            } catch (ManagedProcessException e) {
+                System.err.println("嵌入式 MariaDB 关闭失败: " + e.getMessage());
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
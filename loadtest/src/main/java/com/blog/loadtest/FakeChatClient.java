@@ -0,0 +1,68 @@
+package com.blog.loadtest;
+
+import org.springframework.ai.chat.ChatClient;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.Generation;
+import org.springframework.ai.chat.StreamingChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 模拟的大模型客户端
+ *
+ * 不发起网络请求，按首 token 延迟 + 每 token 间隔模拟生成耗时：
+ * call 阻塞到整段回复生成完毕，stream 按间隔逐个推送 token
+ */
+public class FakeChatClient implements ChatClient, StreamingChatClient {
+
+    private static final String[] WORDS = {
+            "spring", "java", "性能", "缓存", "数据库", "索引", "并发", "线程", "事务", "架构",
+            "博客", "文章", "评论", "标签", "查询", "优化", "延迟", "吞吐", "监控", "部署"
+    };
+
+    private final long firstTokenMs;
+    private final long tokenMs;
+    private final int tokens;
+
+    public FakeChatClient(long firstTokenMs, long tokenMs, int tokens) {
+        this.firstTokenMs = firstTokenMs;
+        this.tokenMs = tokenMs;
+        this.tokens = tokens;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        String[] reply = reply();
+        try {
+            Thread.sleep(firstTokenMs + tokenMs * reply.length);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new ChatResponse(List.of(new Generation(String.join("", reply))));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.fromArray(reply())
+                .delayElements(Duration.ofMillis(Math.max(1, tokenMs)))
+                .delaySubscription(Duration.ofMillis(firstTokenMs))
+                .map(token -> new ChatResponse(List.of(new Generation(token))));
+    }
+
+    /**
+     * 生成回复的 token 序列（逗号分隔的词，标签解析等调用也能得到可用结果）
+     */
+    private String[] reply() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] reply = new String[tokens];
+        for (int i = 0; i < tokens; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            reply[i] = i == 0 ? word : "," + word;
+        }
+        return reply;
+    }
+}
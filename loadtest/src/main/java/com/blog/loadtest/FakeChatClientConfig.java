@@ -0,0 +1,23 @@
+package com.blog.loadtest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * 压测时用模拟客户端替换 OpenAI 的 ChatClient（OpenAI 自动配置在 application-loadtest.yml 中排除），
+ * 仍由 OpenAIConfig 包装为带指标的客户端
+ */
+@Configuration
+@Profile("loadtest")
+public class FakeChatClientConfig {
+
+    @Bean
+    public FakeChatClient fakeChatClient(
+            @Value("${loadtest.chat.first-token-ms:400}") long firstTokenMs,
+            @Value("${loadtest.chat.token-ms:15}") long tokenMs,
+            @Value("${loadtest.chat.tokens:120}") int tokens) {
+        return new FakeChatClient(firstTokenMs, tokenMs, tokens);
+    }
+}
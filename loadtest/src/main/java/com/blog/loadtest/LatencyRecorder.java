@@ -0,0 +1,98 @@
+package com.blog.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按接口记录延迟直方图和错误数
+ *
+ * 场景首个请求的延迟从计划发出时间算起（发压端排队也计入，避免协调遗漏低估尾延迟）
+ */
+public class LatencyRecorder {
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    void record(String endpoint, long latencyNanos, boolean success) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.histogram.recordValue(Math.min(Math.max(latencyNanos, 0), MAX_TRACKABLE_NANOS));
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    /**
+     * 在途请求达到上限、未能发出的场景
+     */
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    void print(double seconds) {
+        System.out.printf("%n%-44s %9s %8s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Histogram h = entry.getValue().histogram;
+            System.out.printf("%-44s %9d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    entry.getKey(), h.getTotalCount(), entry.getValue().errors.sum(), h.getTotalCount() / seconds,
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(99)),
+                    millis(h.getValueAtPercentile(99.9)), millis(h.getMaxValue()));
+        }
+        if (dropped.sum() > 0) {
+            System.out.println("未发出的场景（在途请求达到上限）: " + dropped.sum());
+        }
+    }
+
+    void writeJson(Path file, double seconds, LoadTestOptions options) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rate", options.rate);
+        report.put("durationSeconds", seconds);
+        report.put("virtualThreads", options.virtualThreads);
+        report.put("mix", options.mix);
+        report.put("dropped", dropped.sum());
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Histogram h = entry.getValue().histogram;
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", h.getTotalCount());
+            stats.put("errors", entry.getValue().errors.sum());
+            stats.put("throughput", h.getTotalCount() / seconds);
+            stats.put("p50Ms", millis(h.getValueAtPercentile(50)));
+            stats.put("p99Ms", millis(h.getValueAtPercentile(99)));
+            stats.put("p999Ms", millis(h.getValueAtPercentile(99.9)));
+            stats.put("maxMs", millis(h.getMaxValue()));
+            results.put(entry.getKey(), stats);
+        }
+        report.put("endpoints", results);
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        System.out.println("\n报告已写入: " + file.toAbsolutePath());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Endpoint {
+        private final ConcurrentHistogram histogram = new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
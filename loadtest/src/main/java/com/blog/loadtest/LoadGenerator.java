@@ -0,0 +1,259 @@
+package com.blog.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 开放模型的负载发生器
+ *
+ * 按固定到达速率启动用户场景，不等待前一个场景完成（服务变慢时请求不会随之减少，与真实流量一致）；
+ * 每个场景是一串依次执行的请求：
+ * <ul>
+ *   <li>browse：文章列表 -> 文章详情 -> 评论列表</li>
+ *   <li>search：搜索 -> 文章详情</li>
+ *   <li>like：查询点赞状态 -> 点赞或取消点赞</li>
+ *   <li>comment：评论列表 -> 发表评论或回复评论</li>
+ *   <li>chat：创建 AI 会话 -> 发送消息</li>
+ * </ul>
+ */
+public class LoadGenerator implements AutoCloseable {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String baseUrl;
+    private final LoadTestOptions options;
+    private final DataSeeder.Dataset dataset;
+    private final String[] tokens;
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final String[] journeys;
+    private final int[] cumulativeWeights;
+
+    public LoadGenerator(String baseUrl, LoadTestOptions options, DataSeeder.Dataset dataset, String[] tokens) {
+        this.baseUrl = baseUrl;
+        this.options = options;
+        this.dataset = dataset;
+        this.tokens = tokens;
+        this.executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+
+        List<String> names = new ArrayList<>();
+        int[] weights = new int[options.mix.size()];
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : options.mix.entrySet()) {
+            total += entry.getValue();
+            weights[names.size()] = total;
+            names.add(entry.getKey());
+        }
+        this.journeys = names.toArray(new String[0]);
+        this.cumulativeWeights = weights;
+    }
+
+    /**
+     * 以目标速率运行指定时长，返回实际发压时长（秒）；结束时等待在途请求完成
+     */
+    double run(int seconds, LatencyRecorder recorder) {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            if (inFlight.get() >= options.maxInFlight) {
+                recorder.recordDropped();
+                continue;
+            }
+            inFlight.incrementAndGet();
+            startJourney(pickJourney(), intended, recorder)
+                    .whenComplete((ignored, error) -> inFlight.decrementAndGet());
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.timeoutMs);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<?> startJourney(String journey, long intended, LatencyRecorder recorder) {
+        try {
+            switch (journey) {
+                case "browse":
+                    return browse(intended, recorder);
+                case "search":
+                    return search(intended, recorder);
+                case "like":
+                    return like(intended, recorder);
+                case "comment":
+                    return comment(intended, recorder);
+                case "chat":
+                    return chat(intended, recorder);
+                default:
+                    throw new IllegalArgumentException("未知场景: " + journey);
+            }
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<?> browse(long intended, LatencyRecorder recorder) {
+        long article = randomArticle();
+        int page = ThreadLocalRandom.current().nextInt(20);
+        return send("GET /api/articles", get("/api/articles?page=" + page + "&size=10", null), intended, recorder)
+                .thenCompose(r -> send("GET /api/articles/{id}", get("/api/articles/" + article, null),
+                        System.nanoTime(), recorder))
+                .thenCompose(r -> send("GET /api/comments/article/{id}", get("/api/comments/article/" + article, null),
+                        System.nanoTime(), recorder));
+    }
+
+    private CompletableFuture<?> search(long intended, LatencyRecorder recorder) {
+        String keyword = DataSeeder.VOCABULARY[ThreadLocalRandom.current().nextInt(DataSeeder.VOCABULARY.length)];
+        return send("GET /api/articles/search",
+                get("/api/articles/search?keyword=" + URLEncoder.encode(keyword, StandardCharsets.UTF_8), null),
+                intended, recorder)
+                .thenCompose(r -> send("GET /api/articles/{id}", get("/api/articles/" + randomArticle(), null),
+                        System.nanoTime(), recorder));
+    }
+
+    private CompletableFuture<?> like(long intended, LatencyRecorder recorder) {
+        long article = randomArticle();
+        String token = randomToken();
+        return send("GET /api/likes/article/{id}/status", get("/api/likes/article/" + article + "/status", token),
+                intended, recorder)
+                .thenCompose(r -> {
+                    boolean liked = data(r).asBoolean(false);
+                    HttpRequest.Builder request = request("/api/likes/article/" + article, token);
+                    return liked
+                            ? send("DELETE /api/likes/article/{id}", request.DELETE().build(), System.nanoTime(), recorder)
+                            : send("POST /api/likes/article/{id}", request.POST(HttpRequest.BodyPublishers.noBody()).build(),
+                            System.nanoTime(), recorder);
+                });
+    }
+
+    private CompletableFuture<?> comment(long intended, LatencyRecorder recorder) {
+        long article = randomArticle();
+        String token = randomToken();
+        String body = "{\"content\":\"压测评论 " + System.nanoTime() + "\"}";
+        boolean reply = dataset.comments > 0 && ThreadLocalRandom.current().nextInt(3) == 0;
+        return send("GET /api/comments/article/{id}", get("/api/comments/article/" + article, null), intended, recorder)
+                .thenCompose(r -> reply
+                        ? send("POST /api/comments/{id}/reply",
+                        post("/api/comments/" + (1 + ThreadLocalRandom.current().nextLong(dataset.comments)) + "/reply",
+                                body, token), System.nanoTime(), recorder)
+                        : send("POST /api/comments/article/{id}", post("/api/comments/article/" + article, body, token),
+                        System.nanoTime(), recorder));
+    }
+
+    private CompletableFuture<?> chat(long intended, LatencyRecorder recorder) {
+        String token = randomToken();
+        return send("POST /api/ai/chat/conversations", post("/api/ai/chat/conversations", "", token), intended, recorder)
+                .thenCompose(r -> {
+                    long conversationId = body(r).path("id").asLong(0);
+                    if (conversationId == 0) {
+                        return CompletableFuture.completedFuture(r);
+                    }
+                    return send("POST /api/ai/chat/{id}/messages",
+                            post("/api/ai/chat/" + conversationId + "/messages", "{\"content\":\"介绍一下这个博客的热门文章\"}", token),
+                            System.nanoTime(), recorder);
+                });
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(String endpoint, HttpRequest request, long startNanos,
+                                                         LatencyRecorder recorder) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> recorder.record(endpoint, System.nanoTime() - startNanos,
+                        error == null && response.statusCode() < 400));
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String json, String token) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(json.isEmpty() ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofMillis(options.timeoutMs));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private String pickJourney() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return journeys[i];
+            }
+        }
+        return journeys[journeys.length - 1];
+    }
+
+    private long randomArticle() {
+        return 1 + ThreadLocalRandom.current().nextLong(dataset.articles);
+    }
+
+    private String randomToken() {
+        return tokens[ThreadLocalRandom.current().nextInt(tokens.length)];
+    }
+
+    private static JsonNode data(HttpResponse<String> response) {
+        return body(response).path("data");
+    }
+
+    private static JsonNode body(HttpResponse<String> response) {
+        if (response.statusCode() >= 400 || response.body() == null || response.body().isEmpty()) {
+            return MissingNode.getInstance();
+        }
+        try {
+            return JSON.readTree(response.body());
+        } catch (IOException e) {
+            return MissingNode.getInstance();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.blog.loadtest;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 压测参数，命令行格式 --name=value
+ */
+public class LoadTestOptions {
+
+    // 数据规模
+    final int users;
+    final int articles;
+    final int tags;
+    final long likes;
+    final long comments;
+    final int threadDepth;
+
+    // 负载
+    final double rate;
+    final int warmupSeconds;
+    final int durationSeconds;
+    final int maxInFlight;
+    final int timeoutMs;
+    final Map<String, Integer> mix;
+
+    // 模拟 LLM
+    final long chatFirstTokenMs;
+    final long chatTokenMs;
+    final int chatTokens;
+
+    // 替身：不指定时使用嵌入式服务
+    final String dbUrl;
+    final String dbUsername;
+    final String dbPassword;
+    final String redisHost;
+    final int redisPort;
+
+    final int serverPort;
+    final boolean virtualThreads;
+    final String report;
+
+    private LoadTestOptions(Map<String, String> args) {
+        users = intArg(args, "users", 20_000);
+        articles = intArg(args, "articles", 100_000);
+        tags = intArg(args, "tags", 2_000);
+        likes = longArg(args, "likes", 1_000_000);
+        comments = longArg(args, "comments", 300_000);
+        threadDepth = intArg(args, "thread-depth", 50);
+
+        rate = Double.parseDouble(args.getOrDefault("rate", "50"));
+        warmupSeconds = intArg(args, "warmup", 15);
+        durationSeconds = intArg(args, "duration", 60);
+        maxInFlight = intArg(args, "max-in-flight", 5_000);
+        timeoutMs = intArg(args, "timeout-ms", 10_000);
+        mix = parseMix(args.getOrDefault("mix", "browse=55,search=15,like=15,comment=10,chat=5"));
+
+        chatFirstTokenMs = longArg(args, "chat-first-token-ms", 400);
+        chatTokenMs = longArg(args, "chat-token-ms", 15);
+        chatTokens = intArg(args, "chat-tokens", 120);
+
+        dbUrl = args.get("db-url");
+        dbUsername = args.getOrDefault("db-username", "root");
+        dbPassword = args.getOrDefault("db-password", "");
+        redisHost = args.getOrDefault("redis-host", "localhost");
+        redisPort = intArg(args, "redis-port", 0);
+
+        serverPort = intArg(args, "port", 18080);
+        virtualThreads = Boolean.parseBoolean(args.getOrDefault("virtual", "false"));
+        report = args.getOrDefault("report", "target/loadtest-report.json");
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("无法识别的参数: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return new LoadTestOptions(values);
+    }
+
+    /**
+     * 是否使用嵌入式 MariaDB
+     */
+    boolean embeddedDatabase() {
+        return dbUrl == null;
+    }
+
+    /**
+     * 是否使用嵌入式 Redis
+     */
+    boolean embeddedRedis() {
+        return redisPort == 0;
+    }
+
+    /**
+     * 场景权重，例如 browse=60,search=20,chat=20
+     */
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("场景权重格式错误: " + part);
+            }
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) {
+                mix.put(kv[0].trim(), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("至少需要一个权重大于 0 的场景");
+        }
+        return mix;
+    }
+
+    private static int intArg(Map<String, String> args, String name, int defaultValue) {
+        String value = args.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value.replace("_", ""));
+    }
+
+    private static long longArg(Map<String, String> args, String name, long defaultValue) {
+        String value = args.get(name);
+        return value == null ? defaultValue : Long.parseLong(value.replace("_", ""));
+    }
+}
@@ -0,0 +1,107 @@
+package com.blog.loadtest;
+
+import com.blog.BlogApplication;
+import com.blog.entity.User;
+import com.blog.security.JwtTokenProvider;
+import com.blog.service.TagDirectoryService;
+import com.blog.service.TagService;
+import com.blog.service.UserStatsService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import javax.sql.DataSource;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 压测入口
+ *
+ * 1. 启动嵌入式 MariaDB、Redis（或使用 --db-url、--redis-port 指定的本地服务）
+ * 2. 以 loadtest 配置启动应用，ChatClient 替换为 FakeChatClient
+ * 3. 写入压测数据并触发应用的对账任务（标签使用次数、标签目录、用户统计）
+ * 4. 预热后按 --rate（场景/秒）发压 --duration 秒，输出各接口吞吐量和 p50/p99/p999 延迟
+ *
+ * 加 --virtual 时应用使用虚拟线程处理请求（需 Java 21），同一参数分别运行两次即可对比
+ */
+public class LoadTestRunner {
+
+    // 签发令牌的用户数（令牌在这些用户中随机选择）
+    private static final int TOKEN_USERS = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        try (EmbeddedServices services = new EmbeddedServices()) {
+            services.start(options);
+
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BlogApplication.class)
+                    .run(applicationArgs(options, services))) {
+
+                DataSeeder.Dataset dataset = new DataSeeder(
+                        new JdbcTemplate(context.getBean(DataSource.class)), options).seed();
+                reconcile(context);
+                String[] tokens = issueTokens(context.getBean(JwtTokenProvider.class), dataset.users);
+
+                try (LoadGenerator generator = new LoadGenerator(
+                        "http://localhost:" + options.serverPort, options, dataset, tokens)) {
+                    if (options.warmupSeconds > 0) {
+                        System.out.println("预热 " + options.warmupSeconds + " 秒...");
+                        generator.run(options.warmupSeconds, new LatencyRecorder());
+                    }
+
+                    System.out.printf("发压: %.1f 场景/秒, %d 秒, 场景权重=%s, 虚拟线程=%s%n",
+                            options.rate, options.durationSeconds, options.mix, options.virtualThreads);
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    double elapsed = generator.run(options.durationSeconds, recorder);
+
+                    recorder.print(elapsed);
+                    recorder.writeJson(Paths.get(options.report), elapsed, options);
+                }
+            }
+        }
+    }
+
+    private static String[] applicationArgs(LoadTestOptions options, EmbeddedServices services) {
+        List<String> args = new ArrayList<>();
+        // --virtual 时同时激活 virtual 配置（虚拟线程 + 固定监控），与生产中的开启方式一致
+        args.add("--spring.profiles.active=" + (options.virtualThreads ? "loadtest,virtual" : "loadtest"));
+        args.add("--server.port=" + options.serverPort);
+        args.add("--spring.datasource.url=" + services.jdbcUrl());
+        args.add("--spring.datasource.username=" + options.dbUsername);
+        args.add("--spring.datasource.password=" + options.dbPassword);
+        args.add("--spring.data.redis.host=" + (options.embeddedRedis() ? "localhost" : options.redisHost));
+        args.add("--spring.data.redis.port=" + services.redisPort());
+        args.add("--loadtest.chat.first-token-ms=" + options.chatFirstTokenMs);
+        args.add("--loadtest.chat.token-ms=" + options.chatTokenMs);
+        args.add("--loadtest.chat.tokens=" + options.chatTokens);
+        return args.toArray(new String[0]);
+    }
+
+    /**
+     * 数据是直接写库的，手动触发启动时已经执行过的对账和重建
+     */
+    private static void reconcile(ConfigurableApplicationContext context) {
+        context.getBean(TagService.class).reconcileUsageCounts();
+        context.getBean(TagDirectoryService.class).rebuild();
+        context.getBean(UserStatsService.class).reconcile();
+    }
+
+    private static String[] issueTokens(JwtTokenProvider tokenProvider, long users) {
+        int count = (int) Math.min(users, TOKEN_USERS);
+        List<String> tokens = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setUsername("user" + id);
+            user.setEmail("user" + id + "@loadtest.local");
+            user.setRole(id == 1 ? User.UserRole.ADMIN : User.UserRole.USER);
+            tokens.add(tokenProvider.generateToken(
+                    new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList())));
+        }
+        return tokens.toArray(new String[0]);
+    }
+}
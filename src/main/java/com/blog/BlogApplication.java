@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -11,9 +12,11 @@ import org.springframework.web.client.RestTemplate;
  *
  * 使用 @SpringBootApplication 注解标记这是一个 Spring Boot 应用
  * 使用 @EnableJpaAuditing 注解启用 JPA 审计功能（自动设置创建时间、更新时间等）
+ * 使用 @EnableScheduling 注解启用定时任务（统计增量写入、对账等）
  */
 @SpringBootApplication
 @EnableJpaAuditing
+@EnableScheduling
 public class BlogApplication {
 
     /**
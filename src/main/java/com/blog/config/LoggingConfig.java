@@ -0,0 +1,24 @@
+package com.blog.config;
+
+import com.blog.logging.CorrelationIdFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 日志配置（输出格式、异步和限流见 logback-spring.xml）
+ */
+@Configuration
+public class LoggingConfig {
+
+    /**
+     * 最先执行的过滤器，之后所有日志（包括 SQL 统计告警）都带有 requestId
+     */
+    @Bean
+    public FilterRegistrationBean<CorrelationIdFilter> correlationIdFilter() {
+        FilterRegistrationBean<CorrelationIdFilter> registration = new FilterRegistrationBean<>(new CorrelationIdFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
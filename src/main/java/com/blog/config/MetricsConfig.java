@@ -0,0 +1,29 @@
+package com.blog.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.commonspool2.CommonsObjectPool2Metrics;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 指标配置
+ *
+ * Spring Boot 自动提供的部分：Hikari 连接池（hikaricp.connections.*，按 pool 标签区分主库和从库）、
+ * 仓库方法耗时（spring.data.repository.invocations）、Lettuce 命令耗时（lettuce.command.*）、
+ * Hibernate 统计（hibernate.*，含二级缓存和查询缓存按区域的命中、未命中数）；
+ * 这里补充 Redis 连接池的使用情况
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Lettuce 连接池（commons-pool2）的活跃、空闲、等待数等，指标前缀 commons.pool2
+     */
+    @Bean
+    @ConditionalOnClass(GenericObjectPool.class)
+    public CommonsObjectPool2Metrics redisPoolMetrics() {
+        return new CommonsObjectPool2Metrics(Tags.of("client", "redis"));
+    }
+}
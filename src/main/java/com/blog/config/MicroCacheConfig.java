@@ -0,0 +1,57 @@
+package com.blog.config;
+
+import com.blog.httpcache.MicroCacheFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * 匿名 GET 整页微缓存配置（blog.micro-cache.enabled=false 时关闭）
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "blog.micro-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MicroCacheConfig {
+
+    @Value("${blog.micro-cache.ttl-millis:2000}")
+    private long ttlMillis;
+
+    @Value("${blog.micro-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${blog.micro-cache.max-body-bytes:1048576}")
+    private int maxBodyBytes;
+
+    @Value("${blog.micro-cache.min-compress-bytes:512}")
+    private int minCompressBytes;
+
+    @Value("${blog.micro-cache.wait-timeout-ms:5000}")
+    private long waitTimeoutMillis;
+
+    @Value("${blog.micro-cache.max-total-bytes:67108864}")
+    private long maxTotalBytes;
+
+    @Value("${blog.micro-cache.query-params:page,size,sortBy,direction,tag,keyword,limit,symbol,symbols}")
+    private Set<String> queryParams;
+
+    @Value("${blog.micro-cache.url-patterns:/api/articles/*,/api/comments/article/*,/api/tools/market/*}")
+    private String[] urlPatterns;
+
+    /**
+     * 在安全过滤器链之后执行：安全响应头照常按请求写入，缓存的只有业务响应
+     */
+    @Bean
+    public FilterRegistrationBean<MicroCacheFilter> microCacheFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<MicroCacheFilter> registration = new FilterRegistrationBean<>(new MicroCacheFilter(
+                ttlMillis, maxEntries, maxBodyBytes, minCompressBytes, waitTimeoutMillis,
+                maxTotalBytes, queryParams, meterRegistry));
+        registration.addUrlPatterns(urlPatterns);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
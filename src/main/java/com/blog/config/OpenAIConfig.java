@@ -1,14 +1,21 @@
 package com.blog.config;
 
+import com.blog.metrics.MeteredChatClient;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.ai.chat.ChatClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 @Configuration
 public class OpenAIConfig {
 
+    /**
+     * 业务代码注入的 ChatClient：包装自动配置的客户端，记录耗时、错误和 token 数
+     */
     @Bean
-    public ChatClient chatClient(ChatClient chatClient) {
-        return chatClient;
+    @Primary
+    public ChatClient chatClient(ChatClient chatClient, MeterRegistry meterRegistry) {
+        return new MeteredChatClient(chatClient, meterRegistry);
     }
 }
@@ -0,0 +1,80 @@
+package com.blog.config;
+
+import com.blog.querybudget.QueryBudgetEndpoint;
+import com.blog.querybudget.QueryBudgetFilter;
+import com.blog.querybudget.QueryBudgetInterceptor;
+import com.blog.querybudget.QueryOffenderRegistry;
+import com.blog.querybudget.QueryTrackingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * 请求级 SQL 统计配置（blog.query-budget.enabled=false 时关闭）
+ *
+ * 包装应用使用的 dataSource（开启读写分离时为路由数据源，主从库的查询都会统计）
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "blog.query-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryBudgetConfig implements WebMvcConfigurer {
+
+    @Value("${blog.query-budget.warn-threshold:30}")
+    private int warnThreshold;
+
+    @Value("${blog.query-budget.repeat-threshold:5}")
+    private int repeatThreshold;
+
+    @Value("${blog.query-budget.fail-on-exceed:false}")
+    private boolean failOnExceed;
+
+    @Value("${blog.query-budget.max-routes:500}")
+    private int maxRoutes;
+
+    @Bean
+    public static BeanPostProcessor queryTrackingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof QueryTrackingDataSource)) {
+                    return new QueryTrackingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public QueryOffenderRegistry queryOffenderRegistry() {
+        return new QueryOffenderRegistry(maxRoutes);
+    }
+
+    /**
+     * 紧跟在 CorrelationIdFilter 之后执行，认证过滤器中的查询也计入，告警日志带有 requestId
+     */
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(QueryOffenderRegistry registry) {
+        FilterRegistrationBean<QueryBudgetFilter> registration = new FilterRegistrationBean<>(
+                new QueryBudgetFilter(registry, warnThreshold, repeatThreshold, failOnExceed));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    public QueryBudgetEndpoint queryBudgetEndpoint(QueryOffenderRegistry registry) {
+        return new QueryBudgetEndpoint(registry, warnThreshold, repeatThreshold);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor());
+    }
+}
@@ -0,0 +1,105 @@
+package com.blog.config;
+
+import com.blog.datasource.ReadYourWritesFilter;
+import com.blog.datasource.ReplicaPool;
+import com.blog.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离配置（blog.datasource.replicas.enabled=true 时生效）
+ *
+ * 主库沿用 spring.datasource 配置；只读事务路由到 blog.datasource.replicas.urls 中的从库
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "blog.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Value("${blog.datasource.replicas.urls:}")
+    private List<String> replicaUrls;
+
+    @Value("${blog.datasource.replicas.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${blog.datasource.replicas.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${blog.datasource.replicas.maximum-pool-size:20}")
+    private int replicaPoolSize;
+
+    @Value("${blog.datasource.replicas.connection-timeout:2000}")
+    private long replicaConnectionTimeout;
+
+    @Value("${blog.datasource.replicas.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    @Value("${blog.datasource.replicas.sticky-millis:10000}")
+    private long stickyMillis;
+
+    /**
+     * 主库连接池
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * 从库连接池组
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaPool replicaPool(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        int index = 0;
+        for (String url : replicaUrls) {
+            if (!StringUtils.hasText(url)) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + index++);
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.getDriverClassName());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setConnectionTimeout(replicaConnectionTimeout);
+            replica.setReadOnly(true);
+            // 从库宕机时不阻止应用启动
+            replica.setInitializationFailTimeout(-1);
+            // 从库连接池不是 Bean，需自行注册 hikaricp 指标
+            replica.setMetricRegistry(meterRegistry);
+            replicas.add(replica);
+        }
+        return new ReplicaPool(replicas, maxLagSeconds);
+    }
+
+    /**
+     * 应用使用的数据源：延迟获取连接，确保路由时已能看到事务的只读标记
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaPool));
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter(stickyMillis);
+    }
+}
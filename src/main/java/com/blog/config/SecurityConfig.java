@@ -1,7 +1,11 @@
 package com.blog.config;
 
+import com.blog.querybudget.QueryBudgetEndpoint;
 import com.blog.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,6 +16,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -19,22 +24,77 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private static final String PASSWORD_ENCODER_ID = "bcrypt";
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
     /**
      * 密码加密器
+     *
+     * BCrypt 强度由配置统一指定，所有节点一致；哈希以 {bcrypt} 前缀存储，
+     * 旧的无前缀哈希或低强度哈希会在下次登录时由 DaoAuthenticationProvider 自动升级。
+     * 开启 calibrate 时启动时测量本机耗时，只在日志中给出建议强度，不改变实际使用的强度
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${blog.security.password.bcrypt-strength:12}") int strength,
+            @Value("${blog.security.password.calibrate:false}") boolean calibrate,
+            @Value("${blog.security.password.target-millis:250}") long targetMillis,
+            @Value("${blog.security.password.min-strength:10}") int minStrength,
+            @Value("${blog.security.password.max-strength:14}") int maxStrength) {
+
+        if (calibrate) {
+            int recommended = calibrateBCryptStrength(targetMillis, minStrength, maxStrength);
+            if (recommended != strength) {
+                log.warn("BCrypt 强度与本机建议值不同: configured={}, recommended={}，如需调整请修改 blog.security.password.bcrypt-strength",
+                        strength, recommended);
+            }
+        }
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(PASSWORD_ENCODER_ID, new BCryptPasswordEncoder(strength));
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(PASSWORD_ENCODER_ID, encoders);
+        // 兼容历史上未带前缀的 BCrypt 哈希
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
+    }
+
+    /**
+     * 选择单次哈希耗时不超过目标值的最大 BCrypt 强度（强度每 +1 耗时约翻倍）
+     */
+    private int calibrateBCryptStrength(long targetMillis, int minStrength, int maxStrength) {
+        String sample = "calibration-sample-password";
+        // 预热，避免首轮 JIT 影响测量
+        new BCryptPasswordEncoder(minStrength).encode(sample);
+
+        int strength = minStrength;
+        long elapsedMillis = measureBCrypt(strength, sample);
+        while (strength < maxStrength && elapsedMillis * 2 <= targetMillis) {
+            strength++;
+            elapsedMillis = measureBCrypt(strength, sample);
+        }
+
+        log.info("BCrypt 强度测量完成: recommended={}, elapsed={}ms, target={}ms", strength, elapsedMillis, targetMillis);
+        return strength;
+    }
+
+    private long measureBCrypt(int strength, String sample) {
+        long start = System.nanoTime();
+        new BCryptPasswordEncoder(strength).encode(sample);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
     }
 
     /**
@@ -94,6 +154,7 @@ public class SecurityConfig {
                                 "/api/tools/market",    // ⬅⬅⬅ 放行行情接口
                                 "/api/tools/market/**",
                                 "/api/comments/article/**",
+                                "/uploads/**",
 
                                 "/error",
                                 "/swagger-ui/**",
@@ -101,12 +162,15 @@ public class SecurityConfig {
                                 "/", "/index", "/home",
                                 "/login", "/register",
                                 "/article/**", "/search",
-                                "/tags", "/tag/**", "/about"
+                                "/tags", "/tag/**", "/about",
+                                "/feed/**", "/sitemap.xml", "/sitemaps/**"
                         ).permitAll()
 
 
                         // 管理接口
                         .requestMatchers("/api/admin/**", "/admin/**").hasRole("ADMIN")
+                        // SQL 统计端点含接口路由和语句形态（随 management.endpoints.web.base-path 变化）
+                        .requestMatchers(EndpointRequest.to(QueryBudgetEndpoint.class)).hasRole("ADMIN")
 
                         // 其他都要登录
                         .anyRequest().authenticated()
@@ -1,13 +1,29 @@
 package com.blog.config;
 
+import com.blog.ratelimit.RateLimitInterceptor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    /**
+     * 注册拦截器
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 接口限流（在 Controller 和数据库事务之前执行）
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/api/**");
+    }
+
     /**
      * 配置跨域访问
      */
@@ -31,9 +47,7 @@ public class WebConfig implements WebMvcConfigurer {
      */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // 处理文件上传的静态资源访问
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:./uploads/");
+        // /uploads/** 由 UploadController 处理（sendfile、Range、ETag）
 
         // 如果使用 Swagger，添加资源处理器
         registry.addResourceHandler("swagger-ui.html")
@@ -10,12 +10,14 @@ import com.blog.entity.User;
 import com.blog.security.CustomUserDetails;
 import com.blog.service.AiChatService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/ai/chat")
 @RequiredArgsConstructor
@@ -26,30 +28,18 @@ public class AiChatController {
     @PostMapping("/conversations")
     public ConversationResponse createConversation(Authentication authentication) {
 
-        System.out.println("=== [AI] createConversation called ===");
-
         if (authentication == null) {
-            System.out.println("❌ authentication is NULL");
+            log.warn("创建 AI 对话时未认证");
             return null;
         }
 
-        System.out.println("auth = " + authentication);
-        System.out.println("principal = " + authentication.getPrincipal());
-
         CustomUserDetails userDetails =
                 (CustomUserDetails) authentication.getPrincipal();
 
         User user = userDetails.toUser();
 
-        System.out.println("userId = " + user.getId());
-        System.out.println("username = " + user.getUsername());
-
         Conversation c = aiChatService.createAiConversation(user);
-
-        System.out.println("✅ created conversation:");
-        System.out.println("id = " + c.getId());
-        System.out.println("title = " + c.getTitle());
-        System.out.println("type = " + c.getType());
+        log.debug("创建 AI 对话: userId={}, conversationId={}", user.getId(), c.getId());
 
         return new ConversationResponse(
                 c.getId(),
@@ -63,8 +53,6 @@ public class AiChatController {
     public List<ConversationResponse> getConversationResponse(
             Authentication authentication
     ) {
-        System.out.println("=== get chat history ===");
-
         CustomUserDetails userDetails =
                 (CustomUserDetails) authentication.getPrincipal();
 
@@ -73,8 +61,6 @@ public class AiChatController {
         List<ConversationResponse> list =
                 aiChatService.listMyAiConversations(user);
 
-        System.out.println("history size = " + list.size());
-
         return list;
     }
 
@@ -84,10 +70,6 @@ public class AiChatController {
             @RequestBody ChatSendRequest request,
             Authentication authentication
     ) {
-        System.out.println("=== send message ===");
-        System.out.println("conversationId = " + conversationId);
-        System.out.println("content = " + request.getContent());
-
         CustomUserDetails userDetails =
                 (CustomUserDetails) authentication.getPrincipal();
 
@@ -101,9 +83,6 @@ public class AiChatController {
             @PathVariable Long conversationId,
             Authentication authentication
     ) {
-        System.out.println("=== get history ===");
-        System.out.println("conversationId = " + conversationId);
-
         CustomUserDetails userDetails =
                 (CustomUserDetails) authentication.getPrincipal();
 
@@ -112,8 +91,6 @@ public class AiChatController {
         List<MessageResponse> list =
                 aiChatService.getHistory(conversationId, user);
 
-        System.out.println("history size = " + list.size());
-
         return list;
     }
 
@@ -121,15 +98,12 @@ public class AiChatController {
     public ResponseEntity<ApiResponse<Void>> deleteConversation(
             @PathVariable Long conversationId,
             Authentication authentication) {
-        System.out.println("=== deleteConversation called ===");
-        System.out.println("conversationId = " + conversationId);
-
         CustomUserDetails userDetails =
                 (CustomUserDetails) authentication.getPrincipal();
 
         User user = userDetails.toUser();
         aiChatService.deleteConversation(conversationId, user);
-        System.out.println("删除对话成功");
+        log.debug("删除 AI 对话: userId={}, conversationId={}", user.getId(), conversationId);
         return ResponseEntity.ok(ApiResponse.success("对话删除成功", null));
     }
 
@@ -4,8 +4,12 @@ import com.blog.dto.request.ArticleRequest;
 import com.blog.dto.response.ApiResponse;
 import com.blog.dto.response.ArticleResponse;
 import com.blog.entity.User;
+import com.blog.httpcache.ConditionalGet;
+import com.blog.httpcache.ResourceType;
+import com.blog.querybudget.QueryBudget;
 import com.blog.security.CustomUserDetails;
 import com.blog.service.ArticleService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -24,10 +28,12 @@ import java.util.List;
 public class ArticleController {
 
     private final ArticleService articleService;
+    private final ConditionalGet conditionalGet;
 
     /**
      * 获取文章列表（分页）
      */
+    @QueryBudget(maxQueries = 15)
     @GetMapping
     public ResponseEntity<ApiResponse<Page<ArticleResponse>>> getArticles(
             @RequestParam(defaultValue = "0") int page,
@@ -43,12 +49,13 @@ public class ArticleController {
     }
 
     /**
-     * 获取文章详情
+     * 获取文章详情（支持 If-None-Match，未修改时返回 304 且不计阅读数）
      */
+    @QueryBudget(maxQueries = 8)
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<ArticleResponse>> getArticle(@PathVariable Long id) {
-        ArticleResponse article = articleService.getArticleById(id);
-        return ResponseEntity.ok(ApiResponse.success("获取成功", article));
+    public ResponseEntity<ApiResponse<ArticleResponse>> getArticle(@PathVariable Long id, HttpServletRequest request) {
+        return conditionalGet.respond(request, ResourceType.ARTICLE, id,
+                () -> ApiResponse.success("获取成功", articleService.getArticleById(id)));
     }
 
     /**
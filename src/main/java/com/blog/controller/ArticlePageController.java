@@ -0,0 +1,35 @@
+package com.blog.controller;
+
+import com.blog.service.ArticlePageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 服务端渲染的公开文章页（供首屏和搜索引擎使用，交互部分仍由前端应用完成）
+ */
+@Controller
+@RequiredArgsConstructor
+public class ArticlePageController {
+
+    private final ArticlePageService articlePageService;
+
+    /**
+     * 文章页（预渲染 HTML + 实时计数）
+     */
+    @GetMapping(value = "/article/{slug}", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<String> getArticlePage(@PathVariable String slug) {
+        return articlePageService.serve(slug)
+                .map(html -> ResponseEntity.ok()
+                        .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                        .cacheControl(CacheControl.noCache())
+                        .body(html))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -5,8 +5,11 @@ import com.blog.dto.request.RegisterRequest;
 import com.blog.dto.response.ApiResponse;
 import com.blog.dto.response.UserResponse;
 import com.blog.entity.User;
+import com.blog.ratelimit.RateLimit;
+import com.blog.ratelimit.RateLimitKey;
 import com.blog.security.CustomUserDetails;
 import com.blog.security.JwtTokenProvider;
+import com.blog.service.PasswordHashingService;
 import com.blog.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +32,7 @@ public class AuthController {
     private final UserService userService;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final PasswordHashingService passwordHashingService;
 
     /**
      * 用户注册
@@ -65,11 +69,15 @@ public class AuthController {
 //
 //        return ResponseEntity.ok(ApiResponse.success("登录成功", data));
 //    }
+    @RateLimit(key = RateLimitKey.IP, limit = 20, windowSeconds = 60, message = "登录尝试过于频繁，请稍后再试")
     @PostMapping("/login")
     public ResponseEntity<ApiResponse<Map<String, Object>>> login(@Valid @RequestBody LoginRequest request) {
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
+        // 密码校验放到专用的哈希线程池，避免占用请求线程的 CPU
+        Authentication authentication = passwordHashingService.execute("authenticate", () ->
+                authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
+                )
         );
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
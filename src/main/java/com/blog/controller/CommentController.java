@@ -4,18 +4,19 @@ import com.blog.dto.request.CommentRequest;
 import com.blog.dto.response.ApiResponse;
 import com.blog.dto.response.CommentResponse;
 import com.blog.entity.User;
-import com.blog.exception.BlogException;
+import com.blog.httpcache.ConditionalGet;
+import com.blog.httpcache.ResourceType;
+import com.blog.querybudget.QueryBudget;
+import com.blog.ratelimit.RateLimit;
 import com.blog.security.CustomUserDetails;
 import com.blog.service.CommentService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -24,21 +25,23 @@ import java.util.List;
 public class CommentController {
 
     private final CommentService commentService;
-
-    private final RedisTemplate<String, String> redisTemplate;
+    private final ConditionalGet conditionalGet;
 
     /**
-     * 获取文章的评论列表
+     * 获取文章的评论列表（支持 If-None-Match）
      */
+    @QueryBudget(maxQueries = 10)
     @GetMapping("/article/{articleId}")
-    public ResponseEntity<ApiResponse<List<CommentResponse>>> getArticleComments(@PathVariable Long articleId) {
-        List<CommentResponse> comments = commentService.getCommentsByArticleId(articleId);
-        return ResponseEntity.ok(ApiResponse.success("获取成功", comments));
+    public ResponseEntity<ApiResponse<List<CommentResponse>>> getArticleComments(@PathVariable Long articleId,
+                                                                                  HttpServletRequest request) {
+        return conditionalGet.respond(request, ResourceType.ARTICLE_COMMENTS, articleId,
+                () -> ApiResponse.success("获取成功", commentService.getCommentsByArticleId(articleId)));
     }
 
     /**
-     * 发表评论
+     * 发表评论（每个用户每 10 秒只能评论 1 次）
      */
+    @RateLimit(limit = 1, windowSeconds = 10, message = "评论过于频繁，请稍后再试")
     @PostMapping("/article/{articleId}")
     public ResponseEntity<ApiResponse<CommentResponse>> createComment(
             @PathVariable Long articleId,
@@ -48,13 +51,6 @@ public class CommentController {
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
         User user = userDetails.toUser();
 
-        // 🔥 Redis 限流：用户每 10 秒只能评论 1 次
-        String redisKey = "comment:limit:user:" + user.getId();
-        Boolean isAllowed = redisTemplate.opsForValue().setIfAbsent(redisKey, "1", Duration.ofSeconds(10));
-        if (Boolean.FALSE.equals(isAllowed)) {
-            throw new BlogException("评论过于频繁，请稍后再试", HttpStatus.TOO_MANY_REQUESTS);
-        }
-
         CommentResponse comment = commentService.createComment(articleId, request, user);
 
         return ResponseEntity.ok(ApiResponse.success("评论发表成功", comment));
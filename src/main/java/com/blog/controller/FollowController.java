@@ -0,0 +1,74 @@
+package com.blog.controller;
+
+import com.blog.dto.response.ApiResponse;
+import com.blog.dto.response.ArticleResponse;
+import com.blog.dto.response.CursorPage;
+import com.blog.entity.User;
+import com.blog.security.CustomUserDetails;
+import com.blog.service.FeedService;
+import com.blog.service.FollowService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class FollowController {
+
+    private final FollowService followService;
+    private final FeedService feedService;
+
+    /**
+     * 关注用户
+     */
+    @PostMapping("/users/{userId}/follow")
+    public ResponseEntity<ApiResponse<Void>> follow(@PathVariable Long userId, Authentication authentication) {
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        User user = userDetails.toUser();
+
+        followService.follow(user.getId(), userId);
+        return ResponseEntity.ok(ApiResponse.success("关注成功", null));
+    }
+
+    /**
+     * 取消关注
+     */
+    @DeleteMapping("/users/{userId}/follow")
+    public ResponseEntity<ApiResponse<Void>> unfollow(@PathVariable Long userId, Authentication authentication) {
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        User user = userDetails.toUser();
+
+        followService.unfollow(user.getId(), userId);
+        return ResponseEntity.ok(ApiResponse.success("已取消关注", null));
+    }
+
+    /**
+     * 检查是否已关注
+     */
+    @GetMapping("/users/{userId}/follow")
+    public ResponseEntity<ApiResponse<Boolean>> isFollowing(@PathVariable Long userId, Authentication authentication) {
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        User user = userDetails.toUser();
+
+        boolean following = followService.isFollowing(user.getId(), userId);
+        return ResponseEntity.ok(ApiResponse.success("获取成功", following));
+    }
+
+    /**
+     * 获取关注动态（before 为上一页返回的 nextCursor）
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<ApiResponse<CursorPage<ArticleResponse>>> getFeed(
+            Authentication authentication,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "10") int size) {
+
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        User user = userDetails.toUser();
+
+        CursorPage<ArticleResponse> feed = feedService.getFeed(user.getId(), before, size);
+        return ResponseEntity.ok(ApiResponse.success("获取成功", feed));
+    }
+}
@@ -1,11 +1,15 @@
 package com.blog.controller;
 
 import com.blog.dto.response.ApiResponse;
+import com.blog.dto.response.CursorPage;
 import com.blog.dto.response.ProfileResponse;
 import com.blog.dto.response.UserActivityResponse;
 import com.blog.entity.User;
+import com.blog.httpcache.ConditionalGet;
+import com.blog.httpcache.ResourceType;
 import com.blog.security.CustomUserDetails;
 import com.blog.service.ProfileService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -22,6 +26,7 @@ import java.util.List;
 public class ProfileController {
 
     private final ProfileService profileService;
+    private final ConditionalGet conditionalGet;
 
     /**
      * 获取个人主页信息
@@ -36,12 +41,13 @@ public class ProfileController {
     }
 
     /**
-     * 获取其他用户的个人主页信息
+     * 获取其他用户的个人主页信息（支持 If-None-Match）
      */
     @GetMapping("/{userId}")
-    public ResponseEntity<ApiResponse<ProfileResponse>> getUserProfile(@PathVariable Long userId) {
-        ProfileResponse profile = profileService.getProfile(userId);
-        return ResponseEntity.ok(ApiResponse.success("获取成功", profile));
+    public ResponseEntity<ApiResponse<ProfileResponse>> getUserProfile(@PathVariable Long userId,
+                                                                       HttpServletRequest request) {
+        return conditionalGet.respond(request, ResourceType.PROFILE, userId,
+                () -> ApiResponse.success("获取成功", profileService.getProfile(userId)));
     }
 
     /**
@@ -68,12 +74,29 @@ public class ProfileController {
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
         User user = userDetails.toUser();
 
-        Pageable pageable = PageRequest.of(page, size);
+        // 上限由 UserActivityService 限制
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(size, 1));
         Page<UserActivityResponse> timeline = profileService.getUserTimeline(user.getId(), pageable);
 
         return ResponseEntity.ok(ApiResponse.success("获取成功", timeline));
     }
 
+    /**
+     * 游标分页获取用户活动时间线
+     */
+    @GetMapping("/timeline/cursor")
+    public ResponseEntity<ApiResponse<CursorPage<UserActivityResponse>>> getUserTimelineByCursor(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        User user = userDetails.toUser();
+
+        CursorPage<UserActivityResponse> timeline = profileService.getUserTimeline(user.getId(), cursor, size);
+        return ResponseEntity.ok(ApiResponse.success("获取成功", timeline));
+    }
+
     /**
      * 获取用户最近的活动
      */
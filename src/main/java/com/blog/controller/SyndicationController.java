@@ -0,0 +1,106 @@
+package com.blog.controller;
+
+import com.blog.syndication.AtomFeedService;
+import com.blog.syndication.FeedKey;
+import com.blog.syndication.SitemapService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Atom 订阅源与站点地图
+ */
+@Controller
+@RequiredArgsConstructor
+public class SyndicationController {
+
+    private static final MediaType ATOM_XML = MediaType.parseMediaType("application/atom+xml;charset=UTF-8");
+
+    private final AtomFeedService atomFeedService;
+    private final SitemapService sitemapService;
+
+    @Value("${blog.feeds.max-age-seconds:300}")
+    private long feedMaxAgeSeconds;
+
+    /**
+     * 全站订阅源
+     */
+    @GetMapping("/feed/atom.xml")
+    public void getFeed(WebRequest request, HttpServletResponse response) throws IOException {
+        writeFeed(FeedKey.global(), request, response);
+    }
+
+    /**
+     * 作者订阅源（作者不存在时 404）
+     */
+    @GetMapping("/feed/authors/{authorId}/atom.xml")
+    public void getAuthorFeed(@PathVariable Long authorId, WebRequest request,
+                              HttpServletResponse response) throws IOException {
+        writeFeed(atomFeedService.resolve(FeedKey.author(authorId)), request, response);
+    }
+
+    /**
+     * 标签订阅源（标签不存在时 404）
+     */
+    @GetMapping("/feed/tags/{tagName}/atom.xml")
+    public void getTagFeed(@PathVariable String tagName, WebRequest request,
+                           HttpServletResponse response) throws IOException {
+        writeFeed(atomFeedService.resolve(FeedKey.tag(tagName)), request, response);
+    }
+
+    /**
+     * 站点地图（文章不超过 5 万篇时为 urlset，否则为索引）
+     */
+    @GetMapping("/sitemap.xml")
+    public ResponseEntity<Resource> getSitemap() throws IOException {
+        Path path = sitemapService.current().orElse(null);
+        return path != null ? sitemapFile(path) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * 站点地图分片
+     */
+    @GetMapping("/sitemaps/sitemap-{bucket}.xml")
+    public ResponseEntity<Resource> getSitemapBucket(@PathVariable int bucket) throws IOException {
+        Path path = sitemapService.bucket(bucket).orElse(null);
+        return path != null ? sitemapFile(path) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * 订阅源未变化时返回 304，否则流式输出
+     */
+    private void writeFeed(FeedKey feed, WebRequest request, HttpServletResponse response) throws IOException {
+        long lastModified = atomFeedService.lastModified(feed);
+        if (lastModified >= 0 && request.checkNotModified(lastModified)) {
+            return;
+        }
+        response.setContentType(ATOM_XML.toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                CacheControl.maxAge(Duration.ofSeconds(feedMaxAgeSeconds)).cachePublic().getHeaderValue());
+        atomFeedService.write(feed, lastModified, response.getWriter());
+    }
+
+    private ResponseEntity<Resource> sitemapFile(Path path) throws IOException {
+        // 由 Spring 根据 Last-Modified 处理 If-Modified-Since
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_XML)
+                .lastModified(Files.getLastModifiedTime(path).toMillis())
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePublic())
+                .body(new FileSystemResource(path));
+    }
+}
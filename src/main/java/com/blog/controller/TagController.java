@@ -0,0 +1,68 @@
+package com.blog.controller;
+
+import com.blog.dto.response.ApiResponse;
+import com.blog.dto.response.TagResponse;
+import com.blog.service.TagDirectoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * 标签目录接口
+ *
+ * 数据来自内存快照，ETag 为快照版本号，客户端带 If-None-Match 时未变化返回 304
+ */
+@RestController
+@RequiredArgsConstructor
+public class TagController {
+
+    private final TagDirectoryService tagDirectoryService;
+
+    /**
+     * 热门标签；带 prefix 时返回名称以其开头的标签（自动补全）
+     */
+    @GetMapping("/tags")
+    public ResponseEntity<ApiResponse<List<TagResponse>>> getTags(
+            @RequestParam(required = false) String prefix,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest) {
+
+        String etag = etag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        List<TagResponse> tags = prefix == null
+                ? tagDirectoryService.getPopularTags(limit)
+                : tagDirectoryService.suggest(prefix, limit);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(ApiResponse.success("获取成功", tags));
+    }
+
+    /**
+     * 获取单个标签及其已发布文章数
+     */
+    @GetMapping("/tag/{name}")
+    public ResponseEntity<ApiResponse<TagResponse>> getTag(@PathVariable String name, WebRequest webRequest) {
+        String etag = etag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        TagResponse tag = tagDirectoryService.getTag(name);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(ApiResponse.success("获取成功", tag));
+    }
+
+    private String etag() {
+        return "\"tags-" + Long.toHexString(tagDirectoryService.getVersion()) + "\"";
+    }
+}
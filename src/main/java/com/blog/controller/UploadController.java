@@ -0,0 +1,30 @@
+package com.blog.controller;
+
+import com.blog.service.FileServingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequiredArgsConstructor
+public class UploadController {
+
+    private static final String PREFIX = "/uploads/";
+
+    private final FileServingService fileServingService;
+
+    /**
+     * 下载上传的文件（支持 Range、ETag 条件请求，图片可用 ?w= 指定宽度）
+     */
+    @GetMapping("/uploads/**")
+    public void serve(@RequestParam(required = false) Integer w,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        fileServingService.serve(path.substring(PREFIX.length()), w, request, response);
+    }
+}
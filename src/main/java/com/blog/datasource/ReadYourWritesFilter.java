@@ -0,0 +1,84 @@
+package com.blog.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 读己之写
+ *
+ * 客户端的写请求（非 GET/HEAD/OPTIONS）在响应中带上 Cookie 记录主库固定截止时间，
+ * 截止前该客户端的只读事务固定走主库，避免刚发布的文章、评论因从库延迟而“消失”。
+ * 截止时间由客户端携带，请求落到任何节点都生效。时间窗口应不小于允许的最大复制延迟
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final String COOKIE_NAME = "blog_primary_until";
+
+    private final long stickinessMillis;
+
+    public ReadYourWritesFilter(long stickinessMillis) {
+        this.stickinessMillis = stickinessMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        if (isWrite(request.getMethod())) {
+            // 在执行前写入：响应体输出后无法再加 Cookie；写请求失败时多走一段时间主库，没有正确性问题
+            markSticky(response, now + stickinessMillis);
+        } else if (isSticky(request, now)) {
+            RoutingContext.requirePrimary();
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RoutingContext.clear();
+        }
+    }
+
+    private void markSticky(HttpServletResponse response, long until) {
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, String.valueOf(until))
+                .path("/")
+                .maxAge(Duration.ofMillis(stickinessMillis))
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    /**
+     * 截止时间超过一个窗口的值视为伪造，忽略
+     */
+    private boolean isSticky(HttpServletRequest request, long now) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    long until = Long.parseLong(cookie.getValue());
+                    return until > now && until <= now + stickinessMillis;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isWrite(String method) {
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+}
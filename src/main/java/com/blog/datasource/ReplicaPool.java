@@ -0,0 +1,145 @@
+package com.blog.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 从库连接池组
+ *
+ * 定时检查每个从库的可用性和复制延迟，延迟超过上限或复制中断的从库暂时摘除；
+ * 取连接时从健康的从库中选择活跃连接最少的一个（从轮询位置开始比较，连接数相同时轮流使用）
+ */
+@Slf4j
+public class ReplicaPool implements Closeable {
+
+    private static final int CHECK_TIMEOUT_SECONDS = 2;
+
+    private final List<HikariDataSource> replicas;
+    private final long maxLagSeconds;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private volatile List<HikariDataSource> healthy = Collections.emptyList();
+
+    public ReplicaPool(List<HikariDataSource> replicas, long maxLagSeconds) {
+        this.replicas = replicas;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    /**
+     * 从健康的从库获取连接；没有可用从库或获取失败时返回 null，由调用方回退到主库
+     */
+    public Connection getConnection() {
+        List<HikariDataSource> candidates = healthy;
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        HikariDataSource chosen = leastActive(candidates);
+        try {
+            return chosen.getConnection();
+        } catch (SQLException e) {
+            log.warn("从库连接失败，暂时摘除: pool={}, error={}", chosen.getPoolName(), e.getMessage());
+            markDown(chosen);
+            return null;
+        }
+    }
+
+    /**
+     * 检查从库状态和复制延迟
+     */
+    @Scheduled(fixedDelayString = "${blog.datasource.replicas.health-check-interval-ms:5000}")
+    public void checkHealth() {
+        List<HikariDataSource> available = new ArrayList<>();
+        for (HikariDataSource replica : replicas) {
+            Long lag = replicationLag(replica);
+            if (lag != null && lag <= maxLagSeconds) {
+                available.add(replica);
+            } else if (healthy.contains(replica)) {
+                log.warn("从库不可用或延迟过大，暂时摘除: pool={}, lag={}", replica.getPoolName(), lag);
+            }
+        }
+        if (available.size() > healthy.size()) {
+            log.info("可用从库: {}/{}", available.size(), replicas.size());
+        }
+        healthy = Collections.unmodifiableList(available);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+
+    /**
+     * 复制延迟（秒）；从库不可达或复制线程停止时返回 null，没有复制配置的库视为无延迟
+     */
+    private Long replicationLag(HikariDataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+            try (ResultSet rs = executeReplicaStatus(statement)) {
+                if (!rs.next()) {
+                    return 0L;
+                }
+                long lag = rs.getLong(lagColumn(rs));
+                return rs.wasNull() ? null : lag;
+            }
+        } catch (SQLException e) {
+            log.debug("从库健康检查失败: pool={}, error={}", replica.getPoolName(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * MySQL 8.0.22 起使用 SHOW REPLICA STATUS，旧版本只支持 SHOW SLAVE STATUS
+     */
+    private ResultSet executeReplicaStatus(Statement statement) throws SQLException {
+        try {
+            return statement.executeQuery("SHOW REPLICA STATUS");
+        } catch (SQLException e) {
+            return statement.executeQuery("SHOW SLAVE STATUS");
+        }
+    }
+
+    private String lagColumn(ResultSet rs) throws SQLException {
+        try {
+            rs.findColumn("Seconds_Behind_Source");
+            return "Seconds_Behind_Source";
+        } catch (SQLException e) {
+            return "Seconds_Behind_Master";
+        }
+    }
+
+    private HikariDataSource leastActive(List<HikariDataSource> candidates) {
+        int start = Math.floorMod(cursor.getAndIncrement(), candidates.size());
+        HikariDataSource best = null;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < candidates.size(); i++) {
+            HikariDataSource candidate = candidates.get((start + i) % candidates.size());
+            HikariPoolMXBean pool = candidate.getHikariPoolMXBean();
+            int active = pool != null ? pool.getActiveConnections() : 0;
+            if (active < bestActive) {
+                best = candidate;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    private synchronized void markDown(HikariDataSource replica) {
+        List<HikariDataSource> remaining = new ArrayList<>(healthy);
+        remaining.remove(replica);
+        healthy = Collections.unmodifiableList(remaining);
+    }
+}
@@ -0,0 +1,43 @@
+package com.blog.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * 当前线程的数据源路由提示
+ *
+ * 用户刚写入过数据时，本次请求的只读事务也走主库，保证读到自己的写入
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private RoutingContext() {
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    /**
+     * 在主库上执行一段读取，结束后恢复原来的路由提示
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean previous = isPrimaryRequired();
+        requirePrimary();
+        try {
+            return action.get();
+        } finally {
+            if (!previous) {
+                clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.blog.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 游标分页响应
+ * @param <T> 数据泛型
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+
+    // 下一页游标，没有更多数据时为 null
+    private String nextCursor;
+
+    private boolean hasNext;
+}
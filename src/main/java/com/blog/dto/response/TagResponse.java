@@ -0,0 +1,21 @@
+package com.blog.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 标签响应 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagResponse {
+
+    private Long id;
+
+    private String name;
+
+    // 已发布文章数
+    private long articleCount;
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -42,10 +44,11 @@ public class Article {
     @Column(name = "view_count", nullable = false)
     private Integer viewCount = 0;
 
-    @Column(name = "like_count", nullable = false)
+    // 点赞数、评论数由 ArticleCounterConsumer 按事件增量更新，实体保存时不写这两列
+    @Column(name = "like_count", nullable = false, updatable = false)
     private Integer likeCount = 0;
 
-    @Column(name = "comment_count", nullable = false)
+    @Column(name = "comment_count", nullable = false, updatable = false)
     private Integer commentCount = 0;
 
     // AI 生成内容
@@ -80,7 +83,9 @@ public class Article {
     @OneToMany(mappedBy = "article", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Like> likes = new HashSet<>();
 
+    // 集合缓存只保存标签ID，标签本身从 tag 区域读取
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "article-tags")
     @JoinTable(
             name = "article_tags",
             joinColumns = @JoinColumn(name = "article_id"),
@@ -103,26 +108,6 @@ public class Article {
         this.viewCount++;
     }
 
-    public void incrementLikeCount() {
-        this.likeCount++;
-    }
-
-    public void decrementLikeCount() {
-        if (this.likeCount > 0) {
-            this.likeCount--;
-        }
-    }
-
-    public void incrementCommentCount() {
-        this.commentCount++;
-    }
-
-    public void decrementCommentCount() {
-        if (this.commentCount > 0) {
-            this.commentCount--;
-        }
-    }
-
     public void updateAiContent(String aiSummary, Set<String> aiTags) {
         this.aiSummary = aiSummary;
         this.aiTags = aiTags != null ? aiTags : new HashSet<>();
@@ -1,5 +1,6 @@
 package com.blog.entity;
 
+import com.blog.idgen.IdGenerators;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -18,8 +19,12 @@ import java.util.List;
 @ToString(exclude = {"article", "user", "parent", "replies"})
 public class Comment {
 
+    // 表生成器分段分配ID，插入可批量执行（见 IdGenerators）
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "comment_id")
+    @TableGenerator(name = "comment_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.COMMENTS, allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Column(columnDefinition = "TEXT", nullable = false)
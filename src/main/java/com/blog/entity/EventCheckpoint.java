@@ -0,0 +1,30 @@
+package com.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 事件消费者的消费位置
+ *
+ * 与消费者的处理结果在同一事务内推进，重复投递的事件不会被再次处理
+ */
+@Entity
+@Table(name = "event_checkpoints")
+@Data
+@NoArgsConstructor
+public class EventCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String consumer;
+
+    // 已处理的最后一个事件ID
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,51 @@
+package com.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 关注关系
+ *
+ * 只存 (关注者, 被关注者) 两个ID 作为联合主键，不引入自增主键；
+ * 主键覆盖“我关注了谁”，followee 索引覆盖“谁关注了我”
+ */
+@Entity
+@Table(name = "follows", indexes = {
+        @Index(name = "idx_follows_followee", columnList = "followee_id, follower_id")
+})
+@IdClass(Follow.FollowId.class)
+@Data
+@NoArgsConstructor
+public class Follow {
+
+    @Id
+    @Column(name = "follower_id")
+    private Long followerId;
+
+    @Id
+    @Column(name = "followee_id")
+    private Long followeeId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public Follow(Long followerId, Long followeeId) {
+        this.followerId = followerId;
+        this.followeeId = followeeId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // 联合主键
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FollowId implements Serializable {
+        private Long followerId;
+        private Long followeeId;
+    }
+}
@@ -1,5 +1,6 @@
 package com.blog.entity;
 
+import com.blog.idgen.IdGenerators;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -17,8 +18,12 @@ import java.time.LocalDateTime;
 @ToString(exclude = {"user", "article"})
 public class Like {
 
+    // 表生成器分段分配ID，插入可批量执行（见 IdGenerators）
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "like_id")
+    @TableGenerator(name = "like_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.LIKES, allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -51,20 +56,4 @@ public class Like {
     public enum LikeType {
         LIKE, DISLIKE
     }
-
-    // 预持久化操作 - 更新文章的点赞计数
-    @PrePersist
-    public void prePersist() {
-        if (article != null && isLike()) {
-            article.incrementLikeCount();
-        }
-    }
-
-    // 预删除操作 - 更新文章的点赞计数
-    @PreRemove
-    public void preRemove() {
-        if (article != null && isLike()) {
-            article.decrementLikeCount();
-        }
-    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.blog.entity;
 
+import com.blog.idgen.IdGenerators;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -11,8 +12,12 @@ import java.time.LocalDateTime;
 @Getter @Setter
 public class Message {
 
+    // 表生成器分段分配ID，插入可批量执行（见 IdGenerators）
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "message_id")
+    @TableGenerator(name = "message_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.MESSAGES, allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "conversation_id", nullable = false)
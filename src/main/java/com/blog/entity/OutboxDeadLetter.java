@@ -0,0 +1,46 @@
+package com.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 某个消费者多次处理仍失败、已被跳过的事件
+ *
+ * 与消费位置在同一事务内写入，修复后可按事件ID人工重放
+ */
+@Entity
+@Table(name = "outbox_dead_letters", indexes = {
+        @Index(name = "idx_outbox_dead_letters_consumer", columnList = "consumer")
+})
+@Data
+@NoArgsConstructor
+public class OutboxDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String consumer;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "event_type", nullable = false, length = 40)
+    private String eventType;
+
+    // 最后一次失败的异常
+    @Column(length = 1000)
+    private String error;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,41 @@
+package com.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 事务发件箱中的领域事件
+ *
+ * 与业务数据在同一事务内写入，提交后由 OutboxRelay 按 ID 顺序投递给各消费者
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_created", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 40)
+    private String eventType;
+
+    // 事件所属的文章ID
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    // JSON 格式的事件内容
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
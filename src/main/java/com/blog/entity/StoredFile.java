@@ -0,0 +1,43 @@
+package com.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 按内容寻址存储的上传文件
+ *
+ * 文件名为内容的 SHA-256（加扩展名），相同内容只落盘一次；
+ * ref_count 记录引用该文件的业务记录数，归零后由定时任务回收
+ */
+@Entity
+@Table(name = "stored_files")
+@Data
+@NoArgsConstructor
+public class StoredFile {
+
+    // 哈希 + 扩展名，同时也是文件名
+    @Id
+    @Column(name = "object_name", length = 80)
+    private String objectName;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
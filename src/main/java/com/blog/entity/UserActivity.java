@@ -0,0 +1,71 @@
+package com.blog.entity;
+
+import com.blog.idgen.IdGenerators;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户活动事件（只追加）
+ *
+ * 发布文章、发表评论、点赞时写入一条，目标标题冗余存储，
+ * 时间线按 (user_id, created_at) 索引做范围扫描，无需关联文章表
+ */
+@Entity
+@Table(name = "user_activity", indexes = {
+        @Index(name = "idx_user_activity_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_user_activity_target", columnList = "target_id")
+})
+@Data
+@EqualsAndHashCode(of = "id")
+public class UserActivity {
+
+    // 表生成器分段分配ID，插入可批量执行（见 IdGenerators）
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_activity_id")
+    @TableGenerator(name = "user_activity_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.USER_ACTIVITY, allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private ActivityType type;
+
+    // 目标文章ID
+    @Column(name = "target_id")
+    private Long targetId;
+
+    // 目标文章标题（冗余）
+    @Column(name = "target_title", length = 500)
+    private String targetTitle;
+
+    // 产生活动的记录ID（文章ID、评论ID、点赞ID）
+    @Column(name = "source_id")
+    private Long sourceId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // 工厂方法
+    public static UserActivity of(Long userId, ActivityType type, Article article, Long sourceId) {
+        UserActivity activity = new UserActivity();
+        activity.setUserId(userId);
+        activity.setType(type);
+        activity.setTargetId(article.getId());
+        activity.setTargetTitle(article.getTitle());
+        activity.setSourceId(sourceId);
+        activity.setCreatedAt(LocalDateTime.now());
+        return activity;
+    }
+
+    // 活动类型枚举
+    public enum ActivityType {
+        ARTICLE_CREATED, COMMENT_CREATED, LIKE_ADDED
+    }
+}
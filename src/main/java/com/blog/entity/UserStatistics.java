@@ -0,0 +1,51 @@
+package com.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户统计汇总表
+ *
+ * 每个用户一行，由 UserStatsService 根据点赞、评论、文章、浏览、关注事件增量维护，
+ * 并由定时任务与明细表对账，个人主页统计只需一次主键查询
+ */
+@Entity
+@Table(name = "user_stats")
+@Data
+@NoArgsConstructor
+public class UserStatistics {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "article_count", nullable = false)
+    private Long articleCount = 0L;
+
+    @Column(name = "likes_received", nullable = false)
+    private Long likesReceived = 0L;
+
+    @Column(name = "comments_received", nullable = false)
+    private Long commentsReceived = 0L;
+
+    @Column(name = "views_received", nullable = false)
+    private Long viewsReceived = 0L;
+
+    @Column(name = "follower_count", nullable = false)
+    private Long followerCount = 0L;
+
+    @Column(name = "following_count", nullable = false)
+    private Long followingCount = 0L;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public UserStatistics(Long userId) {
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,85 @@
+package com.blog.event;
+
+import com.blog.entity.OutboxEvent;
+import com.blog.httpcache.ResourceType;
+import com.blog.httpcache.ResourceVersionService;
+import com.blog.repository.ArticleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 文章点赞数、评论数的维护
+ *
+ * 点赞、评论请求只写明细和事件，计数在这里按文章合并后一条 UPDATE 写入，
+ * 热门文章的计数行不再被每个请求加锁
+ */
+@Component
+@RequiredArgsConstructor
+public class ArticleCounterConsumer implements EventConsumer {
+
+    private final ArticleRepository articleRepository;
+    private final ObjectMapper objectMapper;
+    private final ResourceVersionService resourceVersionService;
+
+    @Override
+    public String getName() {
+        return "article-counters";
+    }
+
+    @Override
+    public Set<EventType> getEventTypes() {
+        return EnumSet.of(EventType.LIKE_ADDED, EventType.LIKE_REMOVED,
+                EventType.COMMENT_ADDED, EventType.COMMENT_REMOVED);
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        // 文章ID -> [点赞增量, 评论增量]
+        Map<Long, int[]> deltas = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            int[] delta = deltas.computeIfAbsent(event.getAggregateId(), id -> new int[2]);
+            switch (EventType.valueOf(event.getEventType())) {
+                case LIKE_ADDED:
+                    delta[0]++;
+                    break;
+                case LIKE_REMOVED:
+                    delta[0]--;
+                    break;
+                case COMMENT_ADDED:
+                    delta[1]++;
+                    break;
+                case COMMENT_REMOVED:
+                    delta[1] -= count(event);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        deltas.forEach((articleId, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                articleRepository.adjustEngagementCounts(articleId, delta[0], delta[1]);
+                resourceVersionService.bump(ResourceType.ARTICLE, articleId);
+            }
+        });
+    }
+
+    /**
+     * 删除根评论时一并删除的评论数（包括回复）
+     */
+    private int count(OutboxEvent event) {
+        try {
+            return objectMapper.readTree(event.getPayload()).path("count").asInt(1);
+        } catch (IOException e) {
+            return 1;
+        }
+    }
+}
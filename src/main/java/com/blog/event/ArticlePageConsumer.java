@@ -0,0 +1,57 @@
+package com.blog.event;
+
+import com.blog.entity.OutboxEvent;
+import com.blog.service.ArticlePageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 文章页预渲染
+ *
+ * 发布、修改后重新渲染文章页，取消发布、删除后移除；同一批中同一文章只处理最后一个事件。
+ * 页面文件写入是覆盖式的，重复投递不影响结果
+ */
+@Component
+@RequiredArgsConstructor
+public class ArticlePageConsumer implements EventConsumer {
+
+    private final ArticlePageService articlePageService;
+
+    @Override
+    public String getName() {
+        return "article-pages";
+    }
+
+    @Override
+    public Set<EventType> getEventTypes() {
+        return EnumSet.of(EventType.ARTICLE_PUBLISHED, EventType.ARTICLE_UPDATED,
+                EventType.ARTICLE_UNPUBLISHED, EventType.ARTICLE_DELETED);
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        // 文章ID -> 最后一个事件类型
+        Map<Long, EventType> latest = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            latest.put(event.getAggregateId(), EventType.valueOf(event.getEventType()));
+        }
+
+        latest.forEach((articleId, type) -> {
+            switch (type) {
+                case ARTICLE_UNPUBLISHED:
+                case ARTICLE_DELETED:
+                    articlePageService.remove(articleId);
+                    break;
+                default:
+                    articlePageService.render(articleId);
+                    break;
+            }
+        });
+    }
+}
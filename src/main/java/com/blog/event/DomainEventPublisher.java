@@ -0,0 +1,44 @@
+package com.blog.event;
+
+import com.blog.entity.OutboxEvent;
+import com.blog.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+/**
+ * 领域事件发布
+ *
+ * 事件写入 outbox_events，与业务修改同一事务提交或回滚，不会出现“数据已改、事件丢失”或相反的情况
+ */
+@Component
+@RequiredArgsConstructor
+public class DomainEventPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 在当前事务中记录事件
+     *
+     * @param articleId 事件所属的文章ID
+     * @param payload   事件内容
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(EventType type, Long articleId, Map<String, Object> payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type.name());
+        event.setAggregateId(articleId);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("事件内容无法序列化: " + type, e);
+        }
+        outboxEventRepository.save(event);
+    }
+}
@@ -0,0 +1,30 @@
+package com.blog.event;
+
+import com.blog.entity.OutboxEvent;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 发件箱事件消费者
+ *
+ * 每个消费者有独立的消费位置，按事件 ID 顺序收到批量事件；
+ * handle 与位置推进在同一数据库事务中执行，数据库之外的副作用需要自行保证幂等
+ */
+public interface EventConsumer {
+
+    /**
+     * 消费者名称（消费位置的主键，部署后不要修改）
+     */
+    String getName();
+
+    /**
+     * 关注的事件类型，其他类型的事件只推进位置
+     */
+    Set<EventType> getEventTypes();
+
+    /**
+     * 处理一批事件
+     */
+    void handle(List<OutboxEvent> events);
+}
@@ -0,0 +1,15 @@
+package com.blog.event;
+
+/**
+ * 领域事件类型
+ */
+public enum EventType {
+    ARTICLE_PUBLISHED,
+    ARTICLE_UPDATED,
+    ARTICLE_UNPUBLISHED,
+    ARTICLE_DELETED,
+    LIKE_ADDED,
+    LIKE_REMOVED,
+    COMMENT_ADDED,
+    COMMENT_REMOVED
+}
@@ -0,0 +1,51 @@
+package com.blog.event;
+
+import com.blog.entity.Article;
+import com.blog.entity.OutboxEvent;
+import com.blog.repository.ArticleRepository;
+import com.blog.service.FeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 关注动态推送
+ *
+ * 文章发布后把写扩散从发布请求的事务提交回调移到这里异步执行；按文章当前状态处理，
+ * 推送前已取消发布或删除的文章跳过（发件箱移除仍在提交后同步执行）。ZADD 是覆盖式的，重复投递不影响结果
+ */
+@Component
+@RequiredArgsConstructor
+public class FeedConsumer implements EventConsumer {
+
+    private final ArticleRepository articleRepository;
+    private final FeedService feedService;
+
+    @Override
+    public String getName() {
+        return "feed";
+    }
+
+    @Override
+    public Set<EventType> getEventTypes() {
+        return EnumSet.of(EventType.ARTICLE_PUBLISHED);
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        Set<Long> articleIds = new LinkedHashSet<>();
+        for (OutboxEvent event : events) {
+            articleIds.add(event.getAggregateId());
+        }
+
+        for (Article article : articleRepository.findAllById(articleIds)) {
+            if (article.getStatus() == Article.ArticleStatus.PUBLISHED) {
+                feedService.onArticlePublished(article);
+            }
+        }
+    }
+}
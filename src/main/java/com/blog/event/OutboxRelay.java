@@ -0,0 +1,288 @@
+package com.blog.event;
+
+import com.blog.entity.EventCheckpoint;
+import com.blog.entity.OutboxDeadLetter;
+import com.blog.entity.OutboxEvent;
+import com.blog.repository.EventCheckpointRepository;
+import com.blog.repository.OutboxDeadLetterRepository;
+import com.blog.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.dao.DataAccessException;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 发件箱中继
+ *
+ * 定时按 ID 顺序批量读取 outbox_events，分发给各消费者的专属线程异步处理；
+ * 消费者处理结果与消费位置在同一事务提交，位置用比较并交换推进，重复投递或多实例并发时只有一次生效。
+ * ID 空洞只在数据库确认没有未提交的插入后才跳过，不按时间判断。
+ * 一批处理失败后逐个投递相关事件定位出错的事件，同一事件连续失败达到上限时写入 outbox_dead_letters 并越过它
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private final List<EventConsumer> consumers;
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventCheckpointRepository checkpointRepository;
+    private final OutboxDeadLetterRepository deadLetterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    private final List<Worker> workers = new CopyOnWriteArrayList<>();
+
+    // 空洞探测用的 READ COMMITTED 事务（加锁读不带间隙锁，不阻塞新事件插入）
+    private TransactionTemplate gapProbeTemplate;
+
+    // 上一轮看到的空洞起点；空洞至少保持一轮才探测，避开ID已分配、行尚未写入的瞬间
+    private long observedGap = -1;
+
+    @Value("${blog.events.batch-size:200}")
+    private int batchSize;
+
+    @Value("${blog.events.retention-hours:72}")
+    private long retentionHours;
+
+    @Value("${blog.events.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * 加载各消费者的位置；新消费者从当前最新事件开始，不回放历史
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        gapProbeTemplate = new TransactionTemplate(transactionManager);
+        gapProbeTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        long head = outboxEventRepository.findMaxId();
+        for (EventConsumer consumer : consumers) {
+            checkpointRepository.insertIfAbsent(consumer.getName(), head);
+            workers.add(new Worker(consumer, loadPosition(consumer.getName(), head)));
+        }
+        log.info("事件中继已启动: 消费者={}", consumers.stream().map(EventConsumer::getName).collect(Collectors.toList()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.forEach(worker -> worker.executor.shutdown());
+    }
+
+    /**
+     * 读取一批事件并分发给空闲的消费者（忙碌的消费者下次再取，保证每个消费者内部顺序）
+     */
+    @Scheduled(fixedDelayString = "${blog.events.relay-interval-ms:500}")
+    public void relay() {
+        List<Worker> idle = workers.stream()
+                .filter(worker -> !worker.running.get())
+                .collect(Collectors.toList());
+        if (idle.isEmpty()) {
+            return;
+        }
+
+        long from = idle.stream().mapToLong(worker -> worker.position).min().getAsLong();
+        List<OutboxEvent> events = visiblePrefix(
+                outboxEventRepository.findAfter(from, PageRequest.of(0, batchSize)), from);
+        if (events.isEmpty()) {
+            return;
+        }
+
+        for (Worker worker : idle) {
+            List<OutboxEvent> pending = events.stream()
+                    .filter(event -> event.getId() > worker.position)
+                    .collect(Collectors.toList());
+            if (!pending.isEmpty() && worker.running.compareAndSet(false, true)) {
+                worker.executor.execute(() -> deliver(worker, pending));
+            }
+        }
+    }
+
+    /**
+     * 清理所有消费者都已处理且超过保留期的事件
+     */
+    @Scheduled(cron = "${blog.events.purge-cron:0 0 5 * * *}")
+    public void purge() {
+        if (workers.isEmpty()) {
+            return;
+        }
+        long processed = workers.stream().mapToLong(worker -> worker.position).min().getAsLong();
+        int deleted = outboxEventRepository.deleteProcessedBefore(
+                processed, LocalDateTime.now().minusHours(retentionHours));
+        log.info("发件箱清理完成: 删除 {} 条事件", deleted);
+    }
+
+    private void deliver(Worker worker, List<OutboxEvent> pending) {
+        String name = worker.consumer.getName();
+        long expected = worker.position;
+        // 上次失败后只投递到第一个相关事件为止，连续失败的就是这一个事件
+        List<OutboxEvent> events = worker.failures > 0 ? untilFirstRelevant(worker, pending) : pending;
+        long last = events.get(events.size() - 1).getId();
+        List<OutboxEvent> relevant = events.stream()
+                .filter(event -> worker.eventTypes.contains(event.getEventType()))
+                .collect(Collectors.toList());
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!relevant.isEmpty()) {
+                    worker.consumer.handle(relevant);
+                }
+                advance(name, expected, last);
+            });
+            worker.position = last;
+            worker.failures = 0;
+        } catch (CheckpointConflictException e) {
+            worker.position = loadPosition(name, expected);
+            worker.failures = 0;
+        } catch (Exception e) {
+            // 整批回滚，下次从数据库中的位置重新投递
+            worker.failures++;
+            if (relevant.size() == 1 && worker.failures >= maxAttempts) {
+                skip(worker, relevant.get(0), expected, last, e);
+            } else {
+                log.warn("事件处理失败，稍后重试: consumer={}, events={}..{}, attempts={}, error={}",
+                        name, events.get(0).getId(), last, worker.failures, e.getMessage());
+                worker.position = loadPosition(name, expected);
+            }
+        } finally {
+            worker.running.set(false);
+        }
+    }
+
+    /**
+     * 记录死信并越过该事件，与推进消费位置在同一事务内
+     */
+    private void skip(Worker worker, OutboxEvent event, long expected, long last, Exception cause) {
+        String name = worker.consumer.getName();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                OutboxDeadLetter deadLetter = new OutboxDeadLetter();
+                deadLetter.setConsumer(name);
+                deadLetter.setEventId(event.getId());
+                deadLetter.setEventType(event.getEventType());
+                deadLetter.setError(abbreviate(String.valueOf(cause)));
+                deadLetter.setAttempts(worker.failures);
+                deadLetterRepository.save(deadLetter);
+                advance(name, expected, last);
+            });
+            log.error("事件多次处理失败，已写入死信并跳过: consumer={}, event={}, type={}, attempts={}",
+                    name, event.getId(), event.getEventType(), worker.failures, cause);
+            worker.position = last;
+            worker.failures = 0;
+        } catch (Exception e) {
+            log.warn("事件死信写入失败，稍后重试: consumer={}, event={}, error={}", name, event.getId(), e.getMessage());
+            worker.position = loadPosition(name, expected);
+        }
+    }
+
+    private void advance(String name, long expected, long last) {
+        if (checkpointRepository.advance(name, expected, last) == 0) {
+            throw new CheckpointConflictException();
+        }
+    }
+
+    private List<OutboxEvent> untilFirstRelevant(Worker worker, List<OutboxEvent> events) {
+        for (int i = 0; i < events.size(); i++) {
+            if (worker.eventTypes.contains(events.get(i).getEventType())) {
+                return events.subList(0, i + 1);
+            }
+        }
+        return events;
+    }
+
+    private String abbreviate(String error) {
+        return error.length() <= 1000 ? error : error.substring(0, 1000);
+    }
+
+    /**
+     * 截取 ID 连续的前缀
+     *
+     * 自增 ID 在插入时分配、提交顺序可能不同，ID 空洞可能是尚未提交的事务（无论已等待多久）；
+     * 只有数据库确认空洞内既没有未提交的插入、也没有新提交的事件（即已回滚）时才跳过
+     */
+    private List<OutboxEvent> visiblePrefix(List<OutboxEvent> events, long from) {
+        long expected = from + 1;
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            if (event.getId() != expected) {
+                boolean seenBefore = observedGap == expected;
+                observedGap = expected;
+                if (!seenBefore || !isRolledBack(expected, event.getId() - 1)) {
+                    return events.subList(0, i);
+                }
+            }
+            expected = event.getId() + 1;
+        }
+        return events;
+    }
+
+    /**
+     * 未提交的插入持有该行的排他锁，NOWAIT 共享锁读会立即失败；读到行说明已提交、下次读取即可看到
+     */
+    private boolean isRolledBack(long fromId, long toId) {
+        try {
+            List<Long> committed = gapProbeTemplate.execute(status -> outboxEventRepository.lockRange(fromId, toId));
+            return committed == null || committed.isEmpty();
+        } catch (DataAccessException e) {
+            log.debug("事件ID空洞仍有未提交的事务: {}..{}", fromId, toId);
+            return false;
+        }
+    }
+
+    private long loadPosition(String name, long fallback) {
+        return checkpointRepository.findById(name)
+                .map(EventCheckpoint::getLastEventId)
+                .orElse(fallback);
+    }
+
+    /**
+     * 单个消费者的投递状态，专属单线程保证顺序
+     */
+    private static class Worker {
+        private final EventConsumer consumer;
+        private final Set<String> eventTypes;
+        private final ExecutorService executor;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile long position;
+        // 从当前位置起连续失败的次数，只在投递线程中读写
+        private int failures;
+
+        Worker(EventConsumer consumer, long position) {
+            this.consumer = consumer;
+            this.eventTypes = consumer.getEventTypes().stream().map(Enum::name).collect(Collectors.toSet());
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "event-" + consumer.getName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.position = position;
+        }
+    }
+
+    /**
+     * 消费位置已被其他实例推进：本批结果回滚，不计入失败次数
+     */
+    private static class CheckpointConflictException extends RuntimeException {
+        CheckpointConflictException() {
+            super("消费位置已被其他实例推进");
+        }
+    }
+}
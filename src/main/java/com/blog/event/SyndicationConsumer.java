@@ -0,0 +1,70 @@
+package com.blog.event;
+
+import com.blog.entity.Article;
+import com.blog.entity.OutboxEvent;
+import com.blog.repository.ArticleRepository;
+import com.blog.syndication.AtomFeedService;
+import com.blog.syndication.SitemapService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 订阅源与站点地图增量更新
+ *
+ * 同一批中的文章只按当前状态处理一次：已发布的重新渲染 entry 并加入所属订阅源，其余从订阅源中移除；
+ * 所有变化的文章都标记其站点地图分片。更新都是覆盖式的，重复投递不影响结果
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SyndicationConsumer implements EventConsumer {
+
+    private final ArticleRepository articleRepository;
+    private final AtomFeedService atomFeedService;
+    private final SitemapService sitemapService;
+
+    @Override
+    public String getName() {
+        return "syndication";
+    }
+
+    @Override
+    public Set<EventType> getEventTypes() {
+        return EnumSet.of(EventType.ARTICLE_PUBLISHED, EventType.ARTICLE_UPDATED,
+                EventType.ARTICLE_UNPUBLISHED, EventType.ARTICLE_DELETED);
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        Set<Long> articleIds = new LinkedHashSet<>();
+        for (OutboxEvent event : events) {
+            articleIds.add(event.getAggregateId());
+        }
+
+        Map<Long, Article> articles = articleRepository.findWithAuthorAndTagsByIdIn(articleIds).stream()
+                .collect(Collectors.toMap(Article::getId, Function.identity()));
+
+        for (Long articleId : articleIds) {
+            Article article = articles.get(articleId);
+            if (article != null && article.getStatus() == Article.ArticleStatus.PUBLISHED) {
+                atomFeedService.onPublished(article);
+            } else {
+                atomFeedService.onRemoved(articleId);
+            }
+            try {
+                sitemapService.markChanged(articleId);
+            } catch (Exception e) {
+                log.warn("标记站点地图分片失败: articleId={}, error={}", articleId, e.getMessage());
+            }
+        }
+    }
+}
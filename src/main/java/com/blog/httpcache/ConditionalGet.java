@@ -0,0 +1,81 @@
+package com.blog.httpcache;
+
+import com.blog.datasource.RoutingContext;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Enumeration;
+import java.util.function.Supplier;
+
+/**
+ * 条件 GET
+ *
+ * 先取资源版本：与 If-None-Match 一致时直接返回 304，不执行查询和序列化；
+ * 否则生成响应并带上 ETag。匿名请求可由浏览器和 CDN 缓存，带令牌的请求只允许私有缓存且每次重新验证。
+ * 版本令牌刚生成时在主库上生成响应，避免从库的旧内容带着新 ETag 被缓存
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGet {
+
+    private final ResourceVersionService resourceVersionService;
+
+    @Value("${blog.http-cache.public-max-age-seconds:30}")
+    private long publicMaxAgeSeconds;
+
+    @Value("${blog.http-cache.stale-while-revalidate-seconds:60}")
+    private long staleWhileRevalidateSeconds;
+
+    public <T> ResponseEntity<T> respond(HttpServletRequest request, ResourceType type, Long id, Supplier<T> body) {
+        ResourceVersionService.Version version = resourceVersionService.currentVersion(type, id);
+        if (version == null) {
+            return ResponseEntity.ok().body(body.get());
+        }
+
+        // 弱 ETag：阅读数等计数不计入版本，内容在语义上一致即可复用
+        String etag = "W/\"" + type.getKey() + "-" + id + "-" + version.getToken() + "\"";
+        CacheControl cacheControl = cacheControl(request);
+        if (matches(request, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        T content = version.isRecent() ? RoutingContext.onPrimary(body) : body.get();
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(content);
+    }
+
+    private CacheControl cacheControl(HttpServletRequest request) {
+        if (request.getHeader(HttpHeaders.AUTHORIZATION) != null) {
+            return CacheControl.noCache().cachePrivate();
+        }
+        return CacheControl.maxAge(Duration.ofSeconds(publicMaxAgeSeconds))
+                .staleWhileRevalidate(Duration.ofSeconds(staleWhileRevalidateSeconds))
+                .cachePublic();
+    }
+
+    /**
+     * If-None-Match 使用弱比较（RFC 9110 13.1.2）
+     */
+    private boolean matches(HttpServletRequest request, String etag) {
+        String opaqueTag = opaqueTag(etag);
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        while (headers.hasMoreElements()) {
+            for (String candidate : headers.nextElement().split(",")) {
+                String tag = candidate.trim();
+                if ("*".equals(tag) || opaqueTag.equals(opaqueTag(tag))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
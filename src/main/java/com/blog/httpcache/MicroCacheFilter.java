@@ -0,0 +1,385 @@
+package com.blog.httpcache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 匿名 GET 的整页微缓存
+ *
+ * 以规范化后的路径和查询参数为键缓存 200 响应几秒钟；同一键的并发未命中只有一个请求执行，其余等待其结果。
+ * 响应体预先 gzip 压缩保存，支持 gzip 的客户端直接输出；带 Authorization 或 token 查询参数的请求不经过缓存。
+ * 只缓存查询参数都在已知列表中的请求，附加随机参数不能绕过缓存或占满缓存；条目数和总字节数都有上限。
+ * 突发流量下后端负载只取决于不同 URL 的数量，与请求数无关
+ */
+public class MicroCacheFilter extends OncePerRequestFilter {
+
+    public static final String STATUS_HEADER = "X-Micro-Cache";
+
+    private static final int MAX_KEY_LENGTH = 1024;
+
+    private static final String TOKEN_PARAM = "token";
+
+    // 随响应缓存的头，其余（Set-Cookie、安全头、X-Request-Id 等）按请求生成
+    private static final String[] CACHED_HEADERS = {
+            HttpHeaders.CACHE_CONTROL, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.CONTENT_LANGUAGE
+    };
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final int maxBodyBytes;
+    private final int minCompressBytes;
+    private final long waitTimeoutMillis;
+    private final long maxTotalBytes;
+    private final Set<String> queryParams;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private volatile long lastEvictionAt;
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter uncacheable;
+
+    public MicroCacheFilter(long ttlMillis, int maxEntries, int maxBodyBytes, int minCompressBytes,
+                            long waitTimeoutMillis, long maxTotalBytes, Set<String> queryParams,
+                            MeterRegistry meterRegistry) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.maxBodyBytes = maxBodyBytes;
+        this.minCompressBytes = minCompressBytes;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.maxTotalBytes = maxTotalBytes;
+        this.queryParams = queryParams;
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.coalesced = counter(meterRegistry, "coalesced");
+        this.uncacheable = counter(meterRegistry, "uncacheable");
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("blog.micro-cache.requests")
+                .description("整页微缓存处理的请求数")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * JwtAuthenticationFilter 也接受 ?token=，带令牌的请求与带 Authorization 头一样按用户生成响应
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod())
+                || request.getHeader(HttpHeaders.AUTHORIZATION) != null
+                || request.getParameter(TOKEN_PARAM) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = key(request);
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            hits.increment();
+            write(entry, "HIT", request, response);
+            return;
+        }
+
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            Entry shared = await(running);
+            if (shared != null) {
+                coalesced.increment();
+                write(shared, "HIT", request, response);
+            } else {
+                filterChain.doFilter(request, response);
+            }
+            return;
+        }
+
+        Entry computed = null;
+        try {
+            computed = compute(key, request, response, filterChain);
+        } finally {
+            inFlight.remove(key, mine);
+            mine.complete(computed);
+        }
+    }
+
+    /**
+     * 执行请求并尝试缓存结果；不可缓存时原样输出，返回 null
+     */
+    private Entry compute(String key, HttpServletRequest request, HttpServletResponse response,
+                          FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        // 去掉条件请求头，保证得到完整的 200 响应，再按本请求的条件头输出
+        filterChain.doFilter(new UnconditionalRequest(request), wrapper);
+
+        if (!isCacheable(wrapper)) {
+            uncacheable.increment();
+            wrapper.copyBodyToResponse();
+            return null;
+        }
+
+        Entry entry = toEntry(wrapper);
+        store(key, entry);
+        misses.increment();
+        write(entry, "MISS", request, response);
+        return entry;
+    }
+
+    private boolean isCacheable(ContentCachingResponseWrapper response) {
+        if (response.getStatus() != HttpServletResponse.SC_OK
+                || response.getContentSize() > maxBodyBytes
+                || response.containsHeader(HttpHeaders.SET_COOKIE)
+                || response.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        String cacheControl = response.getHeader(HttpHeaders.CACHE_CONTROL);
+        return cacheControl == null || !(cacheControl.contains("private") || cacheControl.contains("no-store"));
+    }
+
+    private Entry toEntry(ContentCachingResponseWrapper response) throws IOException {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : CACHED_HEADERS) {
+            String value = response.getHeader(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+
+        byte[] body = response.getContentAsByteArray();
+        boolean gzipped = body.length >= minCompressBytes;
+        return new Entry(gzipped ? gzip(body) : body, gzipped, response.getContentType(), headers,
+                System.currentTimeMillis() + ttlMillis);
+    }
+
+    /**
+     * 条目数或总字节数到达上限时先清理过期条目（每个 TTL 周期最多扫描一次），仍放不下则不缓存
+     */
+    private void store(String key, Entry entry) {
+        if (isFull(entry)) {
+            evictExpired();
+            if (isFull(entry)) {
+                return;
+            }
+        }
+        Entry previous = entries.put(key, entry);
+        totalBytes.addAndGet(entry.body.length - (previous != null ? previous.body.length : 0));
+    }
+
+    private boolean isFull(Entry entry) {
+        return entries.size() >= maxEntries || totalBytes.get() + entry.body.length > maxTotalBytes;
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        if (now - lastEvictionAt < ttlMillis) {
+            return;
+        }
+        lastEvictionAt = now;
+        for (Map.Entry<String, Entry> existing : entries.entrySet()) {
+            Entry value = existing.getValue();
+            if (value.expiresAt <= now && entries.remove(existing.getKey(), value)) {
+                totalBytes.addAndGet(-value.body.length);
+            }
+        }
+    }
+
+    private void write(Entry entry, String status, HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        entry.headers.forEach(response::setHeader);
+        response.setHeader(STATUS_HEADER, status);
+
+        String etag = entry.headers.get(HttpHeaders.ETAG);
+        if (etag != null && matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        if (entry.contentType != null) {
+            response.setContentType(entry.contentType);
+        }
+
+        byte[] body = entry.body;
+        if (entry.gzipped) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(request)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            } else {
+                body = gunzip(body);
+            }
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private Entry await(CompletableFuture<Entry> running) {
+        try {
+            return running.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            // 等待超时或执行请求失败，改为自行执行
+            return null;
+        }
+    }
+
+    /**
+     * 路径 + 按字典序排列的查询参数，参数顺序不同的同一请求共用缓存；
+     * 含未知参数（接口不读取、只会让键发散）时返回 null，不经过缓存
+     */
+    private String key(HttpServletRequest request) {
+        String query = request.getQueryString();
+        String key = request.getRequestURI();
+        if (query != null && !query.isEmpty()) {
+            List<String> pairs = Arrays.stream(query.split("&"))
+                    .filter(pair -> !pair.isEmpty())
+                    .sorted()
+                    .collect(Collectors.toList());
+            for (String pair : pairs) {
+                int separator = pair.indexOf('=');
+                if (!queryParams.contains(separator >= 0 ? pair.substring(0, separator) : pair)) {
+                    return null;
+                }
+            }
+            if (!pairs.isEmpty()) {
+                key += "?" + String.join("&", pairs);
+            }
+        }
+        return key.length() <= MAX_KEY_LENGTH ? key : null;
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag) || opaqueTag.equals(tag.startsWith("W/") ? tag.substring(2) : tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(body);
+        }
+        return output.toByteArray();
+    }
+
+    private byte[] gunzip(byte[] body) throws IOException {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return input.readAllBytes();
+        }
+    }
+
+    private static final class Entry {
+
+        private final byte[] body;
+        private final boolean gzipped;
+        private final String contentType;
+        private final Map<String, String> headers;
+        private final long expiresAt;
+
+        private Entry(byte[] body, boolean gzipped, String contentType, Map<String, String> headers, long expiresAt) {
+            this.body = body;
+            this.gzipped = gzipped;
+            this.contentType = contentType;
+            this.headers = headers;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * 隐藏 If-None-Match / If-Modified-Since，由缓存统一处理条件请求
+     */
+    private static final class UnconditionalRequest extends HttpServletRequestWrapper {
+
+        private UnconditionalRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        private boolean isConditional(String name) {
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name)
+                    || HttpHeaders.IF_MODIFIED_SINCE.equalsIgnoreCase(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isConditional(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isConditional(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public long getDateHeader(String name) {
+            return isConditional(name) ? -1 : super.getDateHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !isConditional(name))
+                    .collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.blog.httpcache;
+
+/**
+ * 带版本号的可缓存资源
+ */
+public enum ResourceType {
+
+    /**
+     * 文章详情（内容、标签、点赞数、评论数；阅读数不计入版本）
+     */
+    ARTICLE("article"),
+
+    /**
+     * 文章的评论列表
+     */
+    ARTICLE_COMMENTS("comments"),
+
+    /**
+     * 用户个人主页
+     */
+    PROFILE("profile");
+
+    private final String key;
+
+    ResourceType(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,140 @@
+package com.blog.httpcache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * 资源版本号（ETag 的来源）
+ *
+ * 版本号是 Redis 中的随机令牌，读取时不存在则生成；资源修改提交后删除令牌，下次读取得到新值。
+ * 用随机值而不是自增计数，Redis 数据丢失或过期后也不会与客户端手中的旧 ETag 重复。
+ *
+ * 令牌同时记录生成时间：修改提交后的一段时间内（不短于从库最大复制延迟），只读事务仍可能从从库读到旧内容，
+ * 在此期间生成响应时必须走主库，否则旧内容会以新令牌被缓存
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResourceVersionService {
+
+    private static final String KEY_PREFIX = "version:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @Value("${blog.http-cache.version-ttl-hours:168}")
+    private long versionTtlHours;
+
+    @Value("${blog.http-cache.primary-read-seconds:10}")
+    private long primaryReadSeconds;
+
+    /**
+     * 当前版本号；Redis 不可用时返回 null（按无条件请求处理）
+     */
+    public Version currentVersion(ResourceType type, Long id) {
+        String key = key(type, id);
+        try {
+            String stored = redisTemplate.opsForValue().get(key);
+            if (stored == null) {
+                String generated = Long.toHexString(ThreadLocalRandom.current().nextLong())
+                        + ":" + System.currentTimeMillis();
+                Boolean created = redisTemplate.opsForValue()
+                        .setIfAbsent(key, generated, Duration.ofHours(versionTtlHours));
+                stored = Boolean.TRUE.equals(created) ? generated : redisTemplate.opsForValue().get(key);
+            }
+            return stored != null ? Version.parse(stored, primaryReadSeconds * 1000) : null;
+        } catch (Exception e) {
+            log.warn("读取资源版本失败: key={}, error={}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 资源已修改（当前事务提交后生效，回滚的修改不会让客户端缓存失效）
+     */
+    public void bump(ResourceType type, Long id) {
+        if (id == null) {
+            return;
+        }
+        bumpAll(type, List.of(id));
+    }
+
+    /**
+     * 一批同类资源已修改（如作者改名后其全部文章），一次删除全部令牌
+     */
+    public void bumpAll(ResourceType type, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<String> keys = ids.stream().map(id -> key(type, id)).collect(Collectors.toList());
+        Runnable invalidate = () -> {
+            try {
+                redisTemplate.delete(keys);
+            } catch (Exception e) {
+                log.warn("资源版本更新失败: type={}, count={}, error={}", type, keys.size(), e.getMessage());
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate.run();
+                }
+            });
+        } else {
+            invalidate.run();
+        }
+    }
+
+    private String key(ResourceType type, Long id) {
+        return KEY_PREFIX + type.getKey() + ":" + id;
+    }
+
+    /**
+     * 版本令牌；recent 表示令牌刚生成，从库可能尚未追上对应的修改
+     */
+    public static final class Version {
+
+        private final String token;
+        private final boolean recent;
+
+        private Version(String token, boolean recent) {
+            this.token = token;
+            this.recent = recent;
+        }
+
+        static Version parse(String stored, long primaryReadMillis) {
+            int separator = stored.indexOf(':');
+            if (separator < 0) {
+                return new Version(stored, false);
+            }
+            long mintedAt;
+            try {
+                mintedAt = Long.parseLong(stored.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                mintedAt = 0;
+            }
+            return new Version(stored.substring(0, separator),
+                    System.currentTimeMillis() - mintedAt < primaryReadMillis);
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public boolean isRecent() {
+            return recent;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.blog.idgen;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * id_generators 的维护
+ *
+ * 启动时把每个生成器推进到对应表现有最大ID之后（兼容切换前自增列产生的ID，只增不减，多实例同时启动也安全）；
+ * 原生 SQL 批量插入（INSERT ... SELECT）通过 {@link #reserve} 预留一段连续ID，不会与实体插入冲突
+ */
+@Slf4j
+@Service
+public class IdBlockService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // 在独立事务中执行，id_generators 的行锁不随业务事务持有
+    private final TransactionTemplate transactionTemplate;
+
+    public IdBlockService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void init() {
+        for (String name : IdGenerators.ALL) {
+            transactionTemplate.executeWithoutResult(status -> seed(name));
+        }
+    }
+
+    /**
+     * 预留 count 个连续ID，返回第一个
+     */
+    public long reserve(String name, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("预留ID数量必须大于0: " + count);
+        }
+        Long first = transactionTemplate.execute(status -> {
+            // LAST_INSERT_ID(expr) 记下更新后的值，同一连接上读取，无需 SELECT ... FOR UPDATE
+            int updated = entityManager.createNativeQuery("UPDATE " + IdGenerators.TABLE
+                            + " SET " + IdGenerators.VALUE_COLUMN + " = LAST_INSERT_ID(" + IdGenerators.VALUE_COLUMN + " + :count)"
+                            + " WHERE " + IdGenerators.NAME_COLUMN + " = :name")
+                    .setParameter("count", count)
+                    .setParameter("name", name)
+                    .setHint(HibernateHints.HINT_NATIVE_SPACES, IdGenerators.TABLE)
+                    .executeUpdate();
+            if (updated == 0) {
+                throw new IllegalStateException("ID生成器不存在: " + name);
+            }
+            long value = ((Number) entityManager.createNativeQuery("SELECT LAST_INSERT_ID()")
+                    .getSingleResult()).longValue();
+            // 更新前的 next_val 为 value - count，其下一段 [value - count - ALLOCATION_SIZE + 1, ...] 尚未分配给任何实例
+            return value - count - IdGenerators.ALLOCATION_SIZE + 1;
+        });
+        log.debug("预留ID: generator={}, first={}, count={}", name, first, count);
+        return first;
+    }
+
+    /**
+     * next_val 至少为 MAX(id) + ALLOCATION_SIZE，下一段从 MAX(id) + 1 开始
+     */
+    private void seed(String name) {
+        entityManager.createNativeQuery("INSERT INTO " + IdGenerators.TABLE
+                        + " (" + IdGenerators.NAME_COLUMN + ", " + IdGenerators.VALUE_COLUMN + ")"
+                        + " SELECT * FROM (SELECT :name AS seed_name, COALESCE(MAX(id), 0) + :size AS seed_value FROM " + name + ") AS seed"
+                        + " ON DUPLICATE KEY UPDATE " + IdGenerators.VALUE_COLUMN + " = GREATEST("
+                        + IdGenerators.TABLE + "." + IdGenerators.VALUE_COLUMN + ", seed.seed_value)")
+                .setParameter("name", name)
+                .setParameter("size", IdGenerators.ALLOCATION_SIZE)
+                .setHint(HibernateHints.HINT_NATIVE_SPACES, IdGenerators.TABLE)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,28 @@
+package com.blog.idgen;
+
+/**
+ * 表生成器（id_generators）的约定
+ *
+ * 高频插入的实体用 JPA 表生成器 + Hibernate pooled 优化器分配ID：每次从 id_generators 取一段 ALLOCATION_SIZE 个ID，
+ * 段内在内存中递增，插入不再依赖自增列，JDBC 批量插入才能生效。
+ * 每个生成器的 sequence_name 就是实体的表名，实体上的 @TableGenerator 和 {@link IdBlockService} 都使用这里的常量
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+
+    // 每段ID数；pooled 优化器下 next_val 是下一段的上界，已分配的ID都不大于 next_val - ALLOCATION_SIZE
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String LIKES = "likes";
+    public static final String COMMENTS = "comments";
+    public static final String MESSAGES = "message";
+    public static final String USER_ACTIVITY = "user_activity";
+
+    static final String[] ALL = {LIKES, COMMENTS, MESSAGES, USER_ACTIVITY};
+
+    private IdGenerators() {
+    }
+}
@@ -0,0 +1,126 @@
+package com.blog.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按 logger 抽样和限速（在 logback-spring.xml 中配置）
+ *
+ * 每条规则形如 {@code <rule>org.hibernate.SQL sample=10 max-per-second=200</rule>}：
+ * 名称以该前缀开头的 logger（取最长匹配），每 sample 条保留 1 条，每秒最多输出 max-per-second 条。
+ * 在创建日志事件之前判断，被丢弃的日志不产生格式化和入队开销；ERROR 级别不受限制
+ */
+public class LogRateLimitFilter extends TurboFilter {
+
+    private static final Rule NONE = new Rule("", 1, 0);
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    // logger 名称 -> 匹配的规则（NONE 表示没有规则）
+    private final Map<String, Rule> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * 由 Joran 对每个 rule 元素调用
+     */
+    public void addRule(String definition) {
+        String[] parts = definition.trim().split("\\s+");
+        int sample = 1;
+        long maxPerSecond = 0;
+        for (int i = 1; i < parts.length; i++) {
+            String[] kv = parts[i].split("=", 2);
+            if (kv.length != 2) {
+                addError("日志限流规则格式错误: " + definition);
+                continue;
+            }
+            switch (kv[0]) {
+                case "sample":
+                    sample = Math.max(1, Integer.parseInt(kv[1]));
+                    break;
+                case "max-per-second":
+                    maxPerSecond = Long.parseLong(kv[1]);
+                    break;
+                default:
+                    addError("未知的日志限流参数: " + kv[0]);
+            }
+        }
+        rules.add(new Rule(parts[0], sample, maxPerSecond));
+        rules.sort(Comparator.comparingInt((Rule rule) -> rule.prefix.length()).reversed());
+        resolved.clear();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isXxxEnabled() 调用不带消息，不计数
+        if (level == null || level.isGreaterOrEqual(Level.ERROR) || (format == null && t == null)) {
+            return FilterReply.NEUTRAL;
+        }
+        // 低于生效级别的日志本来就不会输出，不占用配额（不能调用 isEnabledFor，会再次进入本过滤器）
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        Rule rule = resolved.computeIfAbsent(logger.getName(), this::match);
+        if (rule == NONE) {
+            return FilterReply.NEUTRAL;
+        }
+        return rule.accept() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Rule match(String loggerName) {
+        for (Rule rule : rules) {
+            if (loggerName.startsWith(rule.prefix)) {
+                return rule;
+            }
+        }
+        return NONE;
+    }
+
+    private static final class Rule {
+
+        private final String prefix;
+        private final int sample;
+        private final long maxPerSecond;
+
+        private final AtomicLong sequence = new AtomicLong();
+        // 高 20 位为当前秒（取低位），低 44 位为本秒已输出条数
+        private final AtomicLong window = new AtomicLong();
+
+        private Rule(String prefix, int sample, long maxPerSecond) {
+            this.prefix = prefix;
+            this.sample = sample;
+            this.maxPerSecond = maxPerSecond;
+        }
+
+        boolean accept() {
+            if (sample > 1 && sequence.getAndIncrement() % sample != 0) {
+                return false;
+            }
+            return maxPerSecond <= 0 || acquire();
+        }
+
+        private boolean acquire() {
+            long second = System.currentTimeMillis() / 1000;
+            while (true) {
+                long current = window.get();
+                long count = current >>> 44 == (second & 0xFFFFF) ? current & 0xFFFFFFFFFFFL : 0;
+                if (count >= maxPerSecond) {
+                    return false;
+                }
+                long next = ((second & 0xFFFFF) << 44) | (count + 1);
+                if (window.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
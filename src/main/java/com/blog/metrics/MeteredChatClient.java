@@ -0,0 +1,76 @@
+package com.blog.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.ChatClient;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 记录大模型调用指标的 ChatClient
+ *
+ * blog.ai.chat.requests：每次 call 的耗时，标签 outcome、exception；
+ * blog.ai.chat.tokens：每次调用的 token 数，标签 type（prompt / generation），取自响应的 usage 元数据
+ */
+public class MeteredChatClient implements ChatClient {
+
+    private final ChatClient delegate;
+    private final MeterRegistry meterRegistry;
+    private final Timer successTimer;
+    private final DistributionSummary promptTokens;
+    private final DistributionSummary generationTokens;
+
+    public MeteredChatClient(ChatClient delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.successTimer = timer("SUCCESS", "none");
+        this.promptTokens = tokens("prompt");
+        this.generationTokens = tokens("generation");
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        long start = System.nanoTime();
+        ChatResponse response;
+        try {
+            response = delegate.call(prompt);
+        } catch (RuntimeException e) {
+            timer("ERROR", e.getClass().getSimpleName()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        Usage usage = response.getMetadata() != null ? response.getMetadata().getUsage() : null;
+        if (usage != null) {
+            record(promptTokens, usage.getPromptTokens());
+            record(generationTokens, usage.getGenerationTokens());
+        }
+        return response;
+    }
+
+    private void record(DistributionSummary summary, Long tokens) {
+        if (tokens != null && tokens > 0) {
+            summary.record(tokens);
+        }
+    }
+
+    private Timer timer(String outcome, String exception) {
+        return Timer.builder("blog.ai.chat.requests")
+                .description("大模型调用耗时")
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary tokens(String type) {
+        return DistributionSummary.builder("blog.ai.chat.tokens")
+                .description("大模型单次调用的 token 数")
+                .baseUnit("tokens")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
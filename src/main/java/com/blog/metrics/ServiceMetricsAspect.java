@@ -0,0 +1,71 @@
+package com.blog.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 核心服务的方法计时
+ *
+ * 指标 blog.service.invocations，标签 service、method、outcome（SUCCESS / ERROR）、exception，
+ * 与 Spring Data 的 spring.data.repository.invocations 标签对应；直方图和期望范围在 management.metrics.distribution 中配置。
+ * 成功调用的 Timer 按方法缓存，热路径上只有一次 Map 查找和计时。
+ * 切面在事务之外（最高优先级），耗时包含事务提交
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    private static final String METRIC = "blog.service.invocations";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.blog.service.ArticleService.*(..))"
+            + " || execution(public * com.blog.service.CommentService.*(..))"
+            + " || execution(public * com.blog.service.LikeService.*(..))"
+            + " || execution(public * com.blog.service.SearchService.*(..))"
+            + " || execution(public * com.blog.service.RecommendationService.*(..))"
+            + " || execution(public * com.blog.service.AiChatService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            timer(joinPoint, "ERROR", e.getClass().getSimpleName())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        successTimers.computeIfAbsent(method, m -> timer(joinPoint, "SUCCESS", "none"))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint, String outcome, String exception) {
+        return Timer.builder(METRIC)
+                .description("核心服务方法耗时")
+                .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.blog.querybudget;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 接口的 SQL 查询预算
+ *
+ * 标注在 Controller 方法上，请求结束时由 QueryBudgetFilter 校验本次请求执行的语句数：
+ * 超出预算时记录告警并计入 /actuator/queries；blog.query-budget.fail-on-exceed=true（集成测试中开启）时直接抛出异常
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+
+    /**
+     * 单次请求允许执行的最大语句数
+     */
+    int maxQueries();
+
+    /**
+     * 同一语句形态允许重复执行的最大次数（超过视为 N+1），默认使用 blog.query-budget.repeat-threshold
+     */
+    int maxRepeats() default -1;
+}
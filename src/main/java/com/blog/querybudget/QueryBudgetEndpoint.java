@@ -0,0 +1,41 @@
+package com.blog.querybudget;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/queries：按接口列出 SQL 查询过多、疑似 N+1 或超出 @QueryBudget 的请求；DELETE 清空统计
+ */
+@Endpoint(id = "queries")
+public class QueryBudgetEndpoint {
+
+    private final QueryOffenderRegistry registry;
+    private final int warnThreshold;
+    private final int repeatThreshold;
+
+    public QueryBudgetEndpoint(QueryOffenderRegistry registry, int warnThreshold, int repeatThreshold) {
+        this.registry = registry;
+        this.warnThreshold = warnThreshold;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @ReadOperation
+    public Map<String, Object> offenders() {
+        List<Map<String, Object>> offenders = registry.snapshot();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("warnThreshold", warnThreshold);
+        result.put("repeatThreshold", repeatThreshold);
+        result.put("offenders", offenders);
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        registry.clear();
+    }
+}
@@ -0,0 +1,11 @@
+package com.blog.querybudget;
+
+/**
+ * 请求执行的 SQL 超出 @QueryBudget 预算（仅在 blog.query-budget.fail-on-exceed=true 时抛出）
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
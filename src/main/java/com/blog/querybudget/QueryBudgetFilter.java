@@ -0,0 +1,85 @@
+package com.blog.querybudget;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 请求级 SQL 统计
+ *
+ * 在最外层开始统计（包含认证过滤器加载用户的查询），请求结束后判断：
+ * 1. 语句数超过 warn-threshold
+ * 2. 同一语句形态执行次数达到 repeat-threshold（或 @QueryBudget.maxRepeats），疑似 N+1
+ * 3. 语句数超过 @QueryBudget.maxQueries
+ * 任一成立时记录告警并计入 QueryOffenderRegistry；超出预算且 fail-on-exceed 开启时抛出 QueryBudgetExceededException
+ */
+@Slf4j
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private final QueryOffenderRegistry registry;
+    private final int warnThreshold;
+    private final int repeatThreshold;
+    private final boolean failOnExceed;
+
+    public QueryBudgetFilter(QueryOffenderRegistry registry, int warnThreshold, int repeatThreshold,
+                             boolean failOnExceed) {
+        this.registry = registry;
+        this.warnThreshold = warnThreshold;
+        this.repeatThreshold = repeatThreshold;
+        this.failOnExceed = failOnExceed;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryStats stats = QueryTracker.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryTracker.end();
+        }
+        evaluate(request, stats);
+    }
+
+    private void evaluate(HttpServletRequest request, QueryStats stats) {
+        if (stats.getCount() == 0) {
+            return;
+        }
+
+        QueryBudget budget = stats.getBudget();
+        int maxRepeats = budget != null && budget.maxRepeats() > 0 ? budget.maxRepeats() : repeatThreshold;
+        Map<String, Integer> repeated = stats.repeatedShapes(maxRepeats);
+        boolean overBudget = budget != null && stats.getCount() > budget.maxQueries();
+        boolean tooMany = stats.getCount() > warnThreshold;
+        if (!overBudget && !tooMany && repeated.isEmpty()) {
+            return;
+        }
+
+        String route = route(request);
+        registry.record(route, stats, repeated, overBudget);
+        log.warn("SQL 查询{}: route={}, 语句数={}{}, 数据库耗时={}ms, 重复语句={}",
+                overBudget ? "超出预算" : (repeated.isEmpty() ? "过多" : "疑似 N+1"),
+                route, stats.getCount(), budget != null ? "/" + budget.maxQueries() : "",
+                stats.getMillis(), repeated);
+
+        if (overBudget && failOnExceed) {
+            throw new QueryBudgetExceededException(String.format("%s 执行了 %d 条 SQL，超出预算 %d；重复语句: %s",
+                    route, stats.getCount(), budget.maxQueries(), repeated));
+        }
+    }
+
+    /**
+     * 路由模板（/api/articles/{id}），未匹配到 Controller 时使用请求路径
+     */
+    private String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
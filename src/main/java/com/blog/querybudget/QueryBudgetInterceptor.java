@@ -0,0 +1,21 @@
+package com.blog.querybudget;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 把 Controller 方法上的 @QueryBudget 交给当前请求的统计，请求结束时由 QueryBudgetFilter 校验
+ */
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryStats stats = QueryTracker.current();
+        if (stats != null && handler instanceof HandlerMethod handlerMethod) {
+            stats.setBudget(handlerMethod.getMethodAnnotation(QueryBudget.class));
+        }
+        return true;
+    }
+}
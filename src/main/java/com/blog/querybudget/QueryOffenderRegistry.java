@@ -0,0 +1,100 @@
+package com.blog.querybudget;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按接口汇总的 SQL 问题请求（查询过多、疑似 N+1、超出预算），供 /actuator/queries 查看
+ */
+public class QueryOffenderRegistry {
+
+    private final int maxRoutes;
+    private final Map<String, Offender> offenders = new ConcurrentHashMap<>();
+
+    public QueryOffenderRegistry(int maxRoutes) {
+        this.maxRoutes = maxRoutes;
+    }
+
+    void record(String route, QueryStats stats, Map<String, Integer> repeated, boolean overBudget) {
+        Offender offender = offenders.get(route);
+        if (offender == null) {
+            if (offenders.size() >= maxRoutes) {
+                return;
+            }
+            offender = offenders.computeIfAbsent(route, Offender::new);
+        }
+        offender.update(stats, repeated, overBudget);
+    }
+
+    /**
+     * 按单次最多语句数降序
+     */
+    public List<Map<String, Object>> snapshot() {
+        List<Offender> sorted = new ArrayList<>(offenders.values());
+        sorted.sort(Comparator.comparingInt((Offender offender) -> offender.maxQueries).reversed());
+
+        List<Map<String, Object>> result = new ArrayList<>(sorted.size());
+        for (Offender offender : sorted) {
+            result.add(offender.toMap());
+        }
+        return result;
+    }
+
+    public void clear() {
+        offenders.clear();
+    }
+
+    private static final class Offender {
+
+        private final String route;
+        private long occurrences;
+        private long budgetViolations;
+        private int maxQueries;
+        private long maxDbMillis;
+        private int lastQueries;
+        private Integer budget;
+        private Map<String, Integer> repeatedStatements = new LinkedHashMap<>();
+        private LocalDateTime lastSeen;
+
+        private Offender(String route) {
+            this.route = route;
+        }
+
+        synchronized void update(QueryStats stats, Map<String, Integer> repeated, boolean overBudget) {
+            occurrences++;
+            if (overBudget) {
+                budgetViolations++;
+            }
+            if (stats.getBudget() != null) {
+                budget = stats.getBudget().maxQueries();
+            }
+            lastQueries = stats.getCount();
+            maxDbMillis = Math.max(maxDbMillis, stats.getMillis());
+            // 保留语句数最多的一次请求的重复语句
+            if (stats.getCount() >= maxQueries) {
+                maxQueries = stats.getCount();
+                repeatedStatements = repeated;
+            }
+            lastSeen = LocalDateTime.now();
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("route", route);
+            map.put("occurrences", occurrences);
+            map.put("budget", budget);
+            map.put("budgetViolations", budgetViolations);
+            map.put("maxQueries", maxQueries);
+            map.put("lastQueries", lastQueries);
+            map.put("maxDbMillis", maxDbMillis);
+            map.put("repeatedStatements", repeatedStatements);
+            map.put("lastSeen", lastSeen);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.blog.querybudget;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 单个请求的 SQL 统计：语句数、数据库耗时、每条语句的执行次数
+ *
+ * 请求内按原始 SQL 计数（Hibernate 生成的语句带占位符，同一形态文本相同），
+ * 只有需要报告时才归一化为语句形态（字面量、IN 列表替换为占位符）
+ */
+public class QueryStats {
+
+    private static final int MAX_SHAPE_LENGTH = 300;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Integer> statements = new HashMap<>();
+    private int count;
+    private long nanos;
+    private QueryBudget budget;
+
+    void record(String sql, long elapsedNanos) {
+        count++;
+        nanos += elapsedNanos;
+        statements.merge(sql == null ? "" : sql, 1, Integer::sum);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getMillis() {
+        return nanos / 1_000_000;
+    }
+
+    QueryBudget getBudget() {
+        return budget;
+    }
+
+    void setBudget(QueryBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * 执行次数不少于 threshold 的语句形态，按次数降序
+     */
+    Map<String, Integer> repeatedShapes(int threshold) {
+        Map<String, Integer> shapes = new HashMap<>();
+        statements.forEach((sql, times) -> shapes.merge(shape(sql), times, Integer::sum));
+
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) + "..." : shape;
+    }
+}
@@ -0,0 +1,29 @@
+package com.blog.querybudget;
+
+/**
+ * 当前请求的 SQL 统计（线程绑定，由 QueryBudgetFilter 开始和结束）
+ */
+public final class QueryTracker {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private QueryTracker() {
+    }
+
+    static QueryStats begin() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * 当前线程没有在处理请求时返回 null（后台任务不统计）
+     */
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+}
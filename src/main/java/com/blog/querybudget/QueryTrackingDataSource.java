@@ -0,0 +1,115 @@
+package com.blog.querybudget;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 统计 SQL 的数据源包装
+ *
+ * 只在当前线程正在处理请求（QueryTracker 有统计对象）时包装连接，后台任务取到的是原始连接；
+ * 包装后的连接创建的 Statement 在 execute* 时计时并记录语句，批量执行算一次
+ */
+public class QueryTrackingDataSource extends DelegatingDataSource {
+
+    public QueryTrackingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    private Connection track(Connection connection) {
+        if (QueryTracker.current() == null) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = QueryTrackingDataSource.invoke(target, method, args);
+            switch (method.getName()) {
+                case "createStatement":
+                    return statementProxy(Statement.class, (Statement) result, null);
+                case "prepareStatement":
+                    return statementProxy(PreparedStatement.class, (Statement) result, (String) args[0]);
+                case "prepareCall":
+                    return statementProxy(CallableStatement.class, (Statement) result, (String) args[0]);
+                default:
+                    return result;
+            }
+        }
+
+        private Object statementProxy(Class<? extends Statement> type, Statement statement, String sql) {
+            return Proxy.newProxyInstance(QueryTrackingDataSource.class.getClassLoader(),
+                    new Class<?>[]{type}, new StatementHandler(statement, sql));
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private String sql;
+
+        private StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("addBatch".equals(name) && args != null && args.length == 1 && args[0] instanceof String) {
+                sql = (String) args[0];
+            }
+            if (!name.startsWith("execute")) {
+                return QueryTrackingDataSource.invoke(target, method, args);
+            }
+
+            String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            long start = System.nanoTime();
+            try {
+                return QueryTrackingDataSource.invoke(target, method, args);
+            } finally {
+                QueryStats stats = QueryTracker.current();
+                if (stats != null) {
+                    stats.record(executed, System.nanoTime() - start);
+                }
+            }
+        }
+    }
+}
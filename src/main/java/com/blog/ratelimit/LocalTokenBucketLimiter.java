@@ -0,0 +1,96 @@
+package com.blog.ratelimit;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本节点令牌桶限流器
+ *
+ * 单个节点自己就已经超过全局配额时，没有必要再访问 Redis，直接在内存中拒绝
+ */
+@Component
+public class LocalTokenBucketLimiter {
+
+    // 桶数量上限；达到上限后新调用方不建桶，只由 Redis 限流，等后台清理腾出位置
+    private static final int MAX_BUCKETS = 10_000;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * 尝试获取一个令牌（请求路径上不做清理扫描）
+     */
+    public boolean tryAcquire(String key, int limit, int windowSeconds) {
+        return tryAcquire(key, limit, windowSeconds, System.nanoTime());
+    }
+
+    boolean tryAcquire(String key, int limit, int windowSeconds, long nowNanos) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= MAX_BUCKETS) {
+                return true;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit, windowSeconds, nowNanos));
+        }
+        return bucket.tryConsume(nowNanos);
+    }
+
+    /**
+     * 后台清理已经回满的空闲桶
+     */
+    @Scheduled(fixedDelayString = "${blog.security.rate-limit.local-evict-interval-ms:10000}")
+    public void evictIdleBuckets() {
+        evictIdleBuckets(System.nanoTime());
+    }
+
+    void evictIdleBuckets(long nowNanos) {
+        buckets.entrySet().removeIf(entry -> entry.getValue().isFull(nowNanos));
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * 令牌桶：容量为 limit，每个窗口匀速补满
+     */
+    private static class TokenBucket {
+
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(int limit, int windowSeconds, long nowNanos) {
+            this.capacity = limit;
+            this.tokensPerNano = limit / (double) TimeUnit.SECONDS.toNanos(windowSeconds);
+            this.tokens = limit;
+            this.lastRefillNanos = nowNanos;
+        }
+
+        synchronized boolean tryConsume(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefillNanos;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+                lastRefillNanos = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.blog.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 接口限流注解
+ *
+ * 标注在 Controller 方法上，由 RateLimitInterceptor 在进入 Controller 之前校验：
+ * 先用本节点令牌桶快速拒绝，再用 Redis 滑动窗口做全局限流
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimit {
+
+    /**
+     * 窗口内允许的最大请求数
+     */
+    int limit();
+
+    /**
+     * 窗口长度（秒）
+     */
+    int windowSeconds() default 60;
+
+    /**
+     * 限流维度
+     */
+    RateLimitKey key() default RateLimitKey.USER;
+
+    /**
+     * 限流规则名称，默认使用请求路由
+     */
+    String name() default "";
+
+    /**
+     * 被限流时返回的提示信息
+     */
+    String message() default "请求过于频繁，请稍后再试";
+}
@@ -0,0 +1,25 @@
+package com.blog.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 限流判定结果
+ */
+@Getter
+@AllArgsConstructor
+public class RateLimitDecision {
+
+    private final boolean allowed;      // 是否放行
+    private final long limit;           // 窗口内允许的最大请求数
+    private final long remaining;       // 窗口内剩余可用请求数
+    private final long resetSeconds;    // 距离配额恢复的秒数
+
+    public static RateLimitDecision allow(long limit, long remaining, long resetSeconds) {
+        return new RateLimitDecision(true, limit, remaining, resetSeconds);
+    }
+
+    public static RateLimitDecision reject(long limit, long resetSeconds) {
+        return new RateLimitDecision(false, limit, 0, resetSeconds);
+    }
+}
@@ -0,0 +1,191 @@
+package com.blog.ratelimit;
+
+import com.blog.exception.BlogException;
+import com.blog.security.SecurityUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 限流拦截器
+ *
+ * 在 Controller（以及其中的数据库事务）执行之前完成限流判断：
+ * 1. 方法上有 @RateLimit 时按注解规则限流（本节点令牌桶 + Redis 滑动窗口）
+ * 2. 否则在 blog.security.rate-limit.global-enabled 开启时按 requests-per-minute 做默认限流，
+ *    只使用本节点令牌桶（配额按节点计算），未加注解的接口不产生 Redis 往返
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String HEADER_LIMIT = "X-RateLimit-Limit";
+    private static final String HEADER_REMAINING = "X-RateLimit-Remaining";
+    private static final String HEADER_RESET = "X-RateLimit-Reset";
+    private static final String HEADER_RETRY_AFTER = "Retry-After";
+
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9a-fA-F.:]+");
+
+    private final LocalTokenBucketLimiter localLimiter;
+    private final RedisSlidingWindowLimiter redisLimiter;
+
+    @Value("${blog.security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${blog.security.rate-limit.global-enabled:false}")
+    private boolean globalEnabled;
+
+    @Value("${blog.security.rate-limit.requests-per-minute:100}")
+    private int requestsPerMinute;
+
+    // 可信反向代理（IP 或 CIDR）；只有直连地址属于其中时才读取 X-Forwarded-For / X-Real-IP
+    @Value("${blog.security.rate-limit.trusted-proxies:}")
+    private List<String> trustedProxies;
+
+    private List<IpAddressMatcher> trustedProxyMatchers;
+
+    @PostConstruct
+    public void init() {
+        trustedProxyMatchers = trustedProxies.stream()
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .map(IpAddressMatcher::new)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        RateLimit rateLimit = handlerMethod.getMethodAnnotation(RateLimit.class);
+        if (rateLimit == null) {
+            if (globalEnabled) {
+                String key = "global:" + resolveIdentity(RateLimitKey.USER, request);
+                if (!localLimiter.tryAcquire(key, requestsPerMinute, 60)) {
+                    reject(response, RateLimitDecision.reject(requestsPerMinute, 60), key, "请求过于频繁，请稍后再试");
+                }
+            }
+            return true;
+        }
+
+        String name = StringUtils.hasText(rateLimit.name()) ? rateLimit.name() : resolveRoute(request);
+        int limit = rateLimit.limit();
+        int windowSeconds = rateLimit.windowSeconds();
+        String message = rateLimit.message();
+        String key = name + ":" + resolveIdentity(rateLimit.key(), request);
+
+        // 1. 本节点令牌桶：突发流量在这里被拒绝，不产生 Redis 往返
+        if (!localLimiter.tryAcquire(key, limit, windowSeconds)) {
+            reject(response, RateLimitDecision.reject(limit, windowSeconds), key, message);
+        }
+
+        // 2. Redis 滑动窗口：多节点共享的全局配额
+        RateLimitDecision decision = redisLimiter.tryAcquire(key, limit, windowSeconds);
+        if (!decision.isAllowed()) {
+            reject(response, decision, key, message);
+        }
+
+        writeHeaders(response, decision);
+        return true;
+    }
+
+    private void reject(HttpServletResponse response, RateLimitDecision decision, String key, String message) {
+        writeHeaders(response, decision);
+        response.setHeader(HEADER_RETRY_AFTER, String.valueOf(decision.getResetSeconds()));
+        log.debug("请求被限流: key={}", key);
+        throw new BlogException(message, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private void writeHeaders(HttpServletResponse response, RateLimitDecision decision) {
+        response.setHeader(HEADER_LIMIT, String.valueOf(decision.getLimit()));
+        response.setHeader(HEADER_REMAINING, String.valueOf(decision.getRemaining()));
+        response.setHeader(HEADER_RESET, String.valueOf(decision.getResetSeconds()));
+    }
+
+    /**
+     * 根据限流维度生成调用方标识
+     */
+    private String resolveIdentity(RateLimitKey keyType, HttpServletRequest request) {
+        switch (keyType) {
+            case ROUTE:
+                return "all";
+            case IP:
+                return "ip:" + resolveClientIp(request);
+            case USER:
+            default:
+                return SecurityUtils.getCurrentUserId()
+                        .map(id -> "user:" + id)
+                        .orElseGet(() -> "ip:" + resolveClientIp(request));
+        }
+    }
+
+    /**
+     * 路由使用匹配到的路径模板（如 /api/comments/article/{articleId}），避免按具体 ID 分散配额
+     */
+    private String resolveRoute(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String path = pattern != null ? pattern.toString() : request.getRequestURI();
+        return request.getMethod() + " " + path;
+    }
+
+    /**
+     * 客户端 IP：直连地址不是可信代理时直接使用，转发头可以由客户端任意伪造；
+     * 经可信代理转发时从 X-Forwarded-For 右侧向左跳过可信代理，取第一个不可信的地址
+     */
+    private String resolveClientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!isTrustedProxy(remoteAddr)) {
+            return remoteAddr;
+        }
+
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (StringUtils.hasText(forwardedFor)) {
+            String[] hops = forwardedFor.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (StringUtils.hasText(hop) && !isTrustedProxy(hop)) {
+                    return hop;
+                }
+            }
+            return hops[0].trim();
+        }
+        String realIp = request.getHeader("X-Real-IP");
+        if (StringUtils.hasText(realIp)) {
+            return realIp.trim();
+        }
+        return remoteAddr;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        // 转发头中不像 IP 的值直接视为不可信，避免交给 InetAddress 触发 DNS 解析
+        if (!IP_LITERAL.matcher(address).matches()) {
+            return false;
+        }
+        for (IpAddressMatcher matcher : trustedProxyMatchers) {
+            try {
+                if (matcher.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
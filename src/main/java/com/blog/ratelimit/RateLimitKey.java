@@ -0,0 +1,22 @@
+package com.blog.ratelimit;
+
+/**
+ * 限流维度
+ */
+public enum RateLimitKey {
+
+    /**
+     * 按登录用户限流（匿名请求退化为按 IP）
+     */
+    USER,
+
+    /**
+     * 按客户端 IP 限流
+     */
+    IP,
+
+    /**
+     * 按路由整体限流（所有调用方共享配额）
+     */
+    ROUTE
+}
@@ -0,0 +1,91 @@
+package com.blog.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 基于 Redis 有序集合的滑动窗口限流器
+ *
+ * 清理过期记录、计数、写入在一个 Lua 脚本中原子完成，多节点共享同一份配额
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisSlidingWindowLimiter {
+
+    private static final String KEY_PREFIX = "rate:limit:";
+
+    /**
+     * KEYS[1] 限流 key
+     * ARGV[1] 当前时间（毫秒） ARGV[2] 窗口长度（毫秒） ARGV[3] 配额 ARGV[4] 本次请求的唯一标识
+     * 返回 {是否放行, 剩余配额, 距离恢复的毫秒数}
+     */
+    private static final RedisScript<List> SLIDING_WINDOW_SCRIPT = new DefaultRedisScript<>("""
+            local key = KEYS[1]
+            local now = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            local limit = tonumber(ARGV[3])
+            redis.call('ZREMRANGEBYSCORE', key, 0, now - window)
+            local count = redis.call('ZCARD', key)
+            if count < limit then
+                redis.call('ZADD', key, now, ARGV[4])
+                redis.call('PEXPIRE', key, window)
+                return {1, limit - count - 1, window}
+            end
+            local oldest = redis.call('ZRANGE', key, 0, 0, 'WITHSCORES')
+            local reset = window
+            if oldest[2] then
+                reset = tonumber(oldest[2]) + window - now
+            end
+            return {0, 0, reset}
+            """, List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    /**
+     * 尝试在全局窗口内占用一次配额
+     *
+     * Redis 不可用时放行（本节点令牌桶仍然生效），避免缓存故障拖垮整个站点
+     */
+    public RateLimitDecision tryAcquire(String key, int limit, int windowSeconds) {
+        long windowMillis = windowSeconds * 1000L;
+        try {
+            List<?> result = redisTemplate.execute(
+                    SLIDING_WINDOW_SCRIPT,
+                    Collections.singletonList(KEY_PREFIX + key),
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(windowMillis),
+                    String.valueOf(limit),
+                    UUID.randomUUID().toString()
+            );
+
+            if (result == null || result.size() < 3) {
+                return RateLimitDecision.allow(limit, limit, windowSeconds);
+            }
+
+            boolean allowed = toLong(result.get(0)) == 1L;
+            long remaining = toLong(result.get(1));
+            long resetSeconds = Math.max(1, (toLong(result.get(2)) + 999) / 1000);
+
+            return allowed
+                    ? RateLimitDecision.allow(limit, remaining, resetSeconds)
+                    : RateLimitDecision.reject(limit, resetSeconds);
+
+        } catch (Exception e) {
+            log.warn("Redis 限流不可用，降级为仅本地限流: {}", e.getMessage());
+            return RateLimitDecision.allow(limit, limit, windowSeconds);
+        }
+    }
+
+    private long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+    }
+}
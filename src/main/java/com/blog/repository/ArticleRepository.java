@@ -2,13 +2,20 @@ package com.blog.repository;
 
 import com.blog.entity.Article;
 import com.blog.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -26,6 +33,25 @@ public interface ArticleRepository extends JpaRepository<Article, Long> {
      */
     boolean existsBySlug(String slug);
 
+    /**
+     * 查询已占用的最大 slug 序号（base 本身记为 0，base-n 记为 n，没有占用时为 -1）
+     * 只在 Redis 计数器初始化时调用一次；后缀不全是数字的 slug（如 hello-2024-recap）不计入
+     */
+    default long findMaxSlugSequence(String base) {
+        String escaped = base.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return findMaxSlugSequence(base, escaped + "-%");
+    }
+
+    /**
+     * pattern 为转义 LIKE 元字符后的 "base-%"
+     */
+    @Query(value = "SELECT COALESCE(MAX(CASE WHEN slug = :base THEN 0 " +
+            "ELSE CAST(SUBSTRING(slug, CHAR_LENGTH(:base) + 2) AS UNSIGNED) END), -1) " +
+            "FROM articles WHERE slug = :base OR (slug LIKE :pattern " +
+            "AND SUBSTRING(slug, CHAR_LENGTH(:base) + 2) REGEXP '^[0-9]{1,18}$')",
+            nativeQuery = true)
+    long findMaxSlugSequence(@Param("base") String base, @Param("pattern") String pattern);
+
     /**
      * 根据作者查找文章
      */
@@ -162,4 +188,130 @@ public interface ArticleRepository extends JpaRepository<Article, Long> {
                                        @Param("articleId") Long articleId,
                                        Pageable pageable);
 
-}
\ No newline at end of file
+    /**
+     * 按作者汇总文章数和浏览量（用于用户统计对账，作者ID在 [fromId, toId) 内）
+     * 返回 [作者ID, 文章数, 浏览量]
+     */
+    @Query("SELECT a.author.id, COUNT(a), COALESCE(SUM(a.viewCount), 0) FROM Article a " +
+            "WHERE a.author.id >= :fromId AND a.author.id < :toId GROUP BY a.author.id")
+    List<Object[]> aggregateStatsGroupByAuthor(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * 汇总指定作者的文章数和浏览量
+     * 返回 [文章数, 浏览量]
+     */
+    @Query("SELECT COUNT(a), COALESCE(SUM(a.viewCount), 0) FROM Article a WHERE a.author.id = :authorId")
+    List<Object[]> aggregateStatsByAuthorId(@Param("authorId") Long authorId);
+
+    /**
+     * 查询关注作者已发布的文章（收件箱冷启动重建、Redis 不可用时的兜底查询）
+     */
+    @Query("SELECT a FROM Article a WHERE a.status = 'PUBLISHED' AND a.publishedAt < :before AND " +
+            "a.author.id IN (SELECT f.followeeId FROM Follow f WHERE f.followerId = :userId) " +
+            "ORDER BY a.publishedAt DESC")
+    List<Article> findFollowedPublishedBefore(@Param("userId") Long userId,
+                                             @Param("before") LocalDateTime before,
+                                             Pageable pageable);
+
+    /**
+     * 关注动态的数据库兜底分页：排在游标（发布时间所在毫秒 [millis, nextMillis)，文章ID）之后的文章
+     */
+    @Query("SELECT a FROM Article a WHERE a.status = 'PUBLISHED' AND " +
+            "(a.publishedAt < :millis OR (a.publishedAt < :nextMillis AND a.publishedAt >= :millis AND a.id < :articleId)) AND " +
+            "a.author.id IN (SELECT f.followeeId FROM Follow f WHERE f.followerId = :userId) " +
+            "ORDER BY a.publishedAt DESC, a.id DESC")
+    List<Article> findFollowedPublishedAfterCursor(@Param("userId") Long userId,
+                                                   @Param("millis") LocalDateTime millis,
+                                                   @Param("nextMillis") LocalDateTime nextMillis,
+                                                   @Param("articleId") Long articleId,
+                                                   Pageable pageable);
+
+    /**
+     * 查询作者最近发布的文章（关注后回填收件箱）
+     */
+    @Query("SELECT a FROM Article a WHERE a.author.id = :authorId AND a.status = 'PUBLISHED' " +
+            "ORDER BY a.publishedAt DESC")
+    List<Article> findPublishedByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+
+    /**
+     * 最新发布的文章（订阅源重建）
+     * 返回 [文章ID, 发布时间]
+     */
+    @Query("SELECT a.id, a.publishedAt FROM Article a WHERE a.status = 'PUBLISHED' ORDER BY a.publishedAt DESC")
+    List<Object[]> findLatestPublished(Pageable pageable);
+
+    /**
+     * 作者最新发布的文章（订阅源重建）
+     * 返回 [文章ID, 发布时间]
+     */
+    @Query("SELECT a.id, a.publishedAt FROM Article a WHERE a.author.id = :authorId AND a.status = 'PUBLISHED' " +
+            "ORDER BY a.publishedAt DESC")
+    List<Object[]> findLatestPublishedByAuthor(@Param("authorId") Long authorId, Pageable pageable);
+
+    /**
+     * 标签下最新发布的文章（订阅源重建）
+     * 返回 [文章ID, 发布时间]
+     */
+    @Query("SELECT a.id, a.publishedAt FROM Article a JOIN a.tags t WHERE t.name = :tagName " +
+            "AND a.status = 'PUBLISHED' ORDER BY a.publishedAt DESC")
+    List<Object[]> findLatestPublishedByTag(@Param("tagName") String tagName, Pageable pageable);
+
+    /**
+     * 批量加载文章及作者、标签（一条查询，避免逐篇懒加载）
+     */
+    @EntityGraph(attributePaths = {"author", "tags"})
+    @Query("SELECT a FROM Article a WHERE a.id IN :ids")
+    List<Article> findWithAuthorAndTagsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 已发布文章的最大ID（站点地图分片数）
+     */
+    @Query("SELECT COALESCE(MAX(a.id), 0) FROM Article a WHERE a.status = 'PUBLISHED'")
+    long findMaxPublishedId();
+
+    /**
+     * 按ID区间分批读取站点地图条目（键集分页，不加载正文）
+     * 返回 [文章ID, slug, 更新时间, 发布时间]
+     */
+    @Query("SELECT a.id, a.slug, a.updatedAt, a.publishedAt FROM Article a WHERE a.status = 'PUBLISHED' " +
+            "AND a.id > :afterId AND a.id < :toId ORDER BY a.id")
+    List<Object[]> findSitemapEntries(@Param("afterId") Long afterId, @Param("toId") Long toId, Pageable pageable);
+
+    /**
+     * 作者全部文章的ID（作者资料变化时让文章详情的版本失效）
+     */
+    @Query("SELECT a.id FROM Article a WHERE a.author.id = :authorId")
+    List<Long> findIdsByAuthorId(@Param("authorId") Long authorId);
+
+    /**
+     * 查询文章页实时计数（不加载实体）
+     * 返回 [文章ID, 作者ID, 状态, 阅读数, 点赞数, 评论数, 文章更新时间, 作者更新时间]
+     */
+    @Query("SELECT a.id, u.id, a.status, a.viewCount, a.likeCount, a.commentCount, a.updatedAt, u.updatedAt " +
+            "FROM Article a JOIN a.author u WHERE a.slug = :slug")
+    List<Object[]> findPageCountersBySlug(@Param("slug") String slug);
+
+    /**
+     * 阅读数加一（不经过实体）
+     *
+     * 计数列不在任何二级缓存区域中（Article 实体不缓存），同步空间使用不对应任何表的 article_counters，
+     * 避免每次阅读都让 Article.tags 集合缓存和涉及 articles 表的查询缓存失效
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_counters"))
+    @Query(value = "UPDATE articles SET view_count = view_count + 1 WHERE id = :articleId", nativeQuery = true)
+    int incrementViewCount(@Param("articleId") Long articleId);
+
+    /**
+     * 按增量调整点赞数和评论数（由事件消费者批量写入，不经过实体，避免覆盖并发修改）
+     * 同步空间同 {@link #incrementViewCount}
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_counters"))
+    @Query(value = "UPDATE articles SET like_count = GREATEST(like_count + :likes, 0), " +
+            "comment_count = GREATEST(comment_count + :comments, 0) WHERE id = :articleId",
+            nativeQuery = true)
+    int adjustEngagementCounts(@Param("articleId") Long articleId,
+                               @Param("likes") int likes,
+                               @Param("comments") int comments);
+}
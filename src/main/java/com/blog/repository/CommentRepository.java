@@ -41,6 +41,12 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Query("SELECT c FROM Comment c WHERE c.user.id = :userId ORDER BY c.createdAt DESC")
     List<Comment> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
 
+    /**
+     * 用户评论过的文章ID（用户资料变化时让这些文章评论列表的版本失效）
+     */
+    @Query("SELECT DISTINCT c.article.id FROM Comment c WHERE c.user.id = :userId")
+    List<Long> findArticleIdsByUserId(@Param("userId") Long userId);
+
     /**
      * 根据父评论查找回复
      */
@@ -97,4 +103,18 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      */
     @Query("SELECT c FROM Comment c WHERE c.user = :user AND c.article = :article")
     List<Comment> findByUserAndArticle(@Param("user") User user, @Param("article") Article article);
-}
\ No newline at end of file
+
+    /**
+     * 按文章作者汇总收到的评论数（用于用户统计对账，作者ID在 [fromId, toId) 内）
+     * 返回 [作者ID, 评论数]
+     */
+    @Query("SELECT c.article.author.id, COUNT(c) FROM Comment c " +
+            "WHERE c.article.author.id >= :fromId AND c.article.author.id < :toId GROUP BY c.article.author.id")
+    List<Object[]> countCommentsReceivedGroupByAuthor(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * 统计指定作者收到的评论数
+     */
+    @Query("SELECT COUNT(c) FROM Comment c WHERE c.article.author.id = :authorId")
+    long countCommentsReceivedByAuthorId(@Param("authorId") Long authorId);
+}
@@ -0,0 +1,37 @@
+package com.blog.repository;
+
+import com.blog.entity.EventCheckpoint;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface EventCheckpointRepository extends JpaRepository<EventCheckpoint, String> {
+
+    /**
+     * 新消费者从指定位置开始消费（已存在时保持原位置）
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "event_checkpoints"))
+    @Query(value = "INSERT IGNORE INTO event_checkpoints (consumer, last_event_id, updated_at) " +
+            "VALUES (:consumer, :lastEventId, NOW())",
+            nativeQuery = true)
+    void insertIfAbsent(@Param("consumer") String consumer, @Param("lastEventId") long lastEventId);
+
+    /**
+     * 从 expected 推进到 next；位置已被推进过时返回 0，调用方应回滚本批处理结果
+     */
+    @Modifying
+    @Query("UPDATE EventCheckpoint c SET c.lastEventId = :next, c.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE c.consumer = :consumer AND c.lastEventId = :expected")
+    int advance(@Param("consumer") String consumer,
+                @Param("expected") long expected,
+                @Param("next") long next);
+}
@@ -0,0 +1,73 @@
+package com.blog.repository;
+
+import com.blog.entity.Follow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FollowRepository extends JpaRepository<Follow, Follow.FollowId> {
+
+    boolean existsByFollowerIdAndFolloweeId(Long followerId, Long followeeId);
+
+    /**
+     * 删除关注关系，返回删除行数
+     */
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.followerId = :followerId AND f.followeeId = :followeeId")
+    int deleteEdge(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    /**
+     * 统计粉丝数
+     */
+    long countByFolloweeId(Long followeeId);
+
+    /**
+     * 统计关注数
+     */
+    long countByFollowerId(Long followerId);
+
+    /**
+     * 按ID 顺序分批读取粉丝（用于推送收件箱，避免一次加载全部粉丝）
+     */
+    @Query("SELECT f.followerId FROM Follow f WHERE f.followeeId = :followeeId AND f.followerId > :afterId " +
+            "ORDER BY f.followerId")
+    List<Long> findFollowerIdsAfter(@Param("followeeId") Long followeeId,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
+
+    /**
+     * 查询用户关注的人
+     */
+    @Query("SELECT f.followeeId FROM Follow f WHERE f.followerId = :followerId")
+    List<Long> findFolloweeIds(@Param("followerId") Long followerId);
+
+    /**
+     * 在给定作者中筛选出用户关注的作者（用于合并热门作者的发件箱）
+     */
+    @Query("SELECT f.followeeId FROM Follow f WHERE f.followerId = :followerId AND f.followeeId IN :authorIds")
+    List<Long> findFolloweeIdsIn(@Param("followerId") Long followerId,
+                                 @Param("authorIds") Collection<Long> authorIds);
+
+    /**
+     * 按被关注者汇总粉丝数（用于用户统计对账，用户ID在 [fromId, toId) 内）
+     * 返回 [用户ID, 粉丝数]
+     */
+    @Query("SELECT f.followeeId, COUNT(f) FROM Follow f " +
+            "WHERE f.followeeId >= :fromId AND f.followeeId < :toId GROUP BY f.followeeId")
+    List<Object[]> countFollowersGroupByUser(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * 按关注者汇总关注数（用于用户统计对账，用户ID在 [fromId, toId) 内）
+     * 返回 [用户ID, 关注数]
+     */
+    @Query("SELECT f.followerId, COUNT(f) FROM Follow f " +
+            "WHERE f.followerId >= :fromId AND f.followerId < :toId GROUP BY f.followerId")
+    List<Object[]> countFollowingGroupByUser(@Param("fromId") long fromId, @Param("toId") long toId);
+}
@@ -104,4 +104,18 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
      */
     @Query("SELECT l FROM Like l WHERE l.user = :user ORDER BY l.createdAt DESC")
     Page<Like> findUserLikeTimeline(@Param("user") User user, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * 按文章作者汇总收到的点赞数（用于用户统计对账，作者ID在 [fromId, toId) 内）
+     * 返回 [作者ID, 点赞数]
+     */
+    @Query("SELECT l.article.author.id, COUNT(l) FROM Like l WHERE l.type = 'LIKE' " +
+            "AND l.article.author.id >= :fromId AND l.article.author.id < :toId GROUP BY l.article.author.id")
+    List<Object[]> countLikesReceivedGroupByAuthor(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * 统计指定作者收到的点赞数
+     */
+    @Query("SELECT COUNT(l) FROM Like l WHERE l.article.author.id = :authorId AND l.type = 'LIKE'")
+    long countLikesReceivedByAuthorId(@Param("authorId") Long authorId);
+}
@@ -0,0 +1,45 @@
+package com.blog.repository;
+
+import com.blog.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * 按 ID 顺序读取指定位置之后的事件
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id > :afterId ORDER BY e.id ASC")
+    List<OutboxEvent> findAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 对ID区间加共享锁（NOWAIT）：区间内有未提交的插入时立即抛出锁冲突异常，
+     * 否则返回其中已提交的事件ID；在 READ COMMITTED 事务中执行，不加间隙锁
+     */
+    @Query(value = "SELECT id FROM outbox_events WHERE id BETWEEN :fromId AND :toId FOR SHARE NOWAIT",
+            nativeQuery = true)
+    List<Long> lockRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * 当前最大事件ID，没有事件时为 0
+     */
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    long findMaxId();
+
+    /**
+     * 删除所有消费者都已处理且超过保留期的事件
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.id <= :processedId AND e.createdAt < :before")
+    int deleteProcessedBefore(@Param("processedId") Long processedId, @Param("before") LocalDateTime before);
+}
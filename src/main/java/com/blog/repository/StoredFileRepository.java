@@ -0,0 +1,62 @@
+package com.blog.repository;
+
+import com.blog.entity.StoredFile;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+
+    /**
+     * 增加引用（行不存在时插入）
+     *
+     * 使用独立事务立即提交：外层事务回滚只会多留一个引用，不会让正在使用的文件被回收
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "stored_files"))
+    @Query(value = "INSERT INTO stored_files (object_name, sha256, size, content_type, ref_count, created_at, updated_at) " +
+            "VALUES (:objectName, :sha256, :size, :contentType, 1, NOW(), NOW()) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, updated_at = NOW()",
+            nativeQuery = true)
+    void incrementRef(@Param("objectName") String objectName,
+                      @Param("sha256") String sha256,
+                      @Param("size") long size,
+                      @Param("contentType") String contentType);
+
+    /**
+     * 减少引用（随业务事务提交或回滚）
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "stored_files"))
+    @Query(value = "UPDATE stored_files SET ref_count = ref_count - 1, updated_at = NOW() " +
+            "WHERE object_name = :objectName AND ref_count > 0",
+            nativeQuery = true)
+    int decrementRef(@Param("objectName") String objectName);
+
+    /**
+     * 查询引用已归零且超过宽限期的文件
+     */
+    @Query("SELECT f.objectName FROM StoredFile f WHERE f.refCount = 0 AND f.updatedAt < :before")
+    List<String> findUnreferencedBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    /**
+     * 删除仍未被引用的记录，返回删除行数
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StoredFile f WHERE f.objectName = :objectName AND f.refCount = 0")
+    int deleteIfUnreferenced(@Param("objectName") String objectName);
+}
@@ -1,28 +1,72 @@
 package com.blog.repository;
 
 import com.blog.entity.Tag;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TagRepository extends JpaRepository<Tag, Long> {
+public interface TagRepository extends JpaRepository<Tag, Long>, TagRepositoryCustom {
 
     /**
-     * 根据名称查找标签
+     * 根据名称查找标签（查询缓存）
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "tag-queries")
+    })
     Optional<Tag> findByName(String name);
 
     /**
-     * 根据名称列表查找标签
+     * 根据名称列表查找标签（查询缓存）
      */
-    List<Tag> findByNameIn(List<String> names);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "tag-queries")
+    })
+    List<Tag> findByNameIn(Collection<String> names);
+
+    /**
+     * 批量调整使用次数（一条语句更新同一增量的所有标签）
+     */
+    @Modifying
+    @Query("UPDATE Tag t SET t.usageCount = CASE WHEN t.usageCount + :delta < 0 THEN 0 " +
+            "ELSE t.usageCount + :delta END WHERE t.id IN :ids")
+    int adjustUsageCount(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+
+    /**
+     * 按 article_tags 重新计算所有标签的使用次数
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tags"))
+    @Query(value = "UPDATE tags t SET t.usage_count = " +
+            "(SELECT COUNT(*) FROM article_tags at WHERE at.tag_id = t.id)",
+            nativeQuery = true)
+    int recalculateUsageCounts();
+
+    /**
+     * 统计每个标签的已发布文章数（包含没有文章的标签），用于构建标签目录
+     * 返回 [id, name, articleCount]
+     */
+    @Query(value = "SELECT t.id, t.name, COUNT(a.id) FROM tags t " +
+            "LEFT JOIN article_tags at ON at.tag_id = t.id " +
+            "LEFT JOIN articles a ON a.id = at.article_id AND a.status = 'PUBLISHED' " +
+            "GROUP BY t.id, t.name",
+            nativeQuery = true)
+    List<Object[]> findPublishedArticleCounts();
 
     /**
      * 检查标签名称是否存在
@@ -35,8 +79,12 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
     List<Tag> findByNameContaining(String name);
 
     /**
-     * 查找热门标签（按使用次数排序）
+     * 查找热门标签（按使用次数排序，查询缓存）
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "popular-tags")
+    })
     @Query("SELECT t FROM Tag t ORDER BY t.usageCount DESC")
     List<Tag> findPopularTags(Pageable pageable);
 
@@ -94,8 +142,12 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
     List<Tag> findByDescriptionContaining(@Param("keyword") String keyword);
 
     /**
-     * 查找所有标签名称
+     * 查找所有标签名称（查询缓存）
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "tag-queries")
+    })
     @Query("SELECT t.name FROM Tag t")
     List<String> findAllTagNames();
 
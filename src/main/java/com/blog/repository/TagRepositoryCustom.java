@@ -0,0 +1,14 @@
+package com.blog.repository;
+
+import java.util.Collection;
+
+/**
+ * 标签仓库扩展（需要动态拼接 SQL 的操作）
+ */
+public interface TagRepositoryCustom {
+
+    /**
+     * 一条多行 INSERT 批量创建标签，已存在的名称忽略
+     */
+    int insertMissing(Collection<String> names);
+}
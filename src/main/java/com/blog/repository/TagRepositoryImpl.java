@@ -0,0 +1,37 @@
+package com.blog.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.Collection;
+
+public class TagRepositoryImpl implements TagRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertMissing(Collection<String> names) {
+        if (names.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder("INSERT INTO tags (name, usage_count, created_at) VALUES ");
+        for (int i = 1; i <= names.size(); i++) {
+            sql.append(i > 1 ? ", " : "").append("(?").append(i).append(", 0, NOW())");
+        }
+        // 并发创建同名标签时由唯一约束兜底，不报错
+        sql.append(" ON DUPLICATE KEY UPDATE name = name");
+
+        Query query = entityManager.createNativeQuery(sql.toString())
+                // 只让 tags 相关的二级缓存失效
+                .setHint(HibernateHints.HINT_NATIVE_SPACES, "tags");
+        int position = 1;
+        for (String name : names) {
+            query.setParameter(position++, name);
+        }
+        return query.executeUpdate();
+    }
+}
@@ -0,0 +1,107 @@
+package com.blog.repository;
+
+import com.blog.entity.UserActivity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserActivityRepository extends JpaRepository<UserActivity, Long> {
+
+    /**
+     * 分页查询用户活动（按时间倒序）
+     */
+    Page<UserActivity> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+
+    /**
+     * 查询用户最新的活动（时间线第一页）
+     */
+    @Query("SELECT a FROM UserActivity a WHERE a.userId = :userId ORDER BY a.createdAt DESC, a.id DESC")
+    List<UserActivity> findLatest(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * 键集分页：查询游标之前的活动
+     */
+    @Query("SELECT a FROM UserActivity a WHERE a.userId = :userId AND " +
+            "(a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<UserActivity> findBefore(@Param("userId") Long userId,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") Long id,
+                                  Pageable pageable);
+
+    /**
+     * 删除某条记录产生的活动（取消点赞、删除评论）
+     */
+    @Modifying
+    @Query("DELETE FROM UserActivity a WHERE a.type = :type AND a.sourceId = :sourceId AND a.userId = :userId")
+    void deleteBySource(@Param("userId") Long userId,
+                        @Param("type") UserActivity.ActivityType type,
+                        @Param("sourceId") Long sourceId);
+
+    /**
+     * 删除与文章相关的全部活动（文章被删除）
+     */
+    @Modifying
+    @Query("DELETE FROM UserActivity a WHERE a.targetId = :articleId")
+    void deleteByTargetId(@Param("articleId") Long articleId);
+
+    /**
+     * 文章改名后同步冗余的目标标题
+     */
+    @Modifying
+    @Query("UPDATE UserActivity a SET a.targetTitle = :title WHERE a.targetId = :articleId")
+    int updateTargetTitle(@Param("articleId") Long articleId, @Param("title") String title);
+
+    /**
+     * 活动涉及该文章的用户
+     */
+    @Query("SELECT DISTINCT a.userId FROM UserActivity a WHERE a.targetId = :articleId")
+    List<Long> findUserIdsByTargetId(@Param("articleId") Long articleId);
+
+    /**
+     * 从文章表回填活动（ID 从 firstId 起连续分配，最多 limit 行）
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_activity"))
+    @Query(value = "INSERT INTO user_activity (id, user_id, type, target_id, target_title, source_id, created_at) " +
+            "SELECT :firstId + ROW_NUMBER() OVER (ORDER BY a.id) - 1, " +
+            "a.user_id, 'ARTICLE_CREATED', a.id, a.title, a.id, a.created_at FROM articles a " +
+            "ORDER BY a.id LIMIT :limit",
+            nativeQuery = true)
+    int backfillArticles(@Param("firstId") long firstId, @Param("limit") int limit);
+
+    /**
+     * 从评论表回填活动（ID 从 firstId 起连续分配，最多 limit 行）
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_activity"))
+    @Query(value = "INSERT INTO user_activity (id, user_id, type, target_id, target_title, source_id, created_at) " +
+            "SELECT :firstId + ROW_NUMBER() OVER (ORDER BY c.id) - 1, " +
+            "c.user_id, 'COMMENT_CREATED', a.id, a.title, c.id, c.created_at " +
+            "FROM comments c JOIN articles a ON a.id = c.article_id ORDER BY c.id LIMIT :limit",
+            nativeQuery = true)
+    int backfillComments(@Param("firstId") long firstId, @Param("limit") int limit);
+
+    /**
+     * 从点赞表回填活动（ID 从 firstId 起连续分配，最多 limit 行）
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_activity"))
+    @Query(value = "INSERT INTO user_activity (id, user_id, type, target_id, target_title, source_id, created_at) " +
+            "SELECT :firstId + ROW_NUMBER() OVER (ORDER BY l.id) - 1, " +
+            "l.user_id, 'LIKE_ADDED', a.id, a.title, l.id, l.created_at " +
+            "FROM likes l JOIN articles a ON a.id = l.article_id WHERE l.type = 'LIKE' ORDER BY l.id LIMIT :limit",
+            nativeQuery = true)
+    int backfillLikes(@Param("firstId") long firstId, @Param("limit") int limit);
+}
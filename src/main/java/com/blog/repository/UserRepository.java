@@ -1,10 +1,13 @@
 package com.blog.repository;
 
 import com.blog.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,8 +18,12 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
-     * 根据用户名查找用户
+     * 根据用户名查找用户（每个已认证请求都会调用，走查询缓存，用户实体从 user 区域读取）
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-queries")
+    })
     Optional<User> findByUsername(String username);
 
     /**
@@ -77,4 +84,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT u, COUNT(a) as articleCount FROM User u LEFT JOIN u.articles a GROUP BY u")
     List<Object[]> findUsersWithArticleCount();
+
+    /**
+     * 最大用户ID，没有用户时为 0
+     */
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM User u")
+    long findMaxId();
 }
\ No newline at end of file
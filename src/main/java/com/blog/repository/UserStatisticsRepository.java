@@ -0,0 +1,81 @@
+package com.blog.repository;
+
+import com.blog.entity.UserStatistics;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface UserStatisticsRepository extends JpaRepository<UserStatistics, Long> {
+
+    /**
+     * 累加统计增量（行不存在时插入）
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_stats"))
+    @Query(value = "INSERT INTO user_stats (user_id, article_count, likes_received, comments_received, views_received, " +
+            "follower_count, following_count, updated_at) " +
+            "VALUES (:userId, GREATEST(:articles, 0), GREATEST(:likes, 0), GREATEST(:comments, 0), GREATEST(:views, 0), " +
+            "GREATEST(:followers, 0), GREATEST(:following, 0), NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "article_count = GREATEST(article_count + :articles, 0), " +
+            "likes_received = GREATEST(likes_received + :likes, 0), " +
+            "comments_received = GREATEST(comments_received + :comments, 0), " +
+            "views_received = GREATEST(views_received + :views, 0), " +
+            "follower_count = GREATEST(follower_count + :followers, 0), " +
+            "following_count = GREATEST(following_count + :following, 0), " +
+            "updated_at = NOW()",
+            nativeQuery = true)
+    void applyDelta(@Param("userId") Long userId,
+                    @Param("articles") long articles,
+                    @Param("likes") long likes,
+                    @Param("comments") long comments,
+                    @Param("views") long views,
+                    @Param("followers") long followers,
+                    @Param("following") long following);
+
+    /**
+     * 写入对账后的绝对值
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_stats"))
+    @Query(value = "INSERT INTO user_stats (user_id, article_count, likes_received, comments_received, views_received, " +
+            "follower_count, following_count, updated_at) " +
+            "VALUES (:userId, :articles, :likes, :comments, :views, :followers, :following, NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "article_count = :articles, likes_received = :likes, " +
+            "comments_received = :comments, views_received = :views, " +
+            "follower_count = :followers, following_count = :following, updated_at = NOW()",
+            nativeQuery = true)
+    void upsertTotals(@Param("userId") Long userId,
+                      @Param("articles") long articles,
+                      @Param("likes") long likes,
+                      @Param("comments") long comments,
+                      @Param("views") long views,
+                      @Param("followers") long followers,
+                      @Param("following") long following);
+
+    /**
+     * 清零用户ID在 [fromId, toId) 内的统计（对账时先清零，再写入明细表中仍有数据的用户）
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserStatistics s SET s.articleCount = 0, s.likesReceived = 0, " +
+            "s.commentsReceived = 0, s.viewsReceived = 0, s.followerCount = 0, s.followingCount = 0 " +
+            "WHERE s.userId >= :fromId AND s.userId < :toId")
+    void resetRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * 最大用户ID，没有统计行时为 0
+     */
+    @Query("SELECT COALESCE(MAX(s.userId), 0) FROM UserStatistics s")
+    long findMaxUserId();
+}
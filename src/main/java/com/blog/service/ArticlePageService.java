@@ -0,0 +1,300 @@
+package com.blog.service;
+
+import com.blog.entity.Article;
+import com.blog.entity.Tag;
+import com.blog.repository.ArticleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.commonmark.ext.gfm.tables.TablesExtension;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 文章页服务端渲染
+ *
+ * 文章发布或修改后由事件消费者预渲染整页 HTML 写入磁盘（blog.ssr.output-dir），访问时直接读取，
+ * 不加载文章实体、不渲染 Markdown；阅读数、点赞数、评论数在页面中留有占位，输出时按一次计数查询填入。
+ * 内存缓存和页面目录都是节点本地的，事件只在一个节点上触发渲染，因此每个页面记录渲染时文章和作者的更新时间，
+ * 输出前与计数查询一并取回的更新时间比对，不一致时现场重新渲染
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArticlePageService {
+
+    private static final String TEMPLATE = "article/page";
+
+    // 预渲染页面中的计数占位，页面中的文本为 __SSR_{随机数}_{名称}__（见 token）
+    private static final String VIEW_SLOT = "VIEW";
+    private static final String LIKE_SLOT = "LIKE";
+    private static final String COMMENT_SLOT = "COMMENT";
+    private static final String[] SLOTS = {VIEW_SLOT, LIKE_SLOT, COMMENT_SLOT};
+
+    private static final Pattern NONCE = Pattern.compile("[0-9a-f]{32}");
+
+    private static final Parser MARKDOWN_PARSER = Parser.builder()
+            .extensions(List.of(TablesExtension.create()))
+            .build();
+
+    // 原始 HTML 一律转义、危险链接剔除，文章内容无法注入脚本
+    private static final HtmlRenderer MARKDOWN_RENDERER = HtmlRenderer.builder()
+            .extensions(List.of(TablesExtension.create()))
+            .escapeHtml(true)
+            .sanitizeUrls(true)
+            .build();
+
+    private final ArticleRepository articleRepository;
+    private final UserStatsService userStatsService;
+    private final ITemplateEngine templateEngine;
+
+    @Value("${blog.ssr.output-dir:./ssr}")
+    private String outputDir;
+
+    @Value("${blog.ssr.memory-cache-size:1000}")
+    private int memoryCacheSize;
+
+    private Path pageDir;
+
+    // 文章ID -> 已按占位切分的页面，热门文章不必每次读盘
+    private Map<Long, PageTemplate> memoryCache;
+
+    @PostConstruct
+    public void init() throws IOException {
+        pageDir = Paths.get(outputDir).toAbsolutePath().normalize();
+        Files.createDirectories(pageDir);
+        memoryCache = Collections.synchronizedMap(new LinkedHashMap<>(memoryCacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PageTemplate> eldest) {
+                return size() > memoryCacheSize;
+            }
+        });
+    }
+
+    /**
+     * 输出文章页（只对已发布文章），计入一次阅读
+     */
+    @Transactional
+    public Optional<String> serve(String slug) {
+        List<Object[]> rows = articleRepository.findPageCountersBySlug(slug);
+        if (rows.isEmpty() || rows.get(0)[2] != Article.ArticleStatus.PUBLISHED) {
+            return Optional.empty();
+        }
+
+        Object[] row = rows.get(0);
+        Long articleId = (Long) row[0];
+        PageTemplate page = load(articleId, version((LocalDateTime) row[6], (LocalDateTime) row[7]));
+        if (page == null) {
+            return Optional.empty();
+        }
+
+        articleRepository.incrementViewCount(articleId);
+        userStatsService.recordView((Long) row[1]);
+
+        return Optional.of(page.fill(Map.of(
+                VIEW_SLOT, String.valueOf(((Integer) row[3]) + 1),
+                LIKE_SLOT, String.valueOf(row[4]),
+                COMMENT_SLOT, String.valueOf(row[5]))));
+    }
+
+    /**
+     * 重新渲染文章页；文章已删除或未发布时移除页面
+     */
+    @Transactional(readOnly = true)
+    public void render(Long articleId) {
+        Article article = articleRepository.findById(articleId).orElse(null);
+        if (article == null || article.getStatus() != Article.ArticleStatus.PUBLISHED) {
+            remove(articleId);
+            return;
+        }
+        renderPage(article);
+    }
+
+    /**
+     * 移除文章页
+     */
+    public void remove(Long articleId) {
+        memoryCache.remove(articleId);
+        try {
+            Files.deleteIfExists(pagePath(articleId));
+        } catch (IOException e) {
+            log.warn("删除预渲染文章页失败: articleId={}, error={}", articleId, e.getMessage());
+        }
+    }
+
+    /**
+     * 内存 -> 磁盘 -> 现场渲染（事件尚未处理、由其他节点处理或页面目录被清空时）
+     */
+    private PageTemplate load(Long articleId, String version) {
+        PageTemplate page = memoryCache.get(articleId);
+        if (page != null && page.version.equals(version)) {
+            return page;
+        }
+
+        Path path = pagePath(articleId);
+        try {
+            if (Files.isRegularFile(path)) {
+                page = PageTemplate.read(Files.readString(path, StandardCharsets.UTF_8));
+                if (page.version.equals(version)) {
+                    memoryCache.put(articleId, page);
+                    return page;
+                }
+                log.debug("预渲染文章页版本过期，重新渲染: articleId={}", articleId);
+            }
+        } catch (IOException e) {
+            log.warn("读取预渲染文章页失败，重新渲染: articleId={}, error={}", articleId, e.getMessage());
+        }
+
+        return articleRepository.findById(articleId)
+                .map(this::renderPage)
+                .orElse(null);
+    }
+
+    private PageTemplate renderPage(Article article) {
+        Context context = new Context(Locale.SIMPLIFIED_CHINESE);
+        context.setVariable("article", article);
+        context.setVariable("author", article.getAuthor());
+        context.setVariable("description", description(article));
+        context.setVariable("contentHtml", MARKDOWN_RENDERER.render(MARKDOWN_PARSER.parse(article.getContent())));
+        context.setVariable("tags", article.getTags().stream().map(Tag::getName).sorted().collect(Collectors.toList()));
+        // 占位带每次渲染新生成的随机数，文章内容中即使出现形如占位的文本也不会被替换
+        String nonce = UUID.randomUUID().toString().replace("-", "");
+        context.setVariable("viewCount", token(nonce, VIEW_SLOT));
+        context.setVariable("likeCount", token(nonce, LIKE_SLOT));
+        context.setVariable("commentCount", token(nonce, COMMENT_SLOT));
+
+        String html = templateEngine.process(TEMPLATE, context);
+        String version = version(article.getUpdatedAt(), article.getAuthor().getUpdatedAt());
+        PageTemplate page = PageTemplate.parse(version, nonce, html);
+        memoryCache.put(article.getId(), page);
+
+        Path target = pagePath(article.getId());
+        try {
+            Path temp = Files.createTempFile(pageDir, "page-", ".tmp");
+            try {
+                // 首行为版本，第二行为占位随机数，其后为页面
+                Files.writeString(temp, version + "\n" + nonce + "\n" + html, StandardCharsets.UTF_8);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            log.debug("文章页已预渲染: articleId={}, bytes={}", article.getId(), html.length());
+        } catch (IOException e) {
+            // 磁盘写入失败不影响本次输出，下次访问重新渲染
+            log.warn("写入预渲染文章页失败: articleId={}, error={}", article.getId(), e.getMessage());
+        }
+        return page;
+    }
+
+    private String description(Article article) {
+        String text = article.getAiSummary() != null && !article.getAiSummary().isBlank()
+                ? article.getAiSummary() : article.getSummary();
+        return text != null ? text.strip() : "";
+    }
+
+    /**
+     * 页面版本：文章更新时间 + 作者更新时间（页面中含作者名和头像）
+     *
+     * 截断到秒：作者实体来自二级缓存时更新时间保留着写入前的纳秒，与数据库读回的精度不同
+     */
+    private static String version(LocalDateTime articleUpdatedAt, LocalDateTime authorUpdatedAt) {
+        return seconds(articleUpdatedAt) + "|" + seconds(authorUpdatedAt);
+    }
+
+    private static String seconds(LocalDateTime time) {
+        return time != null ? time.truncatedTo(ChronoUnit.SECONDS).toString() : "";
+    }
+
+    private static String token(String nonce, String slot) {
+        return "__SSR_" + nonce + "_" + slot + "__";
+    }
+
+    private Path pagePath(Long articleId) {
+        return pageDir.resolve("article-" + articleId + ".html");
+    }
+
+    /**
+     * 按计数占位切分后的页面：segments[i] 之后接 slots[i]（占位名称）的值
+     */
+    private static final class PageTemplate {
+
+        private final String version;
+        private final List<String> segments;
+        private final List<String> slots;
+
+        private PageTemplate(String version, List<String> segments, List<String> slots) {
+            this.version = version;
+            this.segments = segments;
+            this.slots = slots;
+        }
+
+        /**
+         * 读取磁盘上的页面文件（首行为版本，第二行为占位随机数）
+         */
+        static PageTemplate read(String file) throws IOException {
+            int versionEnd = file.indexOf('\n');
+            int nonceEnd = versionEnd < 0 ? -1 : file.indexOf('\n', versionEnd + 1);
+            String nonce = nonceEnd < 0 ? "" : file.substring(versionEnd + 1, nonceEnd);
+            if (!NONCE.matcher(nonce).matches()) {
+                throw new IOException("页面文件格式错误");
+            }
+            return parse(file.substring(0, versionEnd), nonce, file.substring(nonceEnd + 1));
+        }
+
+        static PageTemplate parse(String version, String nonce, String html) {
+            List<String> segments = new ArrayList<>();
+            List<String> slots = new ArrayList<>();
+            int position = 0;
+            while (true) {
+                int next = -1;
+                String slot = null;
+                for (String candidate : SLOTS) {
+                    int index = html.indexOf(token(nonce, candidate), position);
+                    if (index >= 0 && (next < 0 || index < next)) {
+                        next = index;
+                        slot = candidate;
+                    }
+                }
+                if (slot == null) {
+                    segments.add(html.substring(position));
+                    return new PageTemplate(version, segments, slots);
+                }
+                segments.add(html.substring(position, next));
+                slots.add(slot);
+                position = next + token(nonce, slot).length();
+            }
+        }
+
+        String fill(Map<String, String> values) {
+            StringBuilder html = new StringBuilder(segments.stream().mapToInt(String::length).sum() + 64);
+            for (int i = 0; i < slots.size(); i++) {
+                html.append(segments.get(i)).append(values.get(slots.get(i)));
+            }
+            return html.append(segments.get(segments.size() - 1)).toString();
+        }
+    }
+}
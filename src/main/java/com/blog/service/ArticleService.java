@@ -5,29 +5,48 @@ import com.blog.dto.response.ArticleResponse;
 import com.blog.entity.Article;
 import com.blog.entity.User;
 import com.blog.entity.Tag;
+import com.blog.event.DomainEventPublisher;
+import com.blog.event.EventType;
 import com.blog.exception.BlogException;
+import com.blog.httpcache.ResourceType;
+import com.blog.httpcache.ResourceVersionService;
 import com.blog.repository.ArticleRepository;
-import com.blog.repository.TagRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ArticleService {
 
     private final ArticleRepository articleRepository;
-    private final TagRepository tagRepository;
+    private final TagService tagService;
     private final AIContentService aiContentService;
     private final SlugService slugService;
+    private final UserStatsService userStatsService;
+    private final UserActivityService userActivityService;
+    private final FeedService feedService;
+    private final TagDirectoryService tagDirectoryService;
+    private final DomainEventPublisher domainEventPublisher;
+    private final ResourceVersionService resourceVersionService;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int MAX_SLUG_ATTEMPTS = 5;
 
     /**
      * 获取文章列表（分页）
@@ -35,16 +54,13 @@ public class ArticleService {
     @Transactional(readOnly = true)
     public Page<ArticleResponse> getArticles(Pageable pageable, String tag) {
         Page<Article> articles;
-        System.out.println("=== 开始查询文章 ===");
-        System.out.println("查询状态: DRAFT");
-        System.out.println("分页参数: page=" + pageable.getPageNumber() + ", size=" + pageable.getPageSize());
         if (tag != null && !tag.trim().isEmpty()) {
             articles = articleRepository.findByTagsNameAndStatus(tag, Article.ArticleStatus.DRAFT, pageable);
         } else {
             articles = articleRepository.findByStatus(Article.ArticleStatus.DRAFT, pageable);
         }
-        System.out.println("查询结果数量: " + articles.getNumberOfElements());
-        System.out.println("总文章数: " + articles.getTotalElements());
+        log.debug("查询文章列表: page={}, size={}, tag={}, 结果={}/{}", pageable.getPageNumber(),
+                pageable.getPageSize(), tag, articles.getNumberOfElements(), articles.getTotalElements());
 
         return articles.map(article ->
                 ArticleResponse.fromArticleWithAuthor(article, article.getAuthor()));
@@ -53,35 +69,43 @@ public class ArticleService {
     /**
      * 根据ID获取文章
      */
-    @Transactional(readOnly = true)
+    @Transactional
     public ArticleResponse getArticleById(Long articleId) {
         Article article = articleRepository.findById(articleId)
                 .orElseThrow(() -> new BlogException("文章不存在", HttpStatus.NOT_FOUND));
 
-        // 增加阅读计数
-        article.incrementViewCount();
-        articleRepository.save(article);
+        // 增加阅读计数（直接更新计数列，不经过实体，不覆盖并发修改）
+        articleRepository.incrementViewCount(article.getId());
+        userStatsService.recordView(article.getAuthor().getId());
 
         // 检查当前用户是否点赞（这里需要从安全上下文获取当前用户）
         boolean liked = false; // 默认值，实际应该从安全上下文获取
 
-        return ArticleResponse.fromArticleWithAuthorAndLikeStatus(article, article.getAuthor(), liked);
+        return withCountedView(ArticleResponse.fromArticleWithAuthorAndLikeStatus(article, article.getAuthor(), liked));
     }
 
     /**
      * 根据slug获取文章
      */
-    @Transactional(readOnly = true)
+    @Transactional
     public ArticleResponse getArticleBySlug(String slug) {
         Article article = articleRepository.findBySlug(slug)
                 .orElseThrow(() -> new BlogException("文章不存在", HttpStatus.NOT_FOUND));
 
-        // 增加阅读计数
-        article.incrementViewCount();
-        articleRepository.save(article);
+        // 增加阅读计数（直接更新计数列，不经过实体，不覆盖并发修改）
+        articleRepository.incrementViewCount(article.getId());
+        userStatsService.recordView(article.getAuthor().getId());
 
         boolean liked = false;
-        return ArticleResponse.fromArticleWithAuthorAndLikeStatus(article, article.getAuthor(), liked);
+        return withCountedView(ArticleResponse.fromArticleWithAuthorAndLikeStatus(article, article.getAuthor(), liked));
+    }
+
+    /**
+     * 响应中的阅读数包含本次阅读（实体是计数更新前读取的）
+     */
+    private ArticleResponse withCountedView(ArticleResponse response) {
+        response.setViewCount((response.getViewCount() != null ? response.getViewCount() : 0) + 1);
+        return response;
     }
 
     /* 创建summary */
@@ -108,7 +132,11 @@ public class ArticleService {
 
     /**
      * 创建文章
+     *
+     * slug 不预先检查是否存在，插入时遇到唯一约束冲突则重新分配 slug 并在新事务中重试；
+     * AI 内容在文章事务提交后生成，耗时的外部调用不占用事务（也不让发件箱事件长时间处于未提交状态）
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ArticleResponse createArticle(ArticleRequest request, User author) {
 
         // 1. 校验必要字段
@@ -120,9 +148,30 @@ public class ArticleService {
             throw new IllegalArgumentException("文章内容不能为空");
         }
 
-        // 2. 生成 slug（已支持中文兜底）
-        String slug = slugService.generateSlug(request.getTitle());
+        for (int attempt = 1; ; attempt++) {
+            // 2. 分配 slug（汉字转拼音，Redis 计数器生成后缀）
+            String slug = slugService.generateSlug(request.getTitle());
+            Article article;
+            try {
+                article = transactionTemplate.execute(status -> doCreateArticle(request, author, slug));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_SLUG_ATTEMPTS || !slugService.isSlugConflict(e, slug)) {
+                    throw e;
+                }
+                log.info("slug 冲突，重新分配: slug={}, attempt={}", slug, attempt);
+                continue;
+            }
+
+            // 8. AI 自动生成（可选）
+            if (Boolean.TRUE.equals(request.getGenerateAISummary())
+                    || Boolean.TRUE.equals(request.getGenerateAITags())) {
+                generateAIContent(article);
+            }
+            return ArticleResponse.fromArticleWithAuthor(article, author);
+        }
+    }
 
+    private Article doCreateArticle(ArticleRequest request, User author, String slug) {
         // 3. 生成 summary（取前 100 个字符）
         String summary = generateSummary(request.getSummary(), request.getContent());
 
@@ -134,18 +183,9 @@ public class ArticleService {
         article.setSlug(slug);
         article.setAuthor(author);
 
-        // 5. 处理标签
+        // 5. 处理标签（批量解析，缺失的标签一次性创建）
         if (request.getTags() != null && !request.getTags().isEmpty()) {
-            Set<Tag> tags = request.getTags().stream()
-                    .map(String::trim)
-                    .filter(t -> !t.isEmpty())
-                    .map(tagName ->
-                            tagRepository.findByName(tagName)
-                                    .orElseGet(() -> tagRepository.save(Tag.create(tagName)))
-                    )
-                    .collect(Collectors.toSet());
-
-            article.setTags(tags);
+            article.setTags(tagService.resolveTags(request.getTags()));
         }
 
         // 6. 发布状态
@@ -155,14 +195,14 @@ public class ArticleService {
 
         // 7. 保存文章
         Article savedArticle = articleRepository.save(article);
-
-        // 8. AI 自动生成（可选）
-        if (Boolean.TRUE.equals(request.getGenerateAISummary())
-                || Boolean.TRUE.equals(request.getGenerateAITags())) {
-            generateAIContent(savedArticle);
+        tagService.incrementUsage(savedArticle.getTags());
+        userStatsService.recordArticles(author.getId(), 1);
+        userActivityService.recordArticleCreated(author.getId(), savedArticle);
+        if (savedArticle.getStatus() == Article.ArticleStatus.PUBLISHED) {
+            tagDirectoryService.onPublished(savedArticle.getTags());
+            publishEvent(EventType.ARTICLE_PUBLISHED, savedArticle);
         }
-
-        return ArticleResponse.fromArticleWithAuthor(savedArticle, author);
+        return savedArticle;
     }
 
     /**
@@ -178,23 +218,25 @@ public class ArticleService {
         }
 
         // 更新文章内容
+        if (!Objects.equals(article.getTitle(), request.getTitle())) {
+            userActivityService.renameArticle(articleId, request.getTitle());
+        }
         article.setTitle(request.getTitle());
         article.setContent(request.getContent());
         article.setSummary(request.getSummary());
 
-        // 更新标签
+        // 更新标签（只对增减的标签调整使用次数）
         if (request.getTags() != null) {
-            Set<Tag> tags = request.getTags().stream()
-                    .map(tagName -> tagRepository.findByName(tagName)
-                            .orElseGet(() -> {
-                                Tag newTag = Tag.create(tagName);
-                                return tagRepository.save(newTag);
-                            }))
-                    .collect(Collectors.toSet());
+            Set<Tag> tags = tagService.resolveTags(request.getTags());
+            tagService.applyChange(article.getTags(), tags);
+            if (article.getStatus() == Article.ArticleStatus.PUBLISHED) {
+                tagDirectoryService.onTagsChanged(article.getTags(), tags);
+            }
             article.setTags(tags);
         }
 
         Article savedArticle = articleRepository.save(article);
+        publishEvent(EventType.ARTICLE_UPDATED, savedArticle);
 
         return ArticleResponse.fromArticleWithAuthor(savedArticle, user);
     }
@@ -211,7 +253,16 @@ public class ArticleService {
             throw new BlogException("没有权限删除此文章", HttpStatus.FORBIDDEN);
         }
 
+        tagService.decrementUsage(article.getTags());
+        if (article.getStatus() == Article.ArticleStatus.PUBLISHED) {
+            tagDirectoryService.onUnpublished(article.getTags());
+        }
         articleRepository.delete(article);
+        publishEvent(EventType.ARTICLE_DELETED, article);
+        userActivityService.removeArticle(articleId);
+        feedService.onArticleRemoved(user.getId(), articleId);
+        userStatsService.recordArticleRemoved(user.getId(),
+                article.getLikeCount(), article.getCommentCount(), article.getViewCount());
     }
 
     /**
@@ -226,8 +277,13 @@ public class ArticleService {
             throw new BlogException("没有权限发布此文章", HttpStatus.FORBIDDEN);
         }
 
+        boolean wasPublished = article.getStatus() == Article.ArticleStatus.PUBLISHED;
         article.publish();
         Article savedArticle = articleRepository.save(article);
+        if (!wasPublished) {
+            tagDirectoryService.onPublished(savedArticle.getTags());
+        }
+        publishEvent(EventType.ARTICLE_PUBLISHED, savedArticle);
 
         return ArticleResponse.fromArticleWithAuthor(savedArticle, user);
     }
@@ -244,8 +300,14 @@ public class ArticleService {
             throw new BlogException("没有权限取消发布此文章", HttpStatus.FORBIDDEN);
         }
 
+        boolean wasPublished = article.getStatus() == Article.ArticleStatus.PUBLISHED;
         article.unpublish();
         Article savedArticle = articleRepository.save(article);
+        feedService.onArticleRemoved(user.getId(), articleId);
+        if (wasPublished) {
+            tagDirectoryService.onUnpublished(savedArticle.getTags());
+        }
+        publishEvent(EventType.ARTICLE_UNPUBLISHED, savedArticle);
 
         return ArticleResponse.fromArticleWithAuthor(savedArticle, user);
     }
@@ -272,27 +334,54 @@ public class ArticleService {
     }
 
     /**
-     * 生成AI内容
+     * 生成AI内容（在事务外调用 AI 服务，结果在单独的短事务中写入）
      */
     private void generateAIContent(Article article) {
         try {
             // 生成AI摘要
             String aiSummary = aiContentService.generateArticleSummary(article.getContent());
-            if (aiSummary != null && !aiSummary.trim().isEmpty()) {
-                article.setAiSummary(aiSummary);
-            }
+            boolean hasSummary = aiSummary != null && !aiSummary.trim().isEmpty();
 
             // 生成AI标签
             Set<String> aiTags = aiContentService.generateTags(article.getContent());
-            if (aiTags != null && !aiTags.isEmpty()) {
+            boolean hasTags = aiTags != null && !aiTags.isEmpty();
+
+            if (!hasSummary && !hasTags) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    articleRepository.findById(article.getId()).ifPresent(current -> {
+                        if (hasSummary) {
+                            current.setAiSummary(aiSummary);
+                        }
+                        if (hasTags) {
+                            current.setAiTags(aiTags);
+                        }
+                        // 摘要会进入文章页和订阅源，已发布时通知消费者重新生成
+                        if (current.getStatus() == Article.ArticleStatus.PUBLISHED) {
+                            publishEvent(EventType.ARTICLE_UPDATED, current);
+                        }
+                    }));
+            if (hasSummary) {
+                article.setAiSummary(aiSummary);
+            }
+            if (hasTags) {
                 article.setAiTags(aiTags);
             }
-
-            articleRepository.save(article);
         } catch (Exception e) {
             // AI服务可能不可用，记录错误但不中断流程
-            // 在实际应用中应该使用日志记录
-            System.err.println("AI内容生成失败: " + e.getMessage());
+            log.warn("AI内容生成失败: articleId={}, error={}", article.getId(), e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 在当前事务中记录文章事件，提交后文章详情和作者主页的 ETag 失效
+     */
+    private void publishEvent(EventType type, Article article) {
+        domainEventPublisher.publish(type, article.getId(), Map.of(
+                "authorId", article.getAuthor().getId(),
+                "status", article.getStatus().name()));
+        resourceVersionService.bump(ResourceType.ARTICLE, article.getId());
+        resourceVersionService.bump(ResourceType.PROFILE, article.getAuthor().getId());
+    }
+}
@@ -5,7 +5,11 @@ import com.blog.dto.response.CommentResponse;
 import com.blog.entity.Article;
 import com.blog.entity.Comment;
 import com.blog.entity.User;
+import com.blog.event.DomainEventPublisher;
+import com.blog.event.EventType;
 import com.blog.exception.BlogException;
+import com.blog.httpcache.ResourceType;
+import com.blog.httpcache.ResourceVersionService;
 import com.blog.repository.ArticleRepository;
 import com.blog.repository.CommentRepository;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +28,10 @@ public class CommentService {
 
     private final CommentRepository commentRepository;
     private final ArticleRepository articleRepository;
+    private final UserStatsService userStatsService;
+    private final UserActivityService userActivityService;
+    private final DomainEventPublisher domainEventPublisher;
+    private final ResourceVersionService resourceVersionService;
 
     /**
      * 获取文章的所有评论
@@ -53,9 +62,12 @@ public class CommentService {
 
         Comment savedComment = commentRepository.save(comment);
 
-        // 更新文章的评论计数
-        article.incrementCommentCount();
-        articleRepository.save(article);
+        // 文章评论计数由事件消费者更新
+        userStatsService.recordComments(article.getAuthor().getId(), 1);
+        userActivityService.recordCommentCreated(user.getId(), article, savedComment.getId());
+        domainEventPublisher.publish(EventType.COMMENT_ADDED, articleId,
+                Map.of("commentId", savedComment.getId(), "userId", user.getId()));
+        resourceVersionService.bump(ResourceType.ARTICLE_COMMENTS, articleId);
 
         return CommentResponse.fromCommentWithAuthor(savedComment, user);
     }
@@ -75,10 +87,13 @@ public class CommentService {
 
         Comment savedReply = commentRepository.save(reply);
 
-        // 更新文章的评论计数
+        // 文章评论计数由事件消费者更新
         Article article = parentComment.getArticle();
-        article.incrementCommentCount();
-        articleRepository.save(article);
+        userStatsService.recordComments(article.getAuthor().getId(), 1);
+        userActivityService.recordCommentCreated(user.getId(), article, savedReply.getId());
+        domainEventPublisher.publish(EventType.COMMENT_ADDED, article.getId(),
+                Map.of("commentId", savedReply.getId(), "userId", user.getId()));
+        resourceVersionService.bump(ResourceType.ARTICLE_COMMENTS, article.getId());
 
         return CommentResponse.fromCommentWithAuthor(savedReply, user);
     }
@@ -96,22 +111,22 @@ public class CommentService {
         }
 
         Article article = comment.getArticle();
+        int removed = 1;
 
         // 如果是父评论，需要同时删除所有回复
         if (comment.isRootComment()) {
-            // 减少评论计数（包括所有回复）
-            int replyCount = comment.getReplies().size();
-            for (int i = 0; i <= replyCount; i++) {
-                article.decrementCommentCount();
+            removed += comment.getReplies().size();
+            for (Comment reply : comment.getReplies()) {
+                userActivityService.removeComment(reply.getUser().getId(), reply.getId());
             }
-            commentRepository.delete(comment);
-        } else {
-            // 如果是回复，只删除当前评论
-            article.decrementCommentCount();
-            commentRepository.delete(comment);
         }
+        commentRepository.delete(comment);
+        userStatsService.recordComments(article.getAuthor().getId(), -removed);
 
-        articleRepository.save(article);
+        userActivityService.removeComment(user.getId(), commentId);
+        domainEventPublisher.publish(EventType.COMMENT_REMOVED, article.getId(),
+                Map.of("commentId", commentId, "userId", user.getId(), "count", removed));
+        resourceVersionService.bump(ResourceType.ARTICLE_COMMENTS, article.getId());
     }
 
     /**
@@ -6,6 +6,7 @@ import com.blog.security.CustomUserDetails;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -14,11 +15,12 @@ import org.springframework.transaction.annotation.Transactional;
 /**
  * 自定义用户详情服务
  * 实现 Spring Security 的 UserDetailsService 接口
+ * 同时实现 UserDetailsPasswordService，登录成功后自动升级过时的密码哈希
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -85,4 +87,20 @@ public class CustomUserDetailsService implements UserDetailsService {
         return CustomUserDetails.create(user);
 //        return user;
     }
-}
\ No newline at end of file
+
+    /**
+     * 升级密码哈希（登录时发现哈希强度或算法过时由 Spring Security 回调）
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + userDetails.getUsername()));
+
+        user.changePassword(newPassword);
+        userRepository.save(user);
+
+        log.info("已升级用户密码哈希: {}", user.getUsername());
+        return CustomUserDetails.create(user);
+    }
+}
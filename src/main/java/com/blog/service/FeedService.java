@@ -0,0 +1,425 @@
+package com.blog.service;
+
+import com.blog.dto.response.ArticleResponse;
+import com.blog.dto.response.CursorPage;
+import com.blog.entity.Article;
+import com.blog.exception.BlogException;
+import com.blog.repository.ArticleRepository;
+import com.blog.repository.FollowRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 关注动态服务
+ *
+ * 普通作者发布文章时写扩散：推送到每个粉丝的收件箱（Redis ZSET，score 为发布时间，按容量截断）；
+ * 粉丝数超过阈值的热门作者改为读扩散：只写自己的发件箱，读取动态时再合并。
+ * 推送由发件箱事件消费者（FeedConsumer）异步执行，不占用发布请求，且只写入已存在的收件箱，缺失的收件箱在读取时从数据库重建。
+ * 读取动态只需一次收件箱范围查询，外加少量热门作者发件箱；分页游标为（发布时间, 文章ID），同一毫秒发布的文章不会丢失
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FeedService {
+
+    private static final String INBOX_PREFIX = "feed:inbox:";
+    private static final String OUTBOX_PREFIX = "feed:outbox:";
+    private static final String POPULAR_AUTHORS_KEY = "feed:popular-authors";
+
+    // 收件箱占位成员：重建后没有任何文章时也让收件箱存在，避免每次读取都重建；score 最小，截断时最先移除
+    private static final String EMPTY_MARKER = "-";
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    /**
+     * 只写入已存在的收件箱：收件箱不存在（尚未建立或已被淘汰）时由读取方从数据库完整重建，
+     * 推送若先建出只含一条的收件箱，重建就不会再发生，更早的动态永久丢失
+     *
+     * KEYS 收件箱 ARGV[1] 容量 ARGV[2..] score、member 交替；返回写入的收件箱数
+     */
+    private static final RedisScript<Long> PUSH_IF_EXISTS_SCRIPT = new DefaultRedisScript<>("""
+            local size = tonumber(ARGV[1])
+            local pushed = 0
+            for _, key in ipairs(KEYS) do
+                if redis.call('EXISTS', key) == 1 then
+                    redis.call('ZADD', key, unpack(ARGV, 2))
+                    redis.call('ZREMRANGEBYRANK', key, 0, -size - 1)
+                    pushed = pushed + 1
+                end
+            end
+            return pushed
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final FollowRepository followRepository;
+    private final ArticleRepository articleRepository;
+
+    @Value("${blog.feed.inbox-size:500}")
+    private int inboxSize;
+
+    @Value("${blog.feed.outbox-size:200}")
+    private int outboxSize;
+
+    @Value("${blog.feed.popular-threshold:5000}")
+    private long popularThreshold;
+
+    @Value("${blog.feed.fan-out-batch-size:1000}")
+    private int fanOutBatchSize;
+
+    /**
+     * 文章已发布：推送到发件箱和粉丝收件箱（由 FeedConsumer 调用，重复推送不影响结果）
+     */
+    public void onArticlePublished(Article article) {
+        try {
+            fanOut(article.getAuthor().getId(), article.getId(), toScore(article.getPublishedAt()));
+        } catch (Exception e) {
+            log.warn("动态推送失败: articleId={}, error={}", article.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 文章删除或取消发布：从发件箱移除，粉丝收件箱中的残留条目在读取时过滤
+     */
+    public void onArticleRemoved(Long authorId, Long articleId) {
+        afterCommit(() -> redisTemplate.opsForZSet().remove(OUTBOX_PREFIX + authorId, articleId.toString()));
+    }
+
+    /**
+     * 关注后把对方最近的文章补进收件箱（热门作者读取时合并，无需补）
+     */
+    public void onFollow(Long followerId, Long followeeId) {
+        afterCommit(() -> {
+            if (isPopular(followeeId)) {
+                return;
+            }
+            Set<ZSetOperations.TypedTuple<String>> recent = recentOutbox(followeeId);
+            if (recent.isEmpty()) {
+                return;
+            }
+            // 收件箱不存在时不补，下次读取重建时会包含对方的文章
+            pushIfExists(List.of(INBOX_PREFIX + followerId), recent);
+        });
+    }
+
+    /**
+     * 取消关注后从收件箱移除对方的文章
+     */
+    public void onUnfollow(Long followerId, Long followeeId) {
+        afterCommit(() -> {
+            Object[] articleIds = recentOutbox(followeeId).stream()
+                    .map(ZSetOperations.TypedTuple::getValue)
+                    .toArray();
+            if (articleIds.length > 0) {
+                redisTemplate.opsForZSet().remove(INBOX_PREFIX + followerId, articleIds);
+            }
+        });
+    }
+
+    /**
+     * 获取关注动态
+     *
+     * @param before 游标 "发布时间毫秒_文章ID"（上一页最后一篇文章），为空表示第一页
+     * @param size   每页数量（1~50）
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleResponse> getFeed(Long userId, String before, int size) {
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Cursor cursor = Cursor.parse(before);
+
+        List<ZSetOperations.TypedTuple<String>> entries;
+        try {
+            entries = readInboxes(userId, cursor, size + 1);
+        } catch (Exception e) {
+            log.warn("读取动态收件箱失败，回退到数据库查询: userId={}, error={}", userId, e.getMessage());
+            return loadFromDatabase(userId, cursor, size);
+        }
+
+        boolean hasNext = entries.size() > size;
+        List<ZSetOperations.TypedTuple<String>> page = hasNext ? entries.subList(0, size) : entries;
+
+        List<Long> articleIds = page.stream()
+                .map(tuple -> Long.valueOf(tuple.getValue()))
+                .collect(Collectors.toList());
+        Map<Long, Article> articles = articleRepository.findAllById(articleIds).stream()
+                .collect(Collectors.toMap(Article::getId, Function.identity()));
+
+        // 保持收件箱顺序，跳过已删除或已取消发布的文章
+        List<ArticleResponse> content = articleIds.stream()
+                .map(articles::get)
+                .filter(article -> article != null && article.getStatus() == Article.ArticleStatus.PUBLISHED)
+                .map(article -> ArticleResponse.fromArticleWithAuthor(article, article.getAuthor()))
+                .collect(Collectors.toList());
+
+        ZSetOperations.TypedTuple<String> last = page.isEmpty() ? null : page.get(page.size() - 1);
+        String nextCursor = hasNext
+                ? new Cursor(last.getScore().longValue(), Long.parseLong(last.getValue())).toString()
+                : null;
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
+    /**
+     * 合并自己的收件箱与关注的热门作者发件箱，按（发布时间, 文章ID）倒序取游标之后的前 limit 条
+     */
+    private List<ZSetOperations.TypedTuple<String>> readInboxes(Long userId, Cursor cursor, int limit) {
+        String inbox = INBOX_PREFIX + userId;
+        if (Boolean.FALSE.equals(redisTemplate.hasKey(inbox))) {
+            rebuildInbox(userId);
+        }
+
+        Map<String, ZSetOperations.TypedTuple<String>> merged = new LinkedHashMap<>();
+        readAfter(merged, inbox, cursor, limit);
+
+        Set<String> popularAuthors = redisTemplate.opsForSet().members(POPULAR_AUTHORS_KEY);
+        if (popularAuthors != null && !popularAuthors.isEmpty()) {
+            List<Long> authorIds = popularAuthors.stream().map(Long::valueOf).collect(Collectors.toList());
+            for (Long authorId : followRepository.findFolloweeIdsIn(userId, authorIds)) {
+                readAfter(merged, OUTBOX_PREFIX + authorId, cursor, limit);
+            }
+        }
+
+        return merged.values().stream()
+                .sorted(Comparator.comparing(ZSetOperations.TypedTuple<String>::getScore)
+                        .thenComparing(tuple -> Long.parseLong(tuple.getValue()))
+                        .reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 读取一个 ZSET 中排在游标之后的条目：与游标同一毫秒、ID 更小的条目，加上更早的前 limit 条
+     */
+    private void readAfter(Map<String, ZSetOperations.TypedTuple<String>> merged, String key, Cursor cursor, int limit) {
+        if (cursor == null) {
+            addAll(merged, redisTemplate.opsForZSet()
+                    .reverseRangeByScoreWithScores(key, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0, limit));
+            return;
+        }
+        Set<ZSetOperations.TypedTuple<String>> sameMillis = redisTemplate.opsForZSet()
+                .rangeByScoreWithScores(key, cursor.score, cursor.score);
+        if (sameMillis != null) {
+            addAll(merged, sameMillis.stream()
+                    .filter(tuple -> !EMPTY_MARKER.equals(tuple.getValue())
+                            && Long.parseLong(tuple.getValue()) < cursor.articleId)
+                    .collect(Collectors.toSet()));
+        }
+        // 分数为整数毫秒，score - 1 即严格小于游标时间
+        addAll(merged, redisTemplate.opsForZSet()
+                .reverseRangeByScoreWithScores(key, Double.NEGATIVE_INFINITY, cursor.score - 1, 0, limit));
+    }
+
+    /**
+     * 收件箱不存在时（新用户、Redis 数据丢失）从数据库重建一次；没有文章时写入占位成员
+     */
+    private void rebuildInbox(Long userId) {
+        List<Article> articles = articleRepository.findFollowedPublishedBefore(
+                userId, LocalDateTime.now().plusSeconds(1), PageRequest.of(0, inboxSize));
+
+        Set<ZSetOperations.TypedTuple<String>> tuples = articles.stream()
+                .map(article -> ZSetOperations.TypedTuple.of(article.getId().toString(), toScore(article.getPublishedAt())))
+                .collect(Collectors.toSet());
+        tuples.add(ZSetOperations.TypedTuple.of(EMPTY_MARKER, 0d));
+        redisTemplate.opsForZSet().add(INBOX_PREFIX + userId, tuples);
+    }
+
+    /**
+     * Redis 不可用时按（发布时间, 文章ID）游标查询数据库；同一毫秒内的先后以数据库中的发布时间为准
+     */
+    private CursorPage<ArticleResponse> loadFromDatabase(Long userId, Cursor cursor, int size) {
+        List<Article> articles;
+        if (cursor == null) {
+            articles = articleRepository.findFollowedPublishedBefore(
+                    userId, LocalDateTime.now().plusSeconds(1), PageRequest.of(0, size + 1));
+        } else {
+            Instant millis = Instant.ofEpochMilli(cursor.score);
+            articles = articleRepository.findFollowedPublishedAfterCursor(userId,
+                    LocalDateTime.ofInstant(millis, ZoneId.systemDefault()),
+                    LocalDateTime.ofInstant(millis.plusMillis(1), ZoneId.systemDefault()),
+                    cursor.articleId,
+                    PageRequest.of(0, size + 1));
+        }
+
+        boolean hasNext = articles.size() > size;
+        List<Article> page = hasNext ? articles.subList(0, size) : articles;
+        List<ArticleResponse> content = page.stream()
+                .map(article -> ArticleResponse.fromArticleWithAuthor(article, article.getAuthor()))
+                .collect(Collectors.toList());
+
+        Article last = page.isEmpty() ? null : page.get(page.size() - 1);
+        String nextCursor = hasNext ? new Cursor((long) toScore(last.getPublishedAt()), last.getId()).toString() : null;
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
+    /**
+     * 写扩散：写发件箱，粉丝数未超过阈值时分批推送到粉丝收件箱
+     */
+    private void fanOut(Long authorId, Long articleId, double score) {
+        String member = articleId.toString();
+        String outbox = OUTBOX_PREFIX + authorId;
+        redisTemplate.opsForZSet().add(outbox, member, score);
+        redisTemplate.opsForZSet().removeRange(outbox, 0, -outboxSize - 1);
+
+        long followers = followRepository.countByFolloweeId(authorId);
+        if (followers >= popularThreshold) {
+            redisTemplate.opsForSet().add(POPULAR_AUTHORS_KEY, authorId.toString());
+            log.debug("热门作者改为读扩散: authorId={}, followers={}", authorId, followers);
+            return;
+        }
+        redisTemplate.opsForSet().remove(POPULAR_AUTHORS_KEY, authorId.toString());
+
+        long afterId = 0L;
+        int pushed = 0;
+        while (true) {
+            List<Long> followerIds = followRepository.findFollowerIdsAfter(
+                    authorId, afterId, PageRequest.of(0, fanOutBatchSize));
+            if (followerIds.isEmpty()) {
+                break;
+            }
+
+            List<String> inboxes = followerIds.stream()
+                    .map(followerId -> INBOX_PREFIX + followerId)
+                    .collect(Collectors.toList());
+            pushed += pushIfExists(inboxes, Set.of(ZSetOperations.TypedTuple.of(member, score)));
+            afterId = followerIds.get(followerIds.size() - 1);
+            if (followerIds.size() < fanOutBatchSize) {
+                break;
+            }
+        }
+
+        log.debug("文章已推送到粉丝收件箱: articleId={}, followers={}", articleId, pushed);
+    }
+
+    /**
+     * 一批收件箱一次脚本调用（单机 Redis，多个 key 不要求同槽）
+     */
+    private long pushIfExists(List<String> inboxes, Set<ZSetOperations.TypedTuple<String>> tuples) {
+        List<String> args = new ArrayList<>(tuples.size() * 2 + 1);
+        args.add(String.valueOf(inboxSize));
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            args.add(String.valueOf(tuple.getScore().longValue()));
+            args.add(tuple.getValue());
+        }
+        Long pushed = redisTemplate.execute(PUSH_IF_EXISTS_SCRIPT, inboxes, args.toArray());
+        return pushed != null ? pushed : 0;
+    }
+
+    private boolean isPopular(Long authorId) {
+        return Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(POPULAR_AUTHORS_KEY, authorId.toString()));
+    }
+
+    private Set<ZSetOperations.TypedTuple<String>> recentOutbox(Long authorId) {
+        String outbox = OUTBOX_PREFIX + authorId;
+        Set<ZSetOperations.TypedTuple<String>> recent = redisTemplate.opsForZSet().reverseRangeWithScores(outbox, 0, inboxSize - 1);
+        if (recent != null && !recent.isEmpty()) {
+            return recent;
+        }
+
+        // 发件箱为空时从数据库加载并回写
+        List<Article> articles = articleRepository.findPublishedByAuthorId(authorId, PageRequest.of(0, outboxSize));
+        Set<ZSetOperations.TypedTuple<String>> tuples = articles.stream()
+                .map(article -> ZSetOperations.TypedTuple.of(article.getId().toString(), toScore(article.getPublishedAt())))
+                .collect(Collectors.toSet());
+        if (!tuples.isEmpty()) {
+            redisTemplate.opsForZSet().add(outbox, tuples);
+        }
+        return tuples;
+    }
+
+    private void addAll(Map<String, ZSetOperations.TypedTuple<String>> merged,
+                        Set<ZSetOperations.TypedTuple<String>> tuples) {
+        if (tuples != null) {
+            tuples.stream()
+                    .filter(tuple -> !EMPTY_MARKER.equals(tuple.getValue()))
+                    .forEach(tuple -> merged.putIfAbsent(tuple.getValue(), tuple));
+        }
+    }
+
+    private double toScore(LocalDateTime time) {
+        LocalDateTime value = time != null ? time : LocalDateTime.now();
+        return value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 分页游标 "发布时间毫秒_文章ID"：上一页最后一篇文章的发布时间（毫秒）和ID
+     */
+    static final class Cursor {
+
+        final long score;
+        final long articleId;
+
+        Cursor(long score, long articleId) {
+            this.score = score;
+            this.articleId = articleId;
+        }
+
+        /**
+         * 为空表示第一页；格式不对时 400
+         */
+        static Cursor parse(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            int separator = value.indexOf('_');
+            if (separator < 0) {
+                throw new BlogException("无效的分页游标", HttpStatus.BAD_REQUEST);
+            }
+            try {
+                return new Cursor(Long.parseLong(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                throw new BlogException("无效的分页游标", HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return score + "_" + articleId;
+        }
+    }
+
+    /**
+     * 在事务提交后执行 Redis 写入，回滚的操作不产生推送；Redis 故障只记录日志
+     */
+    private void afterCommit(Runnable action) {
+        Runnable safeAction = () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.warn("动态收件箱更新失败: {}", e.getMessage());
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    safeAction.run();
+                }
+            });
+        } else {
+            safeAction.run();
+        }
+    }
+}
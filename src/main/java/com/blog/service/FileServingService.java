@@ -0,0 +1,327 @@
+package com.blog.service;
+
+import com.blog.exception.BlogException;
+import com.blog.util.FileUploadUtil;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 上传文件下载服务
+ *
+ * 大文件交给 Tomcat sendfile 由内核直接发送；小文件从打开的文件句柄缓存中用 FileChannel.transferTo 输出。
+ * 支持单区间 Range 请求；内容寻址文件使用哈希作为强 ETag，并声明为 immutable 长期缓存；
+ * 图片可通过 ?w= 获取预先生成的缩略图
+ */
+@Slf4j
+@Service
+public class FileServingService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // 内容寻址文件名：64 位 SHA-256 + 扩展名，缩略图再追加 .w{宽度}.jpg/png
+    private static final Pattern CONTENT_ADDRESSED_NAME =
+            Pattern.compile("^([0-9a-f]{64})(\\.[a-z0-9]+)?(\\.w(\\d+)\\.(jpg|png))?$");
+
+    private static final Pattern SINGLE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private final ImageDerivativeService imageDerivativeService;
+    private final Path root;
+    private final long sendfileMinSize;
+    private final OpenFileCache openFiles;
+
+    public FileServingService(ImageDerivativeService imageDerivativeService,
+                              @Value("${blog.file.upload-dir:./uploads}") String uploadDir,
+                              @Value("${blog.file.sendfile-min-size:49152}") long sendfileMinSize,
+                              @Value("${blog.file.fd-cache-size:64}") int fdCacheSize) {
+        this.imageDerivativeService = imageDerivativeService;
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.sendfileMinSize = sendfileMinSize;
+        this.openFiles = new OpenFileCache(fdCacheSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        openFiles.closeAll();
+    }
+
+    /**
+     * 输出 /uploads/ 下的文件
+     *
+     * @param relativePath 相对于上传目录的路径
+     * @param width        期望的图片宽度，为空时返回原图
+     */
+    public void serve(String relativePath, Integer width,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = resolve(relativePath);
+        // 请求了缩略图却回退到原图（尚未生成或原图比请求宽度小）：响应不能长期缓存，否则生成后也取不到缩略图
+        boolean fallback = false;
+        if (width != null && width > 0 && imageDerivativeService.supports(file.getFileName().toString())) {
+            Path original = file;
+            file = imageDerivativeService.resolveVariant(original, width);
+            fallback = file.equals(original);
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attributes.size();
+
+        String fileName = file.getFileName().toString();
+        Matcher contentAddressed = CONTENT_ADDRESSED_NAME.matcher(fileName);
+        boolean immutable = contentAddressed.matches();
+        String etag = immutable
+                ? "\"" + contentAddressed.group(1)
+                        + (contentAddressed.group(4) != null ? "-w" + contentAddressed.group(4) : "") + "\""
+                : "W/\"" + length + "-" + attributes.lastModifiedTime().toMillis() + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, attributes.lastModifiedTime().toMillis());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, fallback
+                ? "public, no-cache"
+                : immutable ? "public, max-age=31536000, immutable" : "public, max-age=3600");
+
+        if (matchesEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(FileUploadUtil.getMimeType(fileName));
+
+        // 解析 Range；If-Range 与当前 ETag 不一致时返回完整内容
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag)) && length > 0) {
+            Matcher matcher = SINGLE_RANGE.matcher(range.trim());
+            if (matcher.matches()) {
+                long[] bounds = parseRange(matcher.group(1), matcher.group(2), length);
+                if (bounds == null) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+            // 多区间请求不常见，按规范可以忽略 Range 返回完整内容
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        // 大文件：由 Tomcat 在请求结束后调用 sendfile，数据不经过 JVM 堆
+        if (count >= sendfileMinSize && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        transfer(file, start, count, response);
+    }
+
+    /**
+     * 从缓存的文件句柄按位置读取并写出（位置读取不修改通道的当前位置，可以并发使用）
+     */
+    private void transfer(Path file, long start, long count, HttpServletResponse response) throws IOException {
+        OpenFileCache.Handle handle = openFiles.acquire(file);
+        try {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = handle.channel().transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        } finally {
+            openFiles.release(handle);
+        }
+    }
+
+    /**
+     * 解析 URL 中的相对路径，拒绝目录穿越和临时目录
+     */
+    private Path resolve(String relativePath) {
+        Path file = root.resolve(relativePath).normalize();
+        if (!file.startsWith(root) || file.startsWith(root.resolve(FileUploadUtil.TEMP_DIR))
+                || !Files.isRegularFile(file)) {
+            throw new BlogException("文件不存在", HttpStatus.NOT_FOUND);
+        }
+        return file;
+    }
+
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals(opaque) || value.equals("W/" + opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 返回 [起始, 结束]（均包含），无法满足时返回 null
+     */
+    static long[] parseRange(String first, String last, long length) {
+        try {
+            if (first.isEmpty()) {
+                // 后缀区间：最后 N 个字节
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                return new long[]{Math.max(0, length - suffix), length - 1};
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 打开的文件句柄缓存（LRU）
+     *
+     * 上传文件写入后不再修改，句柄可以复用；被淘汰的句柄在最后一个使用者释放后关闭
+     */
+    private static class OpenFileCache {
+
+        private final Map<Path, Handle> handles;
+
+        OpenFileCache(int capacity) {
+            this.handles = new LinkedHashMap<>(capacity, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Path, Handle> eldest) {
+                    if (size() > capacity) {
+                        eldest.getValue().evict();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        Handle acquire(Path file) throws IOException {
+            synchronized (this) {
+                Handle handle = handles.get(file);
+                if (handle != null && handle.retain()) {
+                    return handle;
+                }
+            }
+
+            // 在锁外打开文件，避免阻塞其他请求
+            Handle opened = new Handle(FileChannel.open(file, StandardOpenOption.READ));
+            synchronized (this) {
+                Handle existing = handles.get(file);
+                if (existing != null && existing.retain()) {
+                    opened.evict();
+                    opened.closeQuietly();
+                    return existing;
+                }
+                opened.retain();
+                handles.put(file, opened);
+                return opened;
+            }
+        }
+
+        void release(Handle handle) {
+            handle.release();
+        }
+
+        synchronized void closeAll() {
+            handles.values().forEach(Handle::evict);
+            handles.clear();
+        }
+
+        /**
+         * 带引用计数的文件句柄
+         */
+        private static class Handle {
+            private final FileChannel channel;
+            private int refs;
+            private boolean evicted;
+
+            Handle(FileChannel channel) {
+                this.channel = channel;
+            }
+
+            FileChannel channel() {
+                return channel;
+            }
+
+            synchronized boolean retain() {
+                if (evicted) {
+                    return false;
+                }
+                refs++;
+                return true;
+            }
+
+            synchronized void release() {
+                refs--;
+                if (evicted && refs == 0) {
+                    closeQuietly();
+                }
+            }
+
+            synchronized void evict() {
+                evicted = true;
+                if (refs == 0) {
+                    closeQuietly();
+                }
+            }
+
+            void closeQuietly() {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.debug("关闭文件句柄失败: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
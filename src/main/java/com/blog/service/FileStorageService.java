@@ -1,8 +1,14 @@
 package com.blog.service;
 
 import com.blog.exception.BlogException;
+import com.blog.repository.StoredFileRepository;
+import com.blog.util.FileUploadUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -10,37 +16,76 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * 文件存储服务
+ *
+ * 上传内容边写临时文件边计算 SHA-256，完成后原子重命名到 ab/cd/{哈希}{扩展名}，
+ * 扩展名由文件头识别出的类型决定（与原文件名无关），同一内容只对应一个对象；
+ * 内容相同的文件只保存一份，通过 stored_files.ref_count 记录引用，归零后由定时任务回收；
+ * 新写入的图片交给 ImageDerivativeService 在后台生成缩略图
+ */
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class FileStorageService {
 
+    private static final String URL_PREFIX = "/uploads/";
+
+    // 内容寻址文件的访问路径：/uploads/ab/cd/{64位哈希}{扩展名}
+    private static final Pattern CONTENT_ADDRESSED_URL =
+            Pattern.compile("^/uploads/[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64}(\\.[a-z0-9]+)?)$");
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final StoredFileRepository storedFileRepository;
+    private final ImageDerivativeService imageDerivativeService;
+
+    // 同一文件的“增加引用 + 落盘”与“回收”互斥
+    // 锁内有数据库和文件 IO，使用 ReentrantLock 而不是 synchronized，虚拟线程等待时不会占住载体线程
+    private final ReentrantLock[] locks = createLocks();
+
     @Value("${blog.file.upload-dir:./uploads}")
     private String uploadDir;
 
+    @Value("${blog.file.gc-grace-minutes:60}")
+    private long gcGraceMinutes;
+
     /**
-     * 存储文件
+     * 存储文件，返回访问路径
      */
-    public String storeFile(MultipartFile file, String subDirectory) {
+    public String storeFile(MultipartFile file) {
+        Path root = Paths.get(uploadDir);
         try {
-            // 创建上传目录
-            Path uploadPath = Paths.get(uploadDir, subDirectory);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
+            FileUploadUtil.HashedFile hashed = FileUploadUtil.writeToTempWithDigest(
+                    file.getInputStream(), root.resolve(FileUploadUtil.TEMP_DIR));
 
-            // 生成唯一文件名
-            String originalFileName = file.getOriginalFilename();
-            String fileExtension = getFileExtension(originalFileName);
-            String fileName = UUID.randomUUID().toString() + fileExtension;
+            String contentType = FileUploadUtil.sniffContentType(hashed.getTempFile(), file.getContentType());
+            String objectName = hashed.getSha256() + FileUploadUtil.getExtensionForMimeType(contentType);
+            String relativePath = FileUploadUtil.contentAddressedPath(objectName);
 
-            // 保存文件
-            Path filePath = uploadPath.resolve(fileName);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            Path target = root.resolve(relativePath);
+            boolean created;
+            ReentrantLock lock = lockFor(objectName);
+            lock.lock();
+            try {
+                storedFileRepository.incrementRef(objectName, hashed.getSha256(), hashed.getSize(), contentType);
+                created = FileUploadUtil.moveIntoPlace(hashed.getTempFile(), target);
+            } finally {
+                lock.unlock();
+            }
 
-            // 返回文件访问路径
-            return String.format("/uploads/%s/%s", subDirectory, fileName);
+            if (created) {
+                imageDerivativeService.generateAsync(target);
+            } else {
+                log.debug("上传内容已存在，跳过写入: {}", objectName);
+            }
+            return URL_PREFIX + relativePath;
 
         } catch (IOException e) {
             throw new BlogException("文件上传失败: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -48,12 +93,63 @@ public class FileStorageService {
     }
 
     /**
-     * 获取文件扩展名
+     * 释放对文件的引用（随当前事务提交），非内容寻址的旧文件忽略
      */
-    private String getFileExtension(String fileName) {
-        if (fileName == null || !fileName.contains(".")) {
-            return "";
+    public void release(String fileUrl) {
+        if (fileUrl == null) {
+            return;
+        }
+
+        Matcher matcher = CONTENT_ADDRESSED_URL.matcher(fileUrl);
+        if (matcher.matches()) {
+            storedFileRepository.decrementRef(matcher.group(1));
+        }
+    }
+
+    /**
+     * 回收引用已归零的文件和遗留的临时文件
+     */
+    @Scheduled(cron = "${blog.file.gc-cron:0 15 4 * * *}")
+    public void collectGarbage() {
+        Path root = Paths.get(uploadDir);
+        LocalDateTime before = LocalDateTime.now().minusMinutes(gcGraceMinutes);
+
+        int removed = 0;
+        List<String> candidates;
+        do {
+            candidates = storedFileRepository.findUnreferencedBefore(before, PageRequest.of(0, 500));
+            for (String objectName : candidates) {
+                ReentrantLock lock = lockFor(objectName);
+                lock.lock();
+                try {
+                    if (storedFileRepository.deleteIfUnreferenced(objectName) == 0) {
+                        continue;
+                    }
+                    Path original = root.resolve(FileUploadUtil.contentAddressedPath(objectName));
+                    imageDerivativeService.deleteVariants(original);
+                    Files.deleteIfExists(original);
+                    removed++;
+                } catch (IOException e) {
+                    log.warn("删除文件失败: {}, error={}", objectName, e.getMessage());
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } while (candidates.size() == 500);
+
+        FileUploadUtil.cleanupTempFiles(root.resolve(FileUploadUtil.TEMP_DIR), gcGraceMinutes * 60_000);
+        log.info("文件回收完成: 删除 {} 个未引用文件", removed);
+    }
+
+    private ReentrantLock lockFor(String objectName) {
+        return locks[Math.floorMod(objectName.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static ReentrantLock[] createLocks() {
+        ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
         }
-        return fileName.substring(fileName.lastIndexOf("."));
+        return locks;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package com.blog.service;
+
+import com.blog.entity.Follow;
+import com.blog.exception.BlogException;
+import com.blog.repository.FollowRepository;
+import com.blog.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class FollowService {
+
+    private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+    private final UserStatsService userStatsService;
+    private final FeedService feedService;
+
+    /**
+     * 关注用户
+     */
+    public void follow(Long followerId, Long followeeId) {
+        if (followerId.equals(followeeId)) {
+            throw new BlogException("不能关注自己", HttpStatus.BAD_REQUEST);
+        }
+        if (!userRepository.existsById(followeeId)) {
+            throw new BlogException("用户不存在", HttpStatus.NOT_FOUND);
+        }
+        if (followRepository.existsByFollowerIdAndFolloweeId(followerId, followeeId)) {
+            throw new BlogException("您已经关注过该用户", HttpStatus.CONFLICT);
+        }
+
+        followRepository.save(new Follow(followerId, followeeId));
+        userStatsService.recordFollow(followerId, followeeId, 1);
+        feedService.onFollow(followerId, followeeId);
+    }
+
+    /**
+     * 取消关注
+     */
+    public void unfollow(Long followerId, Long followeeId) {
+        if (followRepository.deleteEdge(followerId, followeeId) == 0) {
+            throw new BlogException("您尚未关注该用户", HttpStatus.NOT_FOUND);
+        }
+
+        userStatsService.recordFollow(followerId, followeeId, -1);
+        feedService.onUnfollow(followerId, followeeId);
+    }
+
+    /**
+     * 是否已关注
+     */
+    @Transactional(readOnly = true)
+    public boolean isFollowing(Long followerId, Long followeeId) {
+        return followRepository.existsByFollowerIdAndFolloweeId(followerId, followeeId);
+    }
+}
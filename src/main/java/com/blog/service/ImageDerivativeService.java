@@ -0,0 +1,335 @@
+package com.blog.service;
+
+import com.blog.util.FileUploadUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 图片缩略图服务
+ *
+ * 图片上传后在有界后台线程池中用纯 Java ImageIO 生成固定宽度的缩略图，
+ * 与原图放在同一目录（{原文件名}.w{宽度}.jpg/png），下载时按 ?w= 选择最合适的尺寸
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService {
+
+    // ImageIO 自带解码器支持的格式（GIF 保留动画，不生成缩略图）
+    private static final List<String> SUPPORTED_EXTENSIONS = Arrays.asList(".jpg", ".jpeg", ".png", ".bmp");
+
+    private static final Pattern VARIANT_NAME = Pattern.compile("\\.w(\\d+)\\.(jpg|png)$");
+
+    @Value("${blog.image.widths:64,320,960}")
+    private List<Integer> widths;
+
+    @Value("${blog.image.pool-size:2}")
+    private int poolSize;
+
+    @Value("${blog.image.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${blog.image.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Value("${blog.image.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${blog.image.lookup-cache-size:1024}")
+    private int lookupCacheSize;
+
+    private ThreadPoolExecutor executor;
+
+    // 原图 -> 已生成的缩略图（按宽度排序），避免每次请求都列目录
+    private Map<Path, NavigableMap<Integer, Path>> variantCache;
+
+    // 正在生成或删除缩略图的原图；以及每次失效时递增的代数，列目录前后代数不同说明结果可能已过期
+    private final Set<Path> pendingInvalidation = ConcurrentHashMap.newKeySet();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivative-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        variantCache = Collections.synchronizedMap(new LinkedHashMap<>(lookupCacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, NavigableMap<Integer, Path>> eldest) {
+                return size() > lookupCacheSize;
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 是否为可生成缩略图的图片
+     */
+    public boolean supports(String fileName) {
+        return SUPPORTED_EXTENSIONS.contains(FileUploadUtil.getFileExtension(fileName));
+    }
+
+    /**
+     * 提交缩略图生成任务；队列已满时跳过，下载时回退到原图
+     */
+    public void generateAsync(Path original) {
+        if (!supports(original.getFileName().toString())) {
+            return;
+        }
+        try {
+            executor.execute(() -> generate(original));
+        } catch (RejectedExecutionException e) {
+            log.warn("缩略图队列已满，跳过: {}", original.getFileName());
+        }
+    }
+
+    /**
+     * 选择宽度不小于 requestedWidth 的最小缩略图，没有合适的缩略图时返回原图
+     */
+    public Path resolveVariant(Path original, int requestedWidth) {
+        // 在缓存锁外列目录，避免文件 IO 期间阻塞其他请求（以及虚拟线程占住载体线程）；
+        // 写回缓存时在同一把锁内确认期间没有失效，避免把生成前或生成中途的列表写回去
+        Path key = cacheKey(original);
+        NavigableMap<Integer, Path> variants = variantCache.get(key);
+        if (variants == null) {
+            long generation = invalidations.get();
+            variants = listVariants(original);
+            // 空列表不缓存：缩略图可能还在队列里，生成后下一次请求就能找到
+            if (!variants.isEmpty()) {
+                synchronized (variantCache) {
+                    if (invalidations.get() == generation && !pendingInvalidation.contains(key)) {
+                        variantCache.put(key, variants);
+                    }
+                }
+            }
+        }
+        Map.Entry<Integer, Path> best = variants.ceilingEntry(requestedWidth);
+        if (best != null && Files.isRegularFile(best.getValue())) {
+            return best.getValue();
+        }
+        return original;
+    }
+
+    /**
+     * 删除原图的全部缩略图
+     */
+    public void deleteVariants(Path original) {
+        Path key = cacheKey(original);
+        pendingInvalidation.add(key);
+        try {
+            for (Path variant : listVariants(original).values()) {
+                try {
+                    Files.deleteIfExists(variant);
+                } catch (IOException e) {
+                    log.warn("删除缩略图失败: {}, error={}", variant, e.getMessage());
+                }
+            }
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    private void generate(Path original) {
+        long startedAt = System.currentTimeMillis();
+        Path key = cacheKey(original);
+        pendingInvalidation.add(key);
+        try {
+            BufferedImage source = readWithinLimit(original);
+            if (source == null) {
+                return;
+            }
+
+            boolean alpha = source.getColorModel().hasAlpha();
+            String format = alpha ? "png" : "jpg";
+            int generated = 0;
+
+            BufferedImage current = source;
+            // 从大到小生成，每一级都从上一级缩小，减少重复计算
+            List<Integer> descending = widths.stream()
+                    .filter(width -> width < source.getWidth())
+                    .sorted(Collections.reverseOrder())
+                    .collect(Collectors.toList());
+            for (int width : descending) {
+                current = resize(current, width, alpha);
+                Path target = original.resolveSibling(original.getFileName() + ".w" + width + "." + format);
+                write(current, format, target);
+                generated++;
+            }
+
+            log.debug("缩略图生成完成: {}, 数量={}, 耗时={}ms",
+                    original.getFileName(), generated, System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            log.warn("缩略图生成失败: {}, error={}", original.getFileName(), e.getMessage());
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    /**
+     * 与 resolveVariant 的写回在同一把锁（synchronizedMap 的锁即 map 自身）内递增代数并移除缓存
+     */
+    private void invalidate(Path key) {
+        synchronized (variantCache) {
+            invalidations.incrementAndGet();
+            pendingInvalidation.remove(key);
+            variantCache.remove(key);
+        }
+    }
+
+    /**
+     * 先读取图片尺寸，超过像素上限的图片不解码，防止解压炸弹占满内存
+     */
+    private BufferedImage readWithinLimit(Path original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.info("图片过大，跳过缩略图: {}, pixels={}", original.getFileName(), pixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 逐级减半的双线性缩放，最后一步缩放到目标宽度（质量接近多次采样，开销远小于面积平均）
+     */
+    private BufferedImage resize(BufferedImage source, int targetWidth, boolean alpha) {
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    /**
+     * 写入临时文件后原子重命名，下载方不会读到写了一半的缩略图
+     */
+    private void write(BufferedImage image, String format, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "variant-", ".tmp");
+        try {
+            if ("jpg".equals(format)) {
+                ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                    writer.setOutput(output);
+                    writer.write(null, new IIOImage(image, null, null), param);
+                } finally {
+                    writer.dispose();
+                }
+            } else {
+                ImageIO.write(image, format, temp.toFile());
+            }
+            FileUploadUtil.moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path cacheKey(Path original) {
+        return original.toAbsolutePath().normalize();
+    }
+
+    private NavigableMap<Integer, Path> listVariants(Path original) {
+        NavigableMap<Integer, Path> variants = new TreeMap<>();
+        Path directory = original.getParent();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return variants;
+        }
+
+        String prefix = original.getFileName().toString() + ".w";
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*")) {
+            for (Path candidate : stream) {
+                Matcher matcher = VARIANT_NAME.matcher(candidate.getFileName().toString());
+                if (matcher.find()) {
+                    variants.put(Integer.parseInt(matcher.group(1)), candidate);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("读取缩略图目录失败: {}", e.getMessage());
+        }
+        return variants;
+    }
+}
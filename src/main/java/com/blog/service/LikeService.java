@@ -3,6 +3,8 @@ package com.blog.service;
 import com.blog.entity.Article;
 import com.blog.entity.Like;
 import com.blog.entity.User;
+import com.blog.event.DomainEventPublisher;
+import com.blog.event.EventType;
 import com.blog.exception.BlogException;
 import com.blog.repository.ArticleRepository;
 import com.blog.repository.LikeRepository;
@@ -12,6 +14,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -22,6 +25,9 @@ public class LikeService {
     private final LikeRepository likeRepository;
     private final ArticleRepository articleRepository;
     private final UserRepository userRepository;
+    private final UserStatsService userStatsService;
+    private final UserActivityService userActivityService;
+    private final DomainEventPublisher domainEventPublisher;
 
     /**
      * 点赞文章
@@ -43,6 +49,9 @@ public class LikeService {
                 // 如果之前是点踩，改为点赞
                 like.setType(Like.LikeType.LIKE);
                 likeRepository.save(like);
+                userStatsService.recordLikes(article.getAuthor().getId(), 1);
+                userActivityService.recordLikeAdded(userId, article, like.getId());
+                domainEventPublisher.publish(EventType.LIKE_ADDED, articleId, Map.of("userId", userId));
                 return;
             }
         }
@@ -52,7 +61,10 @@ public class LikeService {
         like.setUser(user);
         like.setArticle(article);
         like.setType(Like.LikeType.LIKE);
-        likeRepository.save(like);
+        Like savedLike = likeRepository.save(like);
+        userStatsService.recordLikes(article.getAuthor().getId(), 1);
+        userActivityService.recordLikeAdded(userId, article, savedLike.getId());
+        domainEventPublisher.publish(EventType.LIKE_ADDED, articleId, Map.of("userId", userId));
     }
 
     /**
@@ -71,6 +83,11 @@ public class LikeService {
 
         // 删除点赞记录
         likeRepository.delete(like);
+        if (like.isLike()) {
+            userStatsService.recordLikes(article.getAuthor().getId(), -1);
+            userActivityService.removeLike(userId, like.getId());
+            domainEventPublisher.publish(EventType.LIKE_REMOVED, articleId, Map.of("userId", userId));
+        }
     }
 
     /**
@@ -0,0 +1,149 @@
+package com.blog.service;
+
+import com.blog.exception.BlogException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 密码哈希服务
+ *
+ * BCrypt 计算是 CPU 密集型操作，统一放到有界线程池中执行，
+ * 队列满时直接返回 503，避免登录洪峰占满 Tomcat 请求线程
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${blog.security.password.pool-size:0}")
+    private int poolSize;
+
+    @Value("${blog.security.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${blog.security.password.max-wait-millis:5000}")
+    private long maxWaitMillis;
+
+    private ThreadPoolExecutor executor;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        Gauge.builder("blog.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("等待执行的密码哈希任务数")
+                .register(meterRegistry);
+        Gauge.builder("blog.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("正在执行的密码哈希任务数")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("blog.password.rejected")
+                .description("因队列已满被拒绝的密码哈希任务数")
+                .register(meterRegistry);
+
+        log.info("密码哈希线程池已启动: threads={}, queueCapacity={}", threads, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 对明文密码进行哈希
+     */
+    public String encode(String rawPassword) {
+        return execute("encode", () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * 校验明文密码与哈希是否匹配
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return execute("matches", () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 在哈希线程池中执行任意包含密码校验的任务（例如 AuthenticationManager.authenticate）
+     *
+     * 任务抛出的运行时异常（如 BadCredentialsException）会原样抛回调用方
+     */
+    public <T> T execute(String operation, Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        Timer queueWait = meterRegistry.timer("blog.password.queue.wait", "operation", operation);
+        Timer hashTime = meterRegistry.timer("blog.password.hash", "operation", operation);
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.get();
+                } finally {
+                    hashTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("密码哈希队列已满，拒绝请求: operation={}", operation);
+            throw new BlogException("服务繁忙，请稍后再试", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("密码哈希等待超时: operation={}, maxWaitMillis={}", operation, maxWaitMillis);
+            throw new BlogException("服务繁忙，请稍后再试", HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BlogException("请求被中断", HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new BlogException("密码处理失败", HttpStatus.INTERNAL_SERVER_ERROR, null, cause);
+        }
+    }
+}
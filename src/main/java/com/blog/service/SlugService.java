@@ -1,18 +1,36 @@
 package com.blog.service;
 
 import com.blog.repository.ArticleRepository;
+import com.blog.util.SlugUtil;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.text.Normalizer;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.regex.Pattern;
 
+/**
+ * Slug 分配服务
+ *
+ * 每个基础 slug 在 Redis 中有一个计数器，一次 INCR 即可得到下一个可用后缀，
+ * 不再逐个探测 existsBySlug；极少数冲突（计数器丢失、并发初始化）由调用方捕获唯一约束异常后重试
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class SlugService {
 
+    private static final String SEQUENCE_PREFIX = "slug:seq:";
+
+    // 给后缀预留空间（slug 列长度 300）
+    private static final int MAX_BASE_LENGTH = 200;
+
     private final ArticleRepository articleRepository;
+    private final RedisTemplate<String, String> redisTemplate;
 
     private static final Pattern NONLATIN = Pattern.compile("[^\\w-]");
     private static final Pattern WHITESPACE = Pattern.compile("[\\s]");
@@ -27,19 +45,47 @@ public class SlugService {
 
         String base = createSlug(title);
 
-        // 如果中文导致 slug 为空
+        // 非拉丁、非中文标题可能导致 slug 为空
         if (base.isBlank()) {
             base = "article";
         }
 
-        String slug = base;
-        int counter = 1;
+        long sequence = nextSequence(base);
+        return sequence == 0 ? base : base + "-" + sequence;
+    }
+
+    /**
+     * 判断唯一约束异常是否由该 slug 冲突引起
+     */
+    public boolean isSlugConflict(DataIntegrityViolationException e, String slug) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains("'" + slug + "'");
+    }
 
-        while (articleRepository.existsBySlug(slug)) {
-            slug = base + "-" + counter++;
+    /**
+     * 分配基础 slug 的下一个序号（0 表示直接使用基础 slug）
+     */
+    private long nextSequence(String base) {
+        String key = SEQUENCE_PREFIX + base;
+        try {
+            Long value = redisTemplate.opsForValue().increment(key);
+            if (value != null && value == 1L) {
+                // 计数器刚创建：跳过数据库中已被占用的序号
+                long taken = articleRepository.findMaxSlugSequence(base);
+                if (taken >= 0) {
+                    value = redisTemplate.opsForValue().increment(key, taken + 1);
+                }
+            }
+            return value != null ? value - 1 : randomSequence();
+        } catch (Exception e) {
+            // Redis 不可用时使用随机后缀，冲突由调用方重试
+            log.warn("slug 计数器不可用，使用随机后缀: base={}, error={}", base, e.getMessage());
+            return randomSequence();
         }
+    }
 
-        return slug;
+    private long randomSequence() {
+        return ThreadLocalRandom.current().nextLong(1_000, 1_000_000);
     }
 
     /**
@@ -50,8 +96,11 @@ public class SlugService {
             throw new IllegalArgumentException("输入不能为空");
         }
 
+        // 汉字转拼音
+        String transliterated = SlugUtil.transliterate(input);
+
         // 转换为小写，移除重音符号
-        String noWhitespace = WHITESPACE.matcher(input).replaceAll("-");
+        String noWhitespace = WHITESPACE.matcher(transliterated).replaceAll("-");
         String normalized = Normalizer.normalize(noWhitespace, Normalizer.Form.NFD);
         String slug = NONLATIN.matcher(normalized).replaceAll("");
 
@@ -61,6 +110,10 @@ public class SlugService {
         // 移除开头和结尾的连字符
         slug = slug.replaceAll("^-|-$", "");
 
+        if (slug.length() > MAX_BASE_LENGTH) {
+            slug = slug.substring(0, MAX_BASE_LENGTH).replaceAll("-$", "");
+        }
+
         return slug.toLowerCase();
     }
-}
\ No newline at end of file
+}
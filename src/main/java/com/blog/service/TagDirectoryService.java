@@ -0,0 +1,260 @@
+package com.blog.service;
+
+import com.blog.dto.response.TagResponse;
+import com.blog.entity.Tag;
+import com.blog.exception.BlogException;
+import com.blog.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 标签目录服务
+ *
+ * 热门标签、标签补全和每个标签的已发布文章数都从内存快照读取，不再对 article_tags 做 GROUP BY；
+ * 文章发布、取消发布、删除和标签变更时在事务提交后增量更新快照，并定期全量重建修正偏差。
+ * 版本号由快照内容计算（供客户端做条件请求）：内容不变的重建不改变版本，内容相同的各节点版本也相同
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TagDirectoryService {
+
+    private static final int MAX_LIMIT = 100;
+
+    // 文章数相同时按名称排序，保证结果稳定
+    private static final Comparator<TagResponse> BY_COUNT_DESC = Comparator
+            .comparingLong(TagResponse::getArticleCount).reversed()
+            .thenComparing(TagResponse::getName);
+
+    private final TagRepository tagRepository;
+
+    private volatile Snapshot snapshot = Snapshot.build(Collections.emptyList());
+
+    /**
+     * 当前快照版本
+     */
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    /**
+     * 热门标签（按已发布文章数降序）
+     */
+    public List<TagResponse> getPopularTags(int limit) {
+        List<TagResponse> popular = snapshot.popular;
+        return popular.subList(0, Math.min(popular.size(), clamp(limit)));
+    }
+
+    /**
+     * 标签补全：名称以 prefix 开头的标签，按已发布文章数降序
+     */
+    public List<TagResponse> suggest(String prefix, int limit) {
+        String normalized = prefix == null ? "" : prefix.trim().toLowerCase();
+        if (normalized.isEmpty()) {
+            return getPopularTags(limit);
+        }
+
+        Snapshot current = snapshot;
+        int index = Arrays.binarySearch(current.sortedNames, normalized);
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        List<TagResponse> matches = new ArrayList<>();
+        for (int i = index; i < current.sortedNames.length && current.sortedNames[i].startsWith(normalized); i++) {
+            matches.add(current.byName.get(current.sortedNames[i]));
+        }
+        matches.sort(BY_COUNT_DESC);
+        return matches.subList(0, Math.min(matches.size(), clamp(limit)));
+    }
+
+    /**
+     * 按名称获取标签
+     */
+    public TagResponse getTag(String name) {
+        TagResponse tag = name == null ? null : snapshot.byName.get(name.trim().toLowerCase());
+        if (tag == null) {
+            throw new BlogException("标签不存在", HttpStatus.NOT_FOUND);
+        }
+        return tag;
+    }
+
+    /**
+     * 文章发布：其标签的文章数 +1
+     */
+    public void onPublished(Collection<Tag> tags) {
+        Map<Long, Integer> deltas = new HashMap<>();
+        Map<Long, String> names = new HashMap<>();
+        collect(tags, 1, deltas, names);
+        afterCommit(deltas, names);
+    }
+
+    /**
+     * 文章取消发布或删除：其标签的文章数 -1
+     */
+    public void onUnpublished(Collection<Tag> tags) {
+        Map<Long, Integer> deltas = new HashMap<>();
+        Map<Long, String> names = new HashMap<>();
+        collect(tags, -1, deltas, names);
+        afterCommit(deltas, names);
+    }
+
+    /**
+     * 已发布文章的标签变更
+     */
+    public void onTagsChanged(Collection<Tag> before, Collection<Tag> after) {
+        Map<Long, Integer> deltas = new HashMap<>();
+        Map<Long, String> names = new HashMap<>();
+        collect(before, -1, deltas, names);
+        collect(after, 1, deltas, names);
+        deltas.values().removeIf(delta -> delta == 0);
+        afterCommit(deltas, names);
+    }
+
+    /**
+     * 从数据库全量重建快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${blog.tags.directory-rebuild-ms:600000}",
+            initialDelayString = "${blog.tags.directory-rebuild-ms:600000}")
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        List<TagResponse> entries = new ArrayList<>();
+        for (Object[] row : tagRepository.findPublishedArticleCounts()) {
+            entries.add(new TagResponse(((Number) row[0]).longValue(), (String) row[1], ((Number) row[2]).longValue()));
+        }
+
+        synchronized (this) {
+            snapshot = Snapshot.build(entries);
+        }
+        log.info("标签目录重建完成: {} 个标签, 耗时={}ms", entries.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    private synchronized void apply(Map<Long, Integer> deltas, Map<Long, String> names) {
+        Snapshot current = snapshot;
+        Map<Long, TagResponse> entries = new HashMap<>(current.byId);
+        deltas.forEach((id, delta) -> {
+            TagResponse existing = entries.get(id);
+            long count = Math.max(0, (existing != null ? existing.getArticleCount() : 0) + delta);
+            String name = existing != null ? existing.getName() : names.get(id);
+            entries.put(id, new TagResponse(id, name, count));
+        });
+        snapshot = Snapshot.build(entries.values());
+    }
+
+    /**
+     * 在事务内取出标签 ID 和名称（提交后实体可能已脱离会话），提交后再更新快照
+     */
+    private void afterCommit(Map<Long, Integer> deltas, Map<Long, String> names) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(deltas, names);
+                }
+            });
+        } else {
+            apply(deltas, names);
+        }
+    }
+
+    private void collect(Collection<Tag> tags, int delta, Map<Long, Integer> deltas, Map<Long, String> names) {
+        if (tags == null) {
+            return;
+        }
+        for (Tag tag : tags) {
+            deltas.merge(tag.getId(), delta, Integer::sum);
+            names.put(tag.getId(), tag.getName());
+        }
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * 不可变快照：按 ID、按名称索引，热门列表和有序名称数组都预先计算好
+     */
+    private static final class Snapshot {
+
+        private final long version;
+        private final Map<Long, TagResponse> byId;
+        private final Map<String, TagResponse> byName;
+        private final List<TagResponse> popular;
+        private final String[] sortedNames;
+
+        private Snapshot(long version, Map<Long, TagResponse> byId, Map<String, TagResponse> byName,
+                         List<TagResponse> popular, String[] sortedNames) {
+            this.version = version;
+            this.byId = byId;
+            this.byName = byName;
+            this.popular = popular;
+            this.sortedNames = sortedNames;
+        }
+
+        static Snapshot build(Collection<TagResponse> entries) {
+            Map<Long, TagResponse> byId = new HashMap<>(entries.size() * 2);
+            Map<String, TagResponse> byName = new HashMap<>(entries.size() * 2);
+            List<TagResponse> popular = new ArrayList<>();
+            for (TagResponse entry : entries) {
+                byId.put(entry.getId(), entry);
+                byName.put(entry.getName(), entry);
+                if (entry.getArticleCount() > 0) {
+                    popular.add(entry);
+                }
+            }
+            popular.sort(BY_COUNT_DESC);
+
+            String[] sortedNames = byName.keySet().toArray(new String[0]);
+            Arrays.sort(sortedNames);
+
+            return new Snapshot(contentVersion(byId),
+                    Collections.unmodifiableMap(byId),
+                    Collections.unmodifiableMap(byName),
+                    Collections.unmodifiableList(popular),
+                    sortedNames);
+        }
+
+        /**
+         * 按 ID 顺序对（ID、名称、文章数）做 64 位 FNV-1a 哈希
+         */
+        private static long contentVersion(Map<Long, TagResponse> byId) {
+            long hash = 0xcbf29ce484222325L;
+            for (TagResponse entry : new TreeMap<>(byId).values()) {
+                hash = mix(hash, entry.getId());
+                hash = mix(hash, entry.getName().hashCode());
+                hash = mix(hash, entry.getArticleCount());
+            }
+            return hash;
+        }
+
+        private static long mix(long hash, long value) {
+            for (int i = 0; i < 8; i++) {
+                hash ^= (value >>> (i * 8)) & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.blog.service;
+
+import com.blog.entity.Tag;
+import com.blog.exception.BlogException;
+import com.blog.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 标签服务
+ *
+ * 文章保存时批量解析标签：名称 -> ID 的内存缓存命中时按主键一次查询，
+ * 否则一次 findByNameIn + 一条多行 INSERT 创建缺失标签；
+ * usage_count 随文章事务按增量批量更新，并定期与 article_tags 对账
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class TagService {
+
+    private static final int MAX_NAME_LENGTH = 50;
+
+    private final TagRepository tagRepository;
+
+    // 标签名 -> ID（标签创建后名称不变，可以长期缓存）
+    private final Map<String, Long> internedIds = new ConcurrentHashMap<>();
+
+    @Value("${blog.tags.intern-cache-size:10000}")
+    private int internCacheSize;
+
+    /**
+     * 将标签名称解析为标签实体，不存在的标签批量创建
+     */
+    public Set<Tag> resolveTags(Collection<String> tagNames) {
+        Set<String> names = normalize(tagNames);
+        if (names.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        // 1. 全部命中缓存：按主键一次查询
+        List<Long> cachedIds = names.stream()
+                .map(internedIds::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (cachedIds.size() == names.size()) {
+            List<Tag> tags = tagRepository.findAllById(cachedIds);
+            if (tags.size() == names.size()) {
+                return new HashSet<>(tags);
+            }
+            // 缓存中有已删除的标签，清理后走名称查询
+            names.forEach(internedIds::remove);
+        }
+
+        // 2. 按名称一次查询
+        Set<Tag> tags = new HashSet<>(tagRepository.findByNameIn(names));
+
+        // 3. 缺失的标签用一条多行 INSERT 创建，再查询一次拿到 ID
+        Set<String> missing = new LinkedHashSet<>(names);
+        tags.forEach(tag -> missing.remove(tag.getName()));
+        if (!missing.isEmpty()) {
+            tagRepository.insertMissing(missing);
+            tags.addAll(tagRepository.findByNameIn(missing));
+        }
+
+        intern(tags);
+        return tags;
+    }
+
+    /**
+     * 标签被文章引用
+     */
+    public void incrementUsage(Collection<Tag> tags) {
+        adjustUsage(tags, 1);
+    }
+
+    /**
+     * 标签不再被文章引用
+     */
+    public void decrementUsage(Collection<Tag> tags) {
+        adjustUsage(tags, -1);
+    }
+
+    /**
+     * 文章标签变更：新增的标签 +1，移除的标签 -1（每个方向一条 UPDATE）
+     */
+    public void applyChange(Collection<Tag> before, Collection<Tag> after) {
+        Set<Long> beforeIds = ids(before);
+        Set<Long> afterIds = ids(after);
+
+        Set<Long> added = new HashSet<>(afterIds);
+        added.removeAll(beforeIds);
+        Set<Long> removed = new HashSet<>(beforeIds);
+        removed.removeAll(afterIds);
+
+        if (!added.isEmpty()) {
+            tagRepository.adjustUsageCount(added, 1);
+        }
+        if (!removed.isEmpty()) {
+            tagRepository.adjustUsageCount(removed, -1);
+        }
+    }
+
+    /**
+     * 按 article_tags 重算使用次数，修正历史数据和异常增量
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${blog.tags.reconcile-cron:0 45 3 * * *}")
+    public void reconcileUsageCounts() {
+        int updated = tagRepository.recalculateUsageCounts();
+        log.info("标签使用次数对账完成: {} 个标签", updated);
+    }
+
+    private void adjustUsage(Collection<Tag> tags, int delta) {
+        Set<Long> tagIds = ids(tags);
+        if (!tagIds.isEmpty()) {
+            tagRepository.adjustUsageCount(tagIds, delta);
+        }
+    }
+
+    private Set<String> normalize(Collection<String> tagNames) {
+        Set<String> names = new LinkedHashSet<>();
+        if (tagNames == null) {
+            return names;
+        }
+        for (String tagName : tagNames) {
+            if (tagName == null) {
+                continue;
+            }
+            String name = tagName.trim().toLowerCase();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (name.length() > MAX_NAME_LENGTH) {
+                throw new BlogException("标签名称不能超过 " + MAX_NAME_LENGTH + " 个字符", HttpStatus.BAD_REQUEST);
+            }
+            names.add(name);
+        }
+        return names;
+    }
+
+    private void intern(Collection<Tag> tags) {
+        if (internedIds.size() + tags.size() > internCacheSize) {
+            internedIds.clear();
+        }
+        tags.forEach(tag -> internedIds.put(tag.getName(), tag.getId()));
+    }
+
+    private Set<Long> ids(Collection<Tag> tags) {
+        if (tags == null) {
+            return new HashSet<>();
+        }
+        return tags.stream().map(Tag::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,269 @@
+package com.blog.service;
+
+import com.blog.dto.response.CursorPage;
+import com.blog.dto.response.UserActivityResponse;
+import com.blog.entity.Article;
+import com.blog.entity.UserActivity;
+import com.blog.exception.BlogException;
+import com.blog.httpcache.ResourceType;
+import com.blog.httpcache.ResourceVersionService;
+import com.blog.idgen.IdBlockService;
+import com.blog.idgen.IdGenerators;
+import com.blog.repository.ArticleRepository;
+import com.blog.repository.CommentRepository;
+import com.blog.repository.LikeRepository;
+import com.blog.repository.UserActivityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * 用户活动服务
+ *
+ * 活动在业务事务中追加写入 user_activity，时间线读取只做一次索引范围扫描
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class UserActivityService {
+
+    // 单页最多返回的活动数
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private static final String BACKFILL_LOCK = "user_activity_backfill";
+
+    private final UserActivityRepository userActivityRepository;
+    private final ResourceVersionService resourceVersionService;
+    private final IdBlockService idBlockService;
+    private final ArticleRepository articleRepository;
+    private final CommentRepository commentRepository;
+    private final LikeRepository likeRepository;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 记录发布文章
+     */
+    public void recordArticleCreated(Long userId, Article article) {
+        userActivityRepository.save(UserActivity.of(userId, UserActivity.ActivityType.ARTICLE_CREATED, article, article.getId()));
+        resourceVersionService.bump(ResourceType.PROFILE, userId);
+    }
+
+    /**
+     * 记录发表评论
+     */
+    public void recordCommentCreated(Long userId, Article article, Long commentId) {
+        userActivityRepository.save(UserActivity.of(userId, UserActivity.ActivityType.COMMENT_CREATED, article, commentId));
+        resourceVersionService.bump(ResourceType.PROFILE, userId);
+    }
+
+    /**
+     * 记录点赞
+     */
+    public void recordLikeAdded(Long userId, Article article, Long likeId) {
+        userActivityRepository.save(UserActivity.of(userId, UserActivity.ActivityType.LIKE_ADDED, article, likeId));
+        resourceVersionService.bump(ResourceType.PROFILE, userId);
+    }
+
+    /**
+     * 撤销评论活动
+     */
+    public void removeComment(Long userId, Long commentId) {
+        userActivityRepository.deleteBySource(userId, UserActivity.ActivityType.COMMENT_CREATED, commentId);
+        resourceVersionService.bump(ResourceType.PROFILE, userId);
+    }
+
+    /**
+     * 撤销点赞活动
+     */
+    public void removeLike(Long userId, Long likeId) {
+        userActivityRepository.deleteBySource(userId, UserActivity.ActivityType.LIKE_ADDED, likeId);
+        resourceVersionService.bump(ResourceType.PROFILE, userId);
+    }
+
+    /**
+     * 文章改名时更新活动中冗余的标题，涉及的用户主页版本号随之更新
+     */
+    public void renameArticle(Long articleId, String title) {
+        if (userActivityRepository.updateTargetTitle(articleId, title) > 0) {
+            resourceVersionService.bumpAll(ResourceType.PROFILE, userActivityRepository.findUserIdsByTargetId(articleId));
+        }
+    }
+
+    /**
+     * 文章删除时清理所有关联活动
+     */
+    public void removeArticle(Long articleId) {
+        userActivityRepository.deleteByTargetId(articleId);
+    }
+
+    /**
+     * 分页获取用户活动
+     */
+    @Transactional(readOnly = true)
+    public Page<UserActivityResponse> getActivities(Long userId, Pageable pageable) {
+        Pageable page = PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_PAGE_SIZE));
+        return userActivityRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, page)
+                .map(this::toResponse);
+    }
+
+    /**
+     * 获取用户最近的活动
+     */
+    @Transactional(readOnly = true)
+    public List<UserActivityResponse> getRecentActivities(Long userId, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return userActivityRepository.findLatest(userId, PageRequest.of(0, size)).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 游标分页获取用户活动（键集分页，翻页深度不影响查询代价）
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserActivityResponse> getActivitiesByCursor(Long userId, String cursor, int size) {
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // 多取一条用于判断是否还有下一页
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<UserActivity> activities;
+        if (cursor == null || cursor.isBlank()) {
+            activities = userActivityRepository.findLatest(userId, limit);
+        } else {
+            Cursor position = decodeCursor(cursor);
+            activities = userActivityRepository.findBefore(userId, position.createdAt, position.id, limit);
+        }
+
+        boolean hasNext = activities.size() > size;
+        List<UserActivity> page = hasNext ? activities.subList(0, size) : activities;
+        String nextCursor = hasNext ? encodeCursor(page.get(page.size() - 1)) : null;
+
+        List<UserActivityResponse> content = page.stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
+    /**
+     * 首次启动时从文章、评论、点赞表回填历史活动
+     *
+     * 多个节点同时启动时只有取得 MySQL 命名锁的节点执行回填，其他节点直接跳过；
+     * 锁挂在单独的主库连接上，回填事务提交后才释放，之后取得锁的节点一定能看到已回填的数据
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillIfEmpty() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!namedLock(connection, "SELECT GET_LOCK(?, 0)")) {
+                log.info("用户活动回填正在其他节点执行，跳过");
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> backfillAll());
+            } finally {
+                namedLock(connection, "SELECT RELEASE_LOCK(?)");
+            }
+        } catch (SQLException e) {
+            log.warn("用户活动回填锁获取失败: {}", e.getMessage());
+        }
+    }
+
+    private void backfillAll() {
+        if (userActivityRepository.count() > 0) {
+            return;
+        }
+
+        int articles = backfill(articleRepository.count(), userActivityRepository::backfillArticles);
+        int comments = backfill(commentRepository.count(), userActivityRepository::backfillComments);
+        int likes = backfill(likeRepository.count(), userActivityRepository::backfillLikes);
+        log.info("用户活动回填完成: articles={}, comments={}, likes={}", articles, comments, likes);
+    }
+
+    private boolean namedLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, BACKFILL_LOCK);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getInt(1) == 1;
+            }
+        }
+    }
+
+    /**
+     * 按来源表行数预留一段活动ID后回填，插入行数不超过预留数
+     */
+    private int backfill(long sourceRows, BiFunction<Long, Integer, Integer> insert) {
+        if (sourceRows == 0) {
+            return 0;
+        }
+        int limit = Math.toIntExact(sourceRows);
+        return insert.apply(idBlockService.reserve(IdGenerators.USER_ACTIVITY, limit), limit);
+    }
+
+    private UserActivityResponse toResponse(UserActivity activity) {
+        switch (activity.getType()) {
+            case COMMENT_CREATED:
+                return UserActivityResponse.commentCreated(
+                        activity.getTargetId(), activity.getTargetTitle(), activity.getCreatedAt());
+            case LIKE_ADDED:
+                return UserActivityResponse.likeAdded(
+                        activity.getTargetId(), activity.getTargetTitle(), activity.getCreatedAt());
+            case ARTICLE_CREATED:
+            default:
+                return UserActivityResponse.articleCreated(
+                        activity.getTargetId(), activity.getTargetTitle(), activity.getCreatedAt());
+        }
+    }
+
+    /**
+     * 游标格式：Base64(创建时间|活动ID)
+     */
+    private String encodeCursor(UserActivity activity) {
+        String raw = activity.getCreatedAt() + "|" + activity.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BlogException("无效的分页游标", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static class Cursor {
+        private final LocalDateTime createdAt;
+        private final Long id;
+
+        Cursor(LocalDateTime createdAt, Long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+    }
+}
@@ -7,6 +7,8 @@ import com.blog.dto.response.ArticleResponse;
 import com.blog.dto.response.UserResponse;
 import com.blog.entity.User;
 import com.blog.exception.BlogException;
+import com.blog.httpcache.ResourceType;
+import com.blog.httpcache.ResourceVersionService;
 import com.blog.repository.ArticleRepository;
 import com.blog.repository.CommentRepository;
 import com.blog.repository.LikeRepository;
@@ -15,7 +17,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -32,8 +33,9 @@ public class UserService {
     private final ArticleRepository articleRepository;
     private final CommentRepository commentRepository;
     private final LikeRepository likeRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final FileStorageService fileStorageService;
+    private final ResourceVersionService resourceVersionService;
 
     /**
      * 用户注册
@@ -53,7 +55,7 @@ public class UserService {
         User user = new User();
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         user.setBio(request.getBio());
 
         return userRepository.save(user);
@@ -77,6 +79,15 @@ public class UserService {
                 .orElseThrow(() -> new BlogException("用户不存在", HttpStatus.NOT_FOUND));
     }
 
+    /**
+     * 用户资料嵌在个人主页、其文章详情和其评论所在的评论列表中，资料变化时这些资源的版本都要失效
+     */
+    private void bumpAuthoredResources(Long userId) {
+        resourceVersionService.bump(ResourceType.PROFILE, userId);
+        resourceVersionService.bumpAll(ResourceType.ARTICLE, articleRepository.findIdsByAuthorId(userId));
+        resourceVersionService.bumpAll(ResourceType.ARTICLE_COMMENTS, commentRepository.findArticleIdsByUserId(userId));
+    }
+
     /**
      * 根据邮箱获取用户
      */
@@ -108,6 +119,7 @@ public class UserService {
 
         user.updateProfile(request.getUsername(), request.getEmail(), request.getBio(), null);
         User savedUser = userRepository.save(user);
+        bumpAuthoredResources(userId);
 
         return UserResponse.fromUser(savedUser);
     }
@@ -128,12 +140,14 @@ public class UserService {
 
         User user = getUserById(userId);
 
-        // 上传文件
-        String avatarUrl = fileStorageService.storeFile(file, "avatars");
+        // 上传文件（相同内容只保存一份）
+        String avatarUrl = fileStorageService.storeFile(file);
 
-        // 更新用户头像
+        // 更新用户头像，释放旧头像的引用
+        fileStorageService.release(user.getAvatarUrl());
         user.setAvatarUrl(avatarUrl);
         User savedUser = userRepository.save(user);
+        bumpAuthoredResources(userId);
 
         return UserResponse.fromUser(savedUser);
     }
@@ -145,7 +159,7 @@ public class UserService {
         User user = getUserById(userId);
 
         // 验证当前密码
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getCurrentPassword(), user.getPassword())) {
             throw new BlogException("当前密码不正确", HttpStatus.BAD_REQUEST);
         }
 
@@ -155,7 +169,7 @@ public class UserService {
         }
 
         // 更新密码
-        user.changePassword(passwordEncoder.encode(request.getNewPassword()));
+        user.changePassword(passwordHashingService.encode(request.getNewPassword()));
         userRepository.save(user);
     }
 
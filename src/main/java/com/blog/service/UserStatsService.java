@@ -0,0 +1,294 @@
+package com.blog.service;
+
+import com.blog.dto.response.ProfileResponse;
+import com.blog.entity.UserStatistics;
+import com.blog.exception.BlogException;
+import com.blog.httpcache.ResourceType;
+import com.blog.httpcache.ResourceVersionService;
+import com.blog.repository.ArticleRepository;
+import com.blog.repository.CommentRepository;
+import com.blog.repository.FollowRepository;
+import com.blog.repository.LikeRepository;
+import com.blog.repository.UserRepository;
+import com.blog.repository.UserStatisticsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 用户统计服务
+ *
+ * 业务操作提交后把增量记入内存，定时合并为每个用户一条 upsert 写入 user_stats；
+ * 另有每日对账任务按明细表重新计算，修正丢失或重复的增量
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserStatsService {
+
+    private final UserStatisticsRepository userStatisticsRepository;
+    private final UserRepository userRepository;
+    private final ArticleRepository articleRepository;
+    private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
+    private final FollowRepository followRepository;
+    private final ResourceVersionService resourceVersionService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${blog.stats.reconcile-chunk-size:1000}")
+    private int reconcileChunkSize;
+
+    // 待写入的增量，key 为用户ID
+    private final Map<Long, Delta> pendingDeltas = new ConcurrentHashMap<>();
+
+    // 现场计算出、等待落库的汇总行（读路径可能处于只读事务中，不直接写库）
+    private final Map<Long, UserStatistics> pendingRebuilds = new ConcurrentHashMap<>();
+
+    /**
+     * 获取用户统计（主键查询，汇总行不存在时现场计算一次，由定时任务落库）
+     */
+    public ProfileResponse.UserStats getStats(Long userId) {
+        UserStatistics stats = userStatisticsRepository.findById(userId)
+                .orElseGet(() -> rebuildForUser(userId));
+
+        return new ProfileResponse.UserStats(
+                stats.getArticleCount().intValue(),
+                stats.getLikesReceived().intValue(),
+                stats.getCommentsReceived().intValue(),
+                stats.getViewsReceived().intValue(),
+                stats.getFollowerCount().intValue(),
+                stats.getFollowingCount().intValue()
+        );
+    }
+
+    /**
+     * 记录文章数变化
+     */
+    public void recordArticles(Long authorId, long delta) {
+        record(authorId, d -> d.articles += delta);
+    }
+
+    /**
+     * 记录收到的点赞数变化
+     */
+    public void recordLikes(Long authorId, long delta) {
+        record(authorId, d -> d.likes += delta);
+    }
+
+    /**
+     * 记录收到的评论数变化
+     */
+    public void recordComments(Long authorId, long delta) {
+        record(authorId, d -> d.comments += delta);
+    }
+
+    /**
+     * 记录文章浏览
+     */
+    public void recordView(Long authorId) {
+        record(authorId, d -> d.views += 1);
+    }
+
+    /**
+     * 记录关注关系变化（同时更新关注者的关注数和被关注者的粉丝数）
+     */
+    public void recordFollow(Long followerId, Long followeeId, long delta) {
+        record(followerId, d -> d.following += delta);
+        record(followeeId, d -> d.followers += delta);
+    }
+
+    /**
+     * 文章被删除时扣减其带来的全部统计
+     */
+    public void recordArticleRemoved(Long authorId, long likes, long comments, long views) {
+        record(authorId, d -> {
+            d.articles -= 1;
+            d.likes -= likes;
+            d.comments -= comments;
+            d.views -= views;
+        });
+    }
+
+    /**
+     * 将内存中的增量批量写入数据库
+     * 每个用户一条 upsert，单独提交，某个用户写入失败不影响其他用户
+     */
+    @Scheduled(fixedDelayString = "${blog.stats.flush-interval-ms:5000}")
+    public void flushPendingDeltas() {
+        for (Long userId : new ArrayList<>(pendingRebuilds.keySet())) {
+            UserStatistics stats = pendingRebuilds.remove(userId);
+            if (stats != null) {
+                userStatisticsRepository.upsertTotals(userId, stats.getArticleCount(), stats.getLikesReceived(),
+                        stats.getCommentsReceived(), stats.getViewsReceived(),
+                        stats.getFollowerCount(), stats.getFollowingCount());
+            }
+        }
+
+        if (pendingDeltas.isEmpty()) {
+            return;
+        }
+
+        List<Long> userIds = new ArrayList<>(pendingDeltas.keySet());
+        int applied = 0;
+        for (Long userId : userIds) {
+            Delta delta = pendingDeltas.remove(userId);
+            if (delta == null || delta.isEmpty()) {
+                continue;
+            }
+            try {
+                userStatisticsRepository.applyDelta(userId, delta.articles, delta.likes, delta.comments, delta.views,
+                        delta.followers, delta.following);
+                // 主页统计按写入周期更新，阅读数较多的作者 ETag 最多每个周期变化一次
+                resourceVersionService.bump(ResourceType.PROFILE, userId);
+                applied++;
+            } catch (Exception e) {
+                // 写入失败时放回队列，下一轮重试
+                merge(userId, delta);
+                log.warn("用户统计增量写入失败: userId={}, error={}", userId, e.getMessage());
+            }
+        }
+
+        log.debug("用户统计增量已写入: {} 个用户", applied);
+    }
+
+    /**
+     * 按明细表全量对账：按用户ID区间分块，每块一个事务，不长时间持有大量行锁
+     */
+    @Scheduled(cron = "${blog.stats.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        flushPendingDeltas();
+
+        long maxUserId = Math.max(userRepository.findMaxId(), userStatisticsRepository.findMaxUserId());
+        long users = 0;
+        for (long fromId = 1; fromId <= maxUserId; fromId += reconcileChunkSize) {
+            long chunkFrom = fromId;
+            long chunkTo = fromId + reconcileChunkSize;
+            Integer reconciled = transactionTemplate.execute(status -> reconcileRange(chunkFrom, chunkTo));
+            users += reconciled != null ? reconciled : 0;
+        }
+
+        log.info("用户统计对账完成: {} 个用户", users);
+    }
+
+    /**
+     * 对账用户ID在 [fromId, toId) 内的统计，返回有明细数据的用户数
+     */
+    private int reconcileRange(long fromId, long toId) {
+        Map<Long, long[]> totals = new HashMap<>();
+        for (Object[] row : articleRepository.aggregateStatsGroupByAuthor(fromId, toId)) {
+            long[] t = totals.computeIfAbsent((Long) row[0], id -> new long[6]);
+            t[0] = ((Number) row[1]).longValue();
+            t[3] = ((Number) row[2]).longValue();
+        }
+        for (Object[] row : likeRepository.countLikesReceivedGroupByAuthor(fromId, toId)) {
+            totals.computeIfAbsent((Long) row[0], id -> new long[6])[1] = ((Number) row[1]).longValue();
+        }
+        for (Object[] row : commentRepository.countCommentsReceivedGroupByAuthor(fromId, toId)) {
+            totals.computeIfAbsent((Long) row[0], id -> new long[6])[2] = ((Number) row[1]).longValue();
+        }
+        for (Object[] row : followRepository.countFollowersGroupByUser(fromId, toId)) {
+            totals.computeIfAbsent((Long) row[0], id -> new long[6])[4] = ((Number) row[1]).longValue();
+        }
+        for (Object[] row : followRepository.countFollowingGroupByUser(fromId, toId)) {
+            totals.computeIfAbsent((Long) row[0], id -> new long[6])[5] = ((Number) row[1]).longValue();
+        }
+
+        userStatisticsRepository.resetRange(fromId, toId);
+        totals.forEach((userId, t) -> userStatisticsRepository.upsertTotals(userId, t[0], t[1], t[2], t[3], t[4], t[5]));
+        return totals.size();
+    }
+
+    /**
+     * 现场计算单个用户的统计，并登记到下一轮写入
+     *
+     * 增量在事务提交后才登记，此时明细表中已经包含对应的修改，计算出的总数也就包含了尚未写入的增量；
+     * 读明细之前先丢弃该用户的待写入增量，之后登记的增量（读之后提交的修改）在写入总数后照常叠加
+     */
+    private UserStatistics rebuildForUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new BlogException("用户不存在", HttpStatus.NOT_FOUND);
+        }
+
+        pendingDeltas.remove(userId);
+        UserStatistics stats = new UserStatistics(userId);
+        List<Object[]> articleStats = articleRepository.aggregateStatsByAuthorId(userId);
+        if (!articleStats.isEmpty()) {
+            stats.setArticleCount(((Number) articleStats.get(0)[0]).longValue());
+            stats.setViewsReceived(((Number) articleStats.get(0)[1]).longValue());
+        }
+        stats.setLikesReceived(likeRepository.countLikesReceivedByAuthorId(userId));
+        stats.setCommentsReceived(commentRepository.countCommentsReceivedByAuthorId(userId));
+        stats.setFollowerCount(followRepository.countByFolloweeId(userId));
+        stats.setFollowingCount(followRepository.countByFollowerId(userId));
+
+        pendingRebuilds.put(userId, stats);
+        return stats;
+    }
+
+    /**
+     * 在事务提交后记录增量，回滚的操作不计入统计
+     */
+    private void record(Long userId, Consumer<Delta> change) {
+        if (userId == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pendingDeltas.compute(userId, (id, d) -> apply(d, change));
+                }
+            });
+        } else {
+            pendingDeltas.compute(userId, (id, d) -> apply(d, change));
+        }
+    }
+
+    private Delta apply(Delta delta, Consumer<Delta> change) {
+        Delta target = delta != null ? delta : new Delta();
+        change.accept(target);
+        return target;
+    }
+
+    private void merge(Long userId, Delta failed) {
+        pendingDeltas.compute(userId, (id, d) -> apply(d, target -> {
+            target.articles += failed.articles;
+            target.likes += failed.likes;
+            target.comments += failed.comments;
+            target.views += failed.views;
+            target.followers += failed.followers;
+            target.following += failed.following;
+        }));
+    }
+
+    /**
+     * 单个用户的待写入增量（只在 ConcurrentHashMap.compute 内部修改）
+     */
+    private static class Delta {
+        long articles;
+        long likes;
+        long comments;
+        long views;
+        long followers;
+        long following;
+
+        boolean isEmpty() {
+            return articles == 0 && likes == 0 && comments == 0 && views == 0
+                    && followers == 0 && following == 0;
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.blog.syndication;
+
+import com.blog.entity.Article;
+import com.blog.entity.Tag;
+import com.blog.exception.BlogException;
+import com.blog.repository.ArticleRepository;
+import com.blog.repository.TagRepository;
+import com.blog.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Atom 订阅源（全站、作者、标签）
+ *
+ * 每篇文章的 entry 片段只在发布、修改时渲染一次并保存在 Redis；每个订阅源在 Redis 中只保存最新文章ID（ZSET）
+ * 和更新时间。发布、修改时增量加入相关订阅源，取消发布、删除时让相关订阅源失效、下次访问从数据库重建。
+ * 输出订阅源只是拼接已渲染的片段，不加载文章正文
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AtomFeedService {
+
+    private static final String ATOM_NAMESPACE = "http://www.w3.org/2005/Atom";
+
+    private static final String META_PREFIX = "feed:meta:";
+    private static final String INDEX_PREFIX = "feed:index:";
+    private static final String ENTRY_PREFIX = "feed:entry:";
+    private static final String MEMBERSHIP_PREFIX = "feed:memberships:";
+
+    private static final XMLOutputFactory XML_OUTPUT = XMLOutputFactory.newFactory();
+
+    private final ArticleRepository articleRepository;
+    private final UserRepository userRepository;
+    private final TagRepository tagRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @Value("${blog.site.base-url:http://localhost:8080}")
+    private String baseUrl;
+
+    @Value("${blog.site.title:${app.name:个人博客}}")
+    private String siteTitle;
+
+    @Value("${blog.feeds.size:20}")
+    private int feedSize;
+
+    @Value("${blog.feeds.ttl-hours:24}")
+    private long feedTtlHours;
+
+    @Value("${blog.feeds.entry-ttl-days:30}")
+    private long entryTtlDays;
+
+    /**
+     * 确认作者或标签存在，标签名换成数据库中的写法（大小写不同的请求共用一个订阅源）；
+     * 不存在时直接 404，不在 Redis 中留下订阅源。用户和标签查询都走二级缓存
+     */
+    public FeedKey resolve(FeedKey feed) {
+        if (feed.getAuthorId() != null) {
+            return userRepository.findById(feed.getAuthorId())
+                    .map(user -> feed)
+                    .orElseThrow(() -> new BlogException("作者不存在", HttpStatus.NOT_FOUND));
+        }
+        if (feed.getTagName() != null) {
+            return tagRepository.findByName(feed.getTagName())
+                    .map(tag -> FeedKey.tag(tag.getName()))
+                    .orElseThrow(() -> new BlogException("标签不存在", HttpStatus.NOT_FOUND));
+        }
+        return feed;
+    }
+
+    /**
+     * 订阅源最后更新时间（毫秒），尚未建立时现场重建；Redis 不可用时返回 -1
+     */
+    public long lastModified(FeedKey feed) {
+        try {
+            Object updated = redisTemplate.opsForHash().get(META_PREFIX + feed.getKey(), "updated");
+            return updated != null ? Long.parseLong(updated.toString()) : rebuild(feed);
+        } catch (Exception e) {
+            log.warn("读取订阅源失败，直接查询数据库: feed={}, error={}", feed.getKey(), e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * 输出订阅源
+     */
+    public void write(FeedKey feed, long lastModified, Writer out) throws IOException {
+        String title;
+        List<String> entries;
+        if (lastModified >= 0) {
+            Object storedTitle = redisTemplate.opsForHash().get(META_PREFIX + feed.getKey(), "title");
+            title = storedTitle != null ? storedTitle.toString() : titleOf(feed);
+            Set<String> ids = redisTemplate.opsForZSet().reverseRange(INDEX_PREFIX + feed.getKey(), 0, feedSize - 1);
+            entries = loadEntries(ids != null ? ids.stream().map(Long::valueOf).collect(Collectors.toList()) : List.of());
+        } else {
+            title = titleOf(feed);
+            entries = renderEntries(latest(feed).stream().map(row -> (Long) row[0]).collect(Collectors.toList()));
+            lastModified = System.currentTimeMillis();
+        }
+
+        try {
+            XMLStreamWriter xml = XML_OUTPUT.createXMLStreamWriter(out);
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("feed");
+            xml.writeDefaultNamespace(ATOM_NAMESPACE);
+            element(xml, "id", baseUrl + feed.getPath());
+            element(xml, "title", title);
+            element(xml, "updated", format(Instant.ofEpochMilli(lastModified)));
+            link(xml, "self", "application/atom+xml", baseUrl + feed.getPath());
+            link(xml, "alternate", "text/html", baseUrl + "/");
+            // 已渲染的 entry 片段直接写入底层输出
+            xml.writeCharacters("\n");
+            xml.flush();
+            for (String entry : entries) {
+                out.write(entry);
+                out.write('\n');
+            }
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("订阅源输出失败: " + feed.getKey(), e);
+        }
+    }
+
+    /**
+     * 文章发布或修改：重新渲染 entry，加入所属的订阅源，离开不再所属的订阅源（标签变化）
+     */
+    public void onPublished(Article article) {
+        try {
+            Long articleId = article.getId();
+            redisTemplate.opsForValue().set(ENTRY_PREFIX + articleId, renderEntry(article), Duration.ofDays(entryTtlDays));
+
+            Set<String> current = feedsOf(article).stream().map(FeedKey::getKey).collect(Collectors.toSet());
+            Set<String> previous = members(articleId);
+            for (String key : previous) {
+                if (!current.contains(key)) {
+                    invalidate(key);
+                }
+            }
+
+            String updated = String.valueOf(System.currentTimeMillis());
+            double score = toMillis(article.getPublishedAt());
+            for (String key : current) {
+                String metaKey = META_PREFIX + key;
+                // 尚未建立的订阅源在首次访问时整体重建
+                if (Boolean.TRUE.equals(redisTemplate.hasKey(metaKey))) {
+                    redisTemplate.opsForZSet().add(INDEX_PREFIX + key, articleId.toString(), score);
+                    redisTemplate.opsForZSet().removeRange(INDEX_PREFIX + key, 0, -feedSize - 1);
+                    redisTemplate.opsForHash().put(metaKey, "updated", updated);
+                }
+            }
+
+            String membershipKey = MEMBERSHIP_PREFIX + articleId;
+            redisTemplate.delete(membershipKey);
+            redisTemplate.opsForSet().add(membershipKey, current.toArray(new String[0]));
+        } catch (Exception e) {
+            log.warn("订阅源更新失败: articleId={}, error={}", article.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 文章取消发布或删除：所在订阅源失效（下次访问重建，补上被挤出的文章）
+     */
+    public void onRemoved(Long articleId) {
+        try {
+            members(articleId).forEach(this::invalidate);
+            redisTemplate.delete(List.of(ENTRY_PREFIX + articleId, MEMBERSHIP_PREFIX + articleId));
+        } catch (Exception e) {
+            log.warn("订阅源更新失败: articleId={}, error={}", articleId, e.getMessage());
+        }
+    }
+
+    private long rebuild(FeedKey feed) {
+        List<Object[]> rows = latest(feed);
+        String indexKey = INDEX_PREFIX + feed.getKey();
+        String metaKey = META_PREFIX + feed.getKey();
+
+        redisTemplate.delete(indexKey);
+        if (!rows.isEmpty()) {
+            Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
+            for (Object[] row : rows) {
+                String articleId = row[0].toString();
+                tuples.add(new DefaultTypedTuple<>(articleId, (double) toMillis((LocalDateTime) row[1])));
+                redisTemplate.opsForSet().add(MEMBERSHIP_PREFIX + articleId, feed.getKey());
+            }
+            redisTemplate.opsForZSet().add(indexKey, tuples);
+            redisTemplate.expire(indexKey, Duration.ofHours(feedTtlHours));
+        }
+
+        long updated = System.currentTimeMillis();
+        Map<String, String> meta = new HashMap<>();
+        meta.put("updated", String.valueOf(updated));
+        meta.put("title", titleOf(feed));
+        redisTemplate.opsForHash().putAll(metaKey, meta);
+        // 作者、标签订阅源按需建立，过期后不再占用 Redis
+        redisTemplate.expire(metaKey, Duration.ofHours(feedTtlHours));
+        log.debug("订阅源已重建: feed={}, entries={}", feed.getKey(), rows.size());
+        return updated;
+    }
+
+    private void invalidate(String key) {
+        redisTemplate.delete(List.of(META_PREFIX + key, INDEX_PREFIX + key));
+    }
+
+    private Set<String> members(Long articleId) {
+        Set<String> members = redisTemplate.opsForSet().members(MEMBERSHIP_PREFIX + articleId);
+        return members != null ? members : Set.of();
+    }
+
+    private List<Object[]> latest(FeedKey feed) {
+        PageRequest page = PageRequest.of(0, feedSize);
+        if (feed.getAuthorId() != null) {
+            return articleRepository.findLatestPublishedByAuthor(feed.getAuthorId(), page);
+        }
+        if (feed.getTagName() != null) {
+            return articleRepository.findLatestPublishedByTag(feed.getTagName(), page);
+        }
+        return articleRepository.findLatestPublished(page);
+    }
+
+    private String titleOf(FeedKey feed) {
+        if (feed.getAuthorId() != null) {
+            return userRepository.findById(feed.getAuthorId())
+                    .map(user -> siteTitle + " - " + user.getUsername())
+                    .orElse(siteTitle);
+        }
+        if (feed.getTagName() != null) {
+            return siteTitle + " - " + feed.getTagName();
+        }
+        return siteTitle;
+    }
+
+    private Set<FeedKey> feedsOf(Article article) {
+        Set<FeedKey> feeds = new LinkedHashSet<>();
+        feeds.add(FeedKey.global());
+        feeds.add(FeedKey.author(article.getAuthor().getId()));
+        for (Tag tag : article.getTags()) {
+            feeds.add(FeedKey.tag(tag.getName()));
+        }
+        return feeds;
+    }
+
+    /**
+     * 按顺序取 entry 片段，Redis 中缺失的（过期或尚未渲染）一次查询补齐
+     */
+    private List<String> loadEntries(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<String> cached = redisTemplate.opsForValue().multiGet(
+                ids.stream().map(id -> ENTRY_PREFIX + id).collect(Collectors.toList()));
+
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (cached == null || cached.get(i) == null) {
+                missing.add(ids.get(i));
+            }
+        }
+        Map<Long, String> rendered = new HashMap<>();
+        if (!missing.isEmpty()) {
+            for (Article article : articleRepository.findWithAuthorAndTagsByIdIn(missing)) {
+                String entry = renderEntry(article);
+                rendered.put(article.getId(), entry);
+                redisTemplate.opsForValue().set(ENTRY_PREFIX + article.getId(), entry, Duration.ofDays(entryTtlDays));
+            }
+        }
+
+        List<String> entries = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            String entry = cached != null && cached.get(i) != null ? cached.get(i) : rendered.get(ids.get(i));
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private List<String> renderEntries(List<Long> ids) {
+        Map<Long, Article> articles = articleRepository.findWithAuthorAndTagsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Article::getId, article -> article));
+        return ids.stream()
+                .map(articles::get)
+                .filter(article -> article != null)
+                .map(this::renderEntry)
+                .collect(Collectors.toList());
+    }
+
+    private String renderEntry(Article article) {
+        String url = baseUrl + "/article/" + article.getSlug();
+        LocalDateTime updatedAt = article.getUpdatedAt() != null ? article.getUpdatedAt() : article.getPublishedAt();
+        String summary = article.getAiSummary() != null && !article.getAiSummary().isBlank()
+                ? article.getAiSummary() : article.getSummary();
+
+        StringWriter buffer = new StringWriter(1024);
+        try {
+            XMLStreamWriter xml = XML_OUTPUT.createXMLStreamWriter(buffer);
+            xml.writeStartElement("entry");
+            element(xml, "id", url);
+            element(xml, "title", article.getTitle());
+            link(xml, "alternate", "text/html", url);
+            element(xml, "published", format(article.getPublishedAt()));
+            element(xml, "updated", format(updatedAt));
+            xml.writeStartElement("author");
+            element(xml, "name", article.getAuthor().getUsername());
+            xml.writeEndElement();
+            for (Tag tag : article.getTags()) {
+                xml.writeEmptyElement("category");
+                xml.writeAttribute("term", tag.getName());
+            }
+            if (summary != null && !summary.isBlank()) {
+                xml.writeStartElement("summary");
+                xml.writeAttribute("type", "text");
+                xml.writeCharacters(summary.strip());
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("订阅源条目渲染失败: articleId=" + article.getId(), e);
+        }
+        return buffer.toString();
+    }
+
+    private void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(text != null ? text : "");
+        xml.writeEndElement();
+    }
+
+    private void link(XMLStreamWriter xml, String rel, String type, String href) throws XMLStreamException {
+        xml.writeEmptyElement("link");
+        xml.writeAttribute("rel", rel);
+        xml.writeAttribute("type", type);
+        xml.writeAttribute("href", href);
+    }
+
+    private long toMillis(LocalDateTime time) {
+        LocalDateTime value = time != null ? time : LocalDateTime.now();
+        return value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private String format(LocalDateTime time) {
+        return format(Instant.ofEpochMilli(toMillis(time)));
+    }
+
+    private String format(Instant instant) {
+        return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(instant.atZone(ZoneId.systemDefault()));
+    }
+}
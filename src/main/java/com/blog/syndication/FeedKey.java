@@ -0,0 +1,90 @@
+package com.blog.syndication;
+
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 订阅源标识：全站、某个作者、某个标签
+ */
+public final class FeedKey {
+
+    private static final String AUTHOR_PREFIX = "author:";
+    private static final String TAG_PREFIX = "tag:";
+
+    private final String key;
+    private final Long authorId;
+    private final String tagName;
+
+    private FeedKey(String key, Long authorId, String tagName) {
+        this.key = key;
+        this.authorId = authorId;
+        this.tagName = tagName;
+    }
+
+    public static FeedKey global() {
+        return new FeedKey("all", null, null);
+    }
+
+    public static FeedKey author(Long authorId) {
+        return new FeedKey(AUTHOR_PREFIX + authorId, authorId, null);
+    }
+
+    public static FeedKey tag(String tagName) {
+        return new FeedKey(TAG_PREFIX + tagName, null, tagName);
+    }
+
+    /**
+     * 由 Redis 中保存的 key 还原
+     */
+    public static FeedKey parse(String key) {
+        if (key.startsWith(AUTHOR_PREFIX)) {
+            return author(Long.valueOf(key.substring(AUTHOR_PREFIX.length())));
+        }
+        if (key.startsWith(TAG_PREFIX)) {
+            return tag(key.substring(TAG_PREFIX.length()));
+        }
+        return global();
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * 作者订阅源的作者ID，其他为 null
+     */
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    /**
+     * 标签订阅源的标签名，其他为 null
+     */
+    public String getTagName() {
+        return tagName;
+    }
+
+    /**
+     * 订阅源的访问路径
+     */
+    public String getPath() {
+        if (authorId != null) {
+            return "/feed/authors/" + authorId + "/atom.xml";
+        }
+        if (tagName != null) {
+            return "/feed/tags/" + UriUtils.encodePathSegment(tagName, StandardCharsets.UTF_8) + "/atom.xml";
+        }
+        return "/feed/atom.xml";
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FeedKey feedKey && key.equals(feedKey.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+}
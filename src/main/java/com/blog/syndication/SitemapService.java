@@ -0,0 +1,268 @@
+package com.blog.syndication;
+
+import com.blog.repository.ArticleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 站点地图
+ *
+ * 已发布文章按ID区间分片（每片最多 5 万条，协议上限），每片一个文件。文章变化时只在 Redis 中给所在分片
+ * 的版本号加一，后台定时刷新时只重新生成版本变化的分片：按ID键集分页流式写入临时文件再原子替换，不在内存中拼整份文档。
+ * 请求只读取上次生成的文件，不触发生成也不等待。只有一个分片时 /sitemap.xml 直接输出该分片，否则输出站点地图索引
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SitemapService {
+
+    // sitemaps.org 协议规定单个文件最多 50000 个 URL
+    private static final int BUCKET_SIZE = 50_000;
+
+    private static final String SITEMAP_NAMESPACE = "http://www.sitemaps.org/schemas/sitemap/0.9";
+    private static final String VERSIONS_KEY = "sitemap:versions";
+    private static final String INDEX_FILE = "sitemap-index.xml";
+
+    private static final XMLOutputFactory XML_OUTPUT = XMLOutputFactory.newFactory();
+
+    private final ArticleRepository articleRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @Value("${blog.site.base-url:http://localhost:8080}")
+    private String baseUrl;
+
+    @Value("${blog.sitemap.output-dir:./sitemaps}")
+    private String outputDir;
+
+    @Value("${blog.sitemap.page-size:1000}")
+    private int pageSize;
+
+    private Path sitemapDir;
+
+    // 分片 -> 已生成文件对应的版本号 / URL 数，只在刷新线程中修改
+    private final Map<Integer, String> generatedVersions = new HashMap<>();
+    private final Map<Integer, Integer> bucketSizes = new TreeMap<>();
+
+    // 请求读取的已生成分片（URL 数大于 0）快照，每次刷新后整体替换；启动后首次刷新完成前为空
+    private volatile List<Integer> publishedBuckets = List.of();
+
+    @PostConstruct
+    public void init() throws IOException {
+        sitemapDir = Paths.get(outputDir).toAbsolutePath().normalize();
+        Files.createDirectories(sitemapDir);
+    }
+
+    /**
+     * 文章发布、修改、下线后标记所在分片需要重新生成
+     */
+    public void markChanged(Long articleId) {
+        redisTemplate.opsForHash().increment(VERSIONS_KEY, String.valueOf(bucketOf(articleId)), 1);
+    }
+
+    /**
+     * /sitemap.xml 对应的文件：只有一个分片时为该分片，否则为索引
+     */
+    public Optional<Path> current() {
+        List<Integer> buckets = publishedBuckets;
+        if (buckets.isEmpty()) {
+            // 本次启动尚未刷新完成：沿用上次运行生成的文件
+            Path index = sitemapDir.resolve(INDEX_FILE);
+            return Files.exists(index) ? Optional.of(index) : existing(bucketPath(0));
+        }
+        return buckets.size() == 1 ? existing(bucketPath(buckets.get(0))) : existing(sitemapDir.resolve(INDEX_FILE));
+    }
+
+    /**
+     * 某个分片的文件（不存在或为空时返回空）
+     */
+    public Optional<Path> bucket(int bucket) {
+        List<Integer> buckets = publishedBuckets;
+        if (!buckets.isEmpty() && !buckets.contains(bucket)) {
+            return Optional.empty();
+        }
+        return existing(bucketPath(bucket));
+    }
+
+    /**
+     * 重新生成版本变化或文件缺失的分片；启动后执行一次，之后按间隔在调度线程中执行
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${blog.sitemap.refresh-interval-ms:300000}",
+            initialDelayString = "${blog.sitemap.refresh-interval-ms:300000}")
+    public synchronized void refresh() {
+        try {
+            regenerate();
+        } catch (Exception e) {
+            // 保留上次生成的文件，下个周期重试
+            log.error("站点地图刷新失败", e);
+        }
+    }
+
+    private void regenerate() throws IOException {
+        Map<Object, Object> versions;
+        try {
+            versions = redisTemplate.opsForHash().entries(VERSIONS_KEY);
+        } catch (Exception e) {
+            // 版本号读不到时只补齐缺失的分片
+            log.warn("读取站点地图版本失败: {}", e.getMessage());
+            versions = Map.of();
+        }
+
+        int buckets = bucketOf(articleRepository.findMaxPublishedId()) + 1;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            String version = String.valueOf(versions.getOrDefault(String.valueOf(bucket), "0"));
+            boolean missing = (bucket == 0 || bucketSizes.getOrDefault(bucket, 0) > 0) && !Files.exists(bucketPath(bucket));
+            if (version.equals(generatedVersions.get(bucket)) && !missing) {
+                continue;
+            }
+            int size = writeBucket(bucket);
+            generatedVersions.put(bucket, version);
+            bucketSizes.put(bucket, size);
+            log.debug("站点地图分片已生成: bucket={}, urls={}", bucket, size);
+        }
+        // 最大ID缩小后（末尾文章下线）多出来的分片
+        bucketSizes.keySet().removeIf(bucket -> bucket >= buckets);
+        generatedVersions.keySet().removeIf(bucket -> bucket >= buckets);
+
+        writeIndex();
+
+        List<Integer> published = bucketSizes.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        // 没有任何文章时仍输出（空的）分片 0
+        publishedBuckets = published.isEmpty() ? List.of(0) : List.copyOf(published);
+    }
+
+    private Optional<Path> existing(Path path) {
+        return Files.exists(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * 流式生成一个分片，返回 URL 数；空分片删除文件（分片 0 始终保留，保证 /sitemap.xml 有内容）
+     */
+    private int writeBucket(int bucket) throws IOException {
+        long afterId = (long) bucket * BUCKET_SIZE;
+        long toId = afterId + BUCKET_SIZE + 1;
+        Path target = bucketPath(bucket);
+        Path temp = Files.createTempFile(sitemapDir, "sitemap-", ".tmp");
+        int count = 0;
+        try {
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                XMLStreamWriter xml = XML_OUTPUT.createXMLStreamWriter(out);
+                xml.writeStartDocument("UTF-8", "1.0");
+                xml.writeStartElement("urlset");
+                xml.writeDefaultNamespace(SITEMAP_NAMESPACE);
+
+                List<Object[]> rows;
+                do {
+                    rows = articleRepository.findSitemapEntries(afterId, toId, PageRequest.of(0, pageSize));
+                    for (Object[] row : rows) {
+                        LocalDateTime updatedAt = row[2] != null ? (LocalDateTime) row[2] : (LocalDateTime) row[3];
+                        xml.writeStartElement("url");
+                        element(xml, "loc", baseUrl + "/article/" + row[1]);
+                        if (updatedAt != null) {
+                            element(xml, "lastmod", format(updatedAt.atZone(ZoneId.systemDefault()).toInstant()));
+                        }
+                        xml.writeEndElement();
+                        afterId = (Long) row[0];
+                        count++;
+                    }
+                    xml.flush();
+                } while (rows.size() == pageSize);
+
+                xml.writeEndElement();
+                xml.writeEndDocument();
+                xml.close();
+            } catch (XMLStreamException e) {
+                throw new IOException("站点地图生成失败: bucket=" + bucket, e);
+            }
+
+            if (count == 0 && bucket > 0) {
+                Files.deleteIfExists(target);
+            } else {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return count;
+    }
+
+    private void writeIndex() throws IOException {
+        Path temp = Files.createTempFile(sitemapDir, "sitemap-index-", ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                XMLStreamWriter xml = XML_OUTPUT.createXMLStreamWriter(out);
+                xml.writeStartDocument("UTF-8", "1.0");
+                xml.writeStartElement("sitemapindex");
+                xml.writeDefaultNamespace(SITEMAP_NAMESPACE);
+                for (Map.Entry<Integer, Integer> entry : bucketSizes.entrySet()) {
+                    if (entry.getValue() == 0) {
+                        continue;
+                    }
+                    xml.writeStartElement("sitemap");
+                    element(xml, "loc", baseUrl + "/sitemaps/sitemap-" + entry.getKey() + ".xml");
+                    element(xml, "lastmod", format(Files.getLastModifiedTime(bucketPath(entry.getKey())).toInstant()));
+                    xml.writeEndElement();
+                }
+                xml.writeEndElement();
+                xml.writeEndDocument();
+                xml.close();
+            } catch (XMLStreamException e) {
+                throw new IOException("站点地图索引生成失败", e);
+            }
+            Files.move(temp, sitemapDir.resolve(INDEX_FILE),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(text);
+        xml.writeEndElement();
+    }
+
+    private String format(Instant instant) {
+        return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(instant.atZone(ZoneId.systemDefault()));
+    }
+
+    private int bucketOf(long articleId) {
+        return articleId <= 0 ? 0 : (int) ((articleId - 1) / BUCKET_SIZE);
+    }
+
+    private Path bucketPath(int bucket) {
+        return sitemapDir.resolve("sitemap-" + bucket + ".xml");
+    }
+}
@@ -1,16 +1,24 @@
 package com.blog.util;
 
 import com.blog.exception.BlogException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.UUID;
 
@@ -38,6 +46,11 @@ public class FileUploadUtil {
     // 图片大小限制（5MB）
     private static final long MAX_IMAGE_SIZE = 5 * 1024 * 1024;
 
+    // 上传临时目录（与存储目录位于同一文件系统，保证重命名是原子的）
+    public static final String TEMP_DIR = ".tmp";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
     /**
      * 验证图片文件
      */
@@ -115,22 +128,66 @@ public class FileUploadUtil {
     }
 
     /**
-     * 安全保存文件
+     * 内容寻址的相对路径：ab/cd/{哈希}{扩展名}
      */
-    public static String saveFile(MultipartFile file, String baseDir, String subDir) throws IOException {
-        // 创建目录
-        Path uploadDir = Paths.get(baseDir, subDir);
-        createDirectoryIfNotExists(uploadDir);
+    public static String contentAddressedPath(String objectName) {
+        return objectName.substring(0, 2) + "/" + objectName.substring(2, 4) + "/" + objectName;
+    }
 
-        // 生成唯一文件名
-        String filename = generateUniqueFilename(file.getOriginalFilename());
-        Path filePath = uploadDir.resolve(filename);
+    /**
+     * 将输入流写入临时文件，边写边计算 SHA-256，只读一遍数据
+     */
+    public static HashedFile writeToTempWithDigest(InputStream inputStream, Path tempDir) throws IOException {
+        createDirectoryIfNotExists(tempDir);
+        Path tempFile = Files.createTempFile(tempDir, "upload-", ".tmp");
+
+        MessageDigest digest = newSha256();
+        long size = 0;
+        try (InputStream in = inputStream;
+             OutputStream out = Files.newOutputStream(tempFile)) {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+                size += read;
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+
+        return new HashedFile(tempFile, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    /**
+     * 将临时文件原子重命名到目标位置；目标已存在（重复内容）时丢弃临时文件
+     *
+     * @return 是否新写入了文件
+     */
+    public static boolean moveIntoPlace(Path tempFile, Path target) throws IOException {
+        if (Files.exists(target)) {
+            Files.deleteIfExists(tempFile);
+            return false;
+        }
 
-        // 保存文件
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-        log.info("文件保存成功: {}", filePath);
+        createDirectoryIfNotExists(target.getParent());
+        try {
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            // 并发上传了相同内容
+            Files.deleteIfExists(tempFile);
+            return false;
+        }
+    }
 
-        return String.format("/uploads/%s/%s", subDir, filename);
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
     }
 
     /**
@@ -189,6 +246,84 @@ public class FileUploadUtil {
         }
     }
 
+    /**
+     * 按文件头识别实际类型，识别不出时使用声明的类型；
+     * 内容相同的文件得到相同的类型，不受原文件名（.jpg / .jpeg / .JPG）影响
+     */
+    public static String sniffContentType(Path file, String declaredContentType) throws IOException {
+        byte[] head = new byte[12];
+        int read;
+        try (InputStream in = Files.newInputStream(file)) {
+            read = in.readNBytes(head, 0, head.length);
+        }
+
+        if (startsWith(head, read, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(head, read, 0x89, 'P', 'N', 'G')) {
+            return "image/png";
+        }
+        if (startsWith(head, read, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (startsWith(head, read, 'R', 'I', 'F', 'F') && read >= 12
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return "image/webp";
+        }
+        if (startsWith(head, read, '%', 'P', 'D', 'F')) {
+            return "application/pdf";
+        }
+        // BMP 的文件头只有两个字节，只在声明为图片时采信，避免把以 "BM" 开头的文本识别成图片
+        if (startsWith(head, read, 'B', 'M') && declaredContentType != null && declaredContentType.startsWith("image/")) {
+            return "image/bmp";
+        }
+        return declaredContentType;
+    }
+
+    /**
+     * MIME 类型对应的规范扩展名（{@link #getMimeType} 的反向映射），未知类型为空
+     */
+    public static String getExtensionForMimeType(String contentType) {
+        if (contentType == null) {
+            return "";
+        }
+
+        switch (contentType) {
+            case "image/jpeg":
+                return ".jpg";
+            case "image/png":
+                return ".png";
+            case "image/gif":
+                return ".gif";
+            case "image/webp":
+                return ".webp";
+            case "image/bmp":
+                return ".bmp";
+            case "application/pdf":
+                return ".pdf";
+            case "text/plain":
+                return ".txt";
+            case "application/msword":
+                return ".doc";
+            case "application/vnd.openxmlformats-officedocument.wordprocessingml.document":
+                return ".docx";
+            default:
+                return "";
+        }
+    }
+
+    private static boolean startsWith(byte[] head, int length, int... signature) {
+        if (length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((head[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * 检查是否为图片文件
      */
@@ -242,4 +377,15 @@ public class FileUploadUtil {
             log.error("清理临时文件失败: {}", e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 已写入临时文件并计算出哈希的上传内容
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class HashedFile {
+        private final Path tempFile;
+        private final String sha256;
+        private final long size;
+    }
+}
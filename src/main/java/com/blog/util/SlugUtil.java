@@ -1,6 +1,12 @@
 package com.blog.util;
 
 import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
 
 import java.text.Normalizer;
 import java.util.regex.Pattern;
@@ -18,6 +24,14 @@ public class SlugUtil {
     private static final Pattern MULTIPLE_DASHES = Pattern.compile("-{2,}");
     private static final Pattern NON_WORD_CHARS = Pattern.compile("[^\\p{L}\\p{N}_-]");
 
+    private static final HanyuPinyinOutputFormat PINYIN_FORMAT = new HanyuPinyinOutputFormat();
+
+    static {
+        PINYIN_FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        PINYIN_FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        PINYIN_FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+
     /**
      * 从文本生成slug
      */
@@ -31,7 +45,7 @@ public class SlugUtil {
         // 转换为小写
         String slug = text.toLowerCase().trim();
 
-        // 处理中文：将中文转换为拼音或保留（这里简单处理，实际项目中可能需要拼音转换）
+        // 处理中文：将汉字转换为拼音
         slug = handleChineseCharacters(slug);
 
         // 替换空格为连字符
@@ -63,18 +77,12 @@ public class SlugUtil {
     }
 
     /**
-     * 处理中文字符
-     * 注意：这是一个简单实现，实际项目中可能需要集成拼音转换库
+     * 处理中文字符：转换为以连字符分隔的拼音
      */
     private static String handleChineseCharacters(String text) {
-        // 这里简单移除中文字符，实际项目中应该转换为拼音
-        // 例如使用 pinyin4j 库
+        String result = transliterate(text);
 
-        // 临时解决方案：保留中文字符，但在slug中使用unicode或移除
-        // 这里选择移除中文字符，因为很多系统不支持中文slug
-        String result = text.replaceAll("[\\u4e00-\\u9fa5]", "");
-
-        // 如果移除中文后为空，添加前缀
+        // 如果转换后为空，添加前缀
         if (result.trim().isEmpty()) {
             result = "post-" + System.currentTimeMillis();
         }
@@ -82,6 +90,40 @@ public class SlugUtil {
         return result;
     }
 
+    /**
+     * 将文本中的汉字转换为不带声调的拼音
+     * 每个汉字前后加连字符，多余的连字符由后续步骤合并；多音字取第一个读音，其他字符保持不变
+     */
+    public static String transliterate(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder result = new StringBuilder(text.length() * 3);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String pinyin = toPinyin(c);
+            if (pinyin != null) {
+                result.append('-').append(pinyin).append('-');
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static String toPinyin(char c) {
+        if (Character.UnicodeScript.of(c) != Character.UnicodeScript.HAN) {
+            return null;
+        }
+        try {
+            String[] readings = PinyinHelper.toHanyuPinyinStringArray(c, PINYIN_FORMAT);
+            return readings != null && readings.length > 0 ? readings[0] : null;
+        } catch (BadHanyuPinyinOutputFormatCombination e) {
+            return null;
+        }
+    }
+
     /**
      * 生成随机slug（用于处理特殊情况）
      */
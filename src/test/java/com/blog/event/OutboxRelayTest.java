@@ -0,0 +1,152 @@
+package com.blog.event;
+
+import com.blog.entity.EventCheckpoint;
+import com.blog.entity.OutboxDeadLetter;
+import com.blog.entity.OutboxEvent;
+import com.blog.repository.EventCheckpointRepository;
+import com.blog.repository.OutboxDeadLetterRepository;
+import com.blog.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * OutboxRelay 遇到始终处理失败的事件时，有限次重试后写入死信并继续推进
+ */
+class OutboxRelayTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+    private final EventCheckpointRepository checkpointRepository = mock(EventCheckpointRepository.class);
+    private final OutboxDeadLetterRepository deadLetterRepository = mock(OutboxDeadLetterRepository.class);
+
+    // 数据库中的消费位置
+    private final AtomicLong checkpoint = new AtomicLong();
+    private final List<Long> handled = new CopyOnWriteArrayList<>();
+
+    private List<OutboxEvent> events;
+
+    @BeforeEach
+    void setUp() {
+        events = List.of(event(1), event(2), event(3));
+        when(outboxEventRepository.findMaxId()).thenReturn(0L);
+        when(outboxEventRepository.findAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            return events.stream().filter(event -> event.getId() > afterId).collect(Collectors.toList());
+        });
+        when(checkpointRepository.findById(anyString())).thenAnswer(invocation -> {
+            EventCheckpoint saved = new EventCheckpoint();
+            saved.setConsumer(invocation.getArgument(0));
+            saved.setLastEventId(checkpoint.get());
+            return Optional.of(saved);
+        });
+        when(checkpointRepository.advance(anyString(), anyLong(), anyLong())).thenAnswer(invocation ->
+                checkpoint.compareAndSet(invocation.getArgument(1), invocation.getArgument(2)) ? 1 : 0);
+    }
+
+    @Test
+    void poisonEventIsDeadLetteredAfterMaxAttempts() throws InterruptedException {
+        OutboxRelay relay = relay(failingOn(2L));
+
+        runUntilCheckpoint(relay, 3);
+
+        ArgumentCaptor<OutboxDeadLetter> deadLetter = ArgumentCaptor.forClass(OutboxDeadLetter.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        assertEquals(2L, deadLetter.getValue().getEventId());
+        assertEquals("poison", deadLetter.getValue().getConsumer());
+        assertEquals(MAX_ATTEMPTS, deadLetter.getValue().getAttempts());
+        assertEquals(List.of(1L, 3L), handled);
+    }
+
+    @Test
+    void healthyBatchIsDeliveredOnce() throws InterruptedException {
+        OutboxRelay relay = relay(failingOn(-1L));
+
+        runUntilCheckpoint(relay, 3);
+
+        verify(deadLetterRepository, never()).save(any());
+        assertEquals(List.of(1L, 2L, 3L), handled);
+    }
+
+    private OutboxRelay relay(EventConsumer consumer) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+
+        OutboxRelay relay = new OutboxRelay(List.of(consumer), outboxEventRepository, checkpointRepository,
+                deadLetterRepository, new TransactionTemplate(transactionManager), transactionManager);
+        ReflectionTestUtils.setField(relay, "batchSize", 200);
+        ReflectionTestUtils.setField(relay, "maxAttempts", MAX_ATTEMPTS);
+        relay.start();
+        return relay;
+    }
+
+    /**
+     * 投递在消费者线程中异步执行，反复触发直到消费位置到达 target
+     */
+    private void runUntilCheckpoint(OutboxRelay relay, long target) throws InterruptedException {
+        try {
+            for (int i = 0; i < 200 && checkpoint.get() < target; i++) {
+                relay.relay();
+                Thread.sleep(10);
+            }
+            assertEquals(target, checkpoint.get());
+        } finally {
+            relay.shutdown();
+        }
+    }
+
+    /**
+     * 处理一批事件，批内含 poisonId 时整批失败（模拟事务回滚，不记录已处理）
+     */
+    private EventConsumer failingOn(long poisonId) {
+        return new EventConsumer() {
+            @Override
+            public String getName() {
+                return "poison";
+            }
+
+            @Override
+            public Set<EventType> getEventTypes() {
+                return Set.of(EventType.ARTICLE_PUBLISHED);
+            }
+
+            @Override
+            public void handle(List<OutboxEvent> batch) {
+                if (batch.stream().anyMatch(event -> event.getId() == poisonId)) {
+                    throw new IllegalStateException("无法处理的事件: " + poisonId);
+                }
+                batch.forEach(event -> handled.add(event.getId()));
+            }
+        };
+    }
+
+    private OutboxEvent event(long id) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setEventType(EventType.ARTICLE_PUBLISHED.name());
+        event.setAggregateId(id);
+        return event;
+    }
+}
@@ -0,0 +1,74 @@
+package com.blog.querybudget;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * QueryBudgetFilter 在 fail-on-exceed 开启（test 配置）与关闭时对超出 @QueryBudget 的处理
+ */
+class QueryBudgetFilterTest {
+
+    @QueryBudget(maxQueries = 2)
+    void budgetedHandler() {
+    }
+
+    @Test
+    void failOnExceedThrowsWhenOverBudget() {
+        QueryOffenderRegistry registry = new QueryOffenderRegistry(10);
+        QueryBudgetFilter filter = new QueryBudgetFilter(registry, 30, 5, true);
+
+        QueryBudgetExceededException exception = assertThrows(QueryBudgetExceededException.class,
+                () -> filter.doFilter(request(), new MockHttpServletResponse(), executing(3)));
+
+        assertTrue(exception.getMessage().contains("预算 2"));
+        assertEquals(1, registry.snapshot().size());
+    }
+
+    @Test
+    void failOnExceedAllowsRequestsWithinBudget() {
+        QueryOffenderRegistry registry = new QueryOffenderRegistry(10);
+        QueryBudgetFilter filter = new QueryBudgetFilter(registry, 30, 5, true);
+
+        assertDoesNotThrow(() -> filter.doFilter(request(), new MockHttpServletResponse(), executing(2)));
+        assertTrue(registry.snapshot().isEmpty());
+    }
+
+    @Test
+    void overBudgetIsOnlyRecordedWhenFailOnExceedIsOff() {
+        QueryOffenderRegistry registry = new QueryOffenderRegistry(10);
+        QueryBudgetFilter filter = new QueryBudgetFilter(registry, 30, 5, false);
+
+        assertDoesNotThrow(() -> filter.doFilter(request(), new MockHttpServletResponse(), executing(3)));
+
+        List<Map<String, Object>> offenders = registry.snapshot();
+        assertEquals(1, offenders.size());
+    }
+
+    private MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/articles/1");
+    }
+
+    /**
+     * 模拟 QueryBudgetInterceptor 设置预算后 Controller 执行 queries 条不同的语句
+     */
+    private FilterChain executing(int queries) throws NoSuchMethodException {
+        QueryBudget budget = getClass().getDeclaredMethod("budgetedHandler").getAnnotation(QueryBudget.class);
+        return (request, response) -> {
+            QueryStats stats = QueryTracker.current();
+            stats.setBudget(budget);
+            for (int i = 0; i < queries; i++) {
+                stats.record("select * from articles where id = " + i, 1_000_000);
+            }
+        };
+    }
+}
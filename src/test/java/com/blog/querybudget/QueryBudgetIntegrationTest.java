@@ -0,0 +1,181 @@
+package com.blog.querybudget;
+
+import com.blog.config.QueryBudgetConfig;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 按 test 配置（fail-on-exceed 开启）启动，真实 Hibernate 产生的 N+1 查询超出 @QueryBudget 时请求失败
+ */
+@SpringBootTest(classes = QueryBudgetIntegrationTest.TestApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+class QueryBudgetIntegrationTest {
+
+    private static final int POSTS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (entityManager.createQuery("SELECT COUNT(p) FROM BudgetPost p", Long.class).getSingleResult() > 0) {
+                return;
+            }
+            for (int i = 0; i < POSTS; i++) {
+                BudgetWriter writer = new BudgetWriter();
+                writer.setName("writer-" + i);
+                entityManager.persist(writer);
+
+                BudgetPost post = new BudgetPost();
+                post.setTitle("post-" + i);
+                post.setWriter(writer);
+                entityManager.persist(post);
+            }
+        });
+    }
+
+    @Test
+    void nPlusOneEndpointFailsItsBudget() {
+        QueryBudgetExceededException exception = assertThrows(QueryBudgetExceededException.class,
+                () -> mockMvc.perform(get("/test/posts/lazy")));
+
+        assertTrue(exception.getMessage().contains("预算 3"));
+    }
+
+    @Test
+    void fetchJoinEndpointStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/test/posts/fetch-join")).andExpect(status().isOk());
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @Import(QueryBudgetConfig.class)
+    static class TestApplication {
+
+        @Bean
+        PostController postController() {
+            return new PostController();
+        }
+    }
+
+    @RestController
+    public static class PostController {
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        /**
+         * 列表 1 条 + 每篇文章懒加载作者 1 条
+         */
+        @GetMapping("/test/posts/lazy")
+        @QueryBudget(maxQueries = 3)
+        @Transactional(readOnly = true)
+        public List<String> lazy() {
+            return entityManager.createQuery("SELECT p FROM BudgetPost p", BudgetPost.class).getResultList().stream()
+                    .map(post -> post.getTitle() + " by " + post.getWriter().getName())
+                    .collect(Collectors.toList());
+        }
+
+        @GetMapping("/test/posts/fetch-join")
+        @QueryBudget(maxQueries = 3)
+        @Transactional(readOnly = true)
+        public List<String> fetchJoin() {
+            return entityManager.createQuery("SELECT p FROM BudgetPost p JOIN FETCH p.writer", BudgetPost.class)
+                    .getResultList().stream()
+                    .map(post -> post.getTitle() + " by " + post.getWriter().getName())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * 懒加载关联通过 getter 访问，代理才会触发查询
+     */
+    @Entity(name = "BudgetWriter")
+    @Table(name = "budget_writers")
+    public static class BudgetWriter {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity(name = "BudgetPost")
+    @Table(name = "budget_posts")
+    public static class BudgetPost {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        private String title;
+
+        @ManyToOne(fetch = FetchType.LAZY)
+        private BudgetWriter writer;
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public BudgetWriter getWriter() {
+            return writer;
+        }
+
+        public void setWriter(BudgetWriter writer) {
+            this.writer = writer;
+        }
+    }
+}
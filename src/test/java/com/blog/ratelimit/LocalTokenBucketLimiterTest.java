@@ -0,0 +1,79 @@
+package com.blog.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 本节点令牌桶：容量内的突发放行，之后按窗口匀速补充（时间由测试传入）
+ */
+class LocalTokenBucketLimiterTest {
+
+    private static final long START = 1_000_000_000L;
+
+    private final LocalTokenBucketLimiter limiter = new LocalTokenBucketLimiter();
+
+    @Test
+    void burstUpToLimitThenRejects() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("k", 10, 60, START));
+        }
+        assertFalse(limiter.tryAcquire("k", 10, 60, START));
+    }
+
+    @Test
+    void refillsEvenlyOverTheWindow() {
+        drain("k", 10, 60);
+
+        // 每 6 秒补充一个令牌（避开整数边界上的浮点误差）
+        assertFalse(limiter.tryAcquire("k", 10, 60, START + seconds(5)));
+        assertTrue(limiter.tryAcquire("k", 10, 60, START + seconds(7)));
+        assertFalse(limiter.tryAcquire("k", 10, 60, START + seconds(7)));
+        assertTrue(limiter.tryAcquire("k", 10, 60, START + seconds(13)));
+    }
+
+    @Test
+    void refillNeverExceedsCapacity() {
+        drain("k", 10, 60);
+
+        long later = START + seconds(600);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("k", 10, 60, later));
+        }
+        assertFalse(limiter.tryAcquire("k", 10, 60, later));
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        drain("a", 10, 60);
+
+        assertFalse(limiter.tryAcquire("a", 10, 60, START));
+        assertTrue(limiter.tryAcquire("b", 10, 60, START));
+    }
+
+    @Test
+    void evictsOnlyFullBuckets() {
+        drain("drained", 10, 60);
+        limiter.tryAcquire("idle", 10, 60, START);
+
+        limiter.evictIdleBuckets(START + seconds(3));
+        assertEquals(2, limiter.bucketCount());
+
+        limiter.evictIdleBuckets(START + seconds(120));
+        assertEquals(0, limiter.bucketCount());
+    }
+
+    private void drain(String key, int limit, int windowSeconds) {
+        for (int i = 0; i < limit; i++) {
+            assertTrue(limiter.tryAcquire(key, limit, windowSeconds, START));
+        }
+    }
+
+    private static long seconds(long seconds) {
+        return TimeUnit.SECONDS.toNanos(seconds);
+    }
+}
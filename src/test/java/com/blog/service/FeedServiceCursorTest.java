@@ -0,0 +1,51 @@
+package com.blog.service;
+
+import com.blog.exception.BlogException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 关注动态分页游标 "发布时间毫秒_文章ID" 的解析与输出
+ */
+class FeedServiceCursorTest {
+
+    @Test
+    void parsesScoreAndArticleId() {
+        FeedService.Cursor cursor = FeedService.Cursor.parse("1700000000123_42");
+
+        assertEquals(1700000000123L, cursor.score);
+        assertEquals(42L, cursor.articleId);
+    }
+
+    @Test
+    void formatRoundTrips() {
+        FeedService.Cursor cursor = new FeedService.Cursor(1700000000123L, 42L);
+
+        assertEquals("1700000000123_42", cursor.toString());
+        FeedService.Cursor parsed = FeedService.Cursor.parse(cursor.toString());
+        assertEquals(cursor.score, parsed.score);
+        assertEquals(cursor.articleId, parsed.articleId);
+    }
+
+    @Test
+    void blankMeansFirstPage() {
+        assertNull(FeedService.Cursor.parse(null));
+        assertNull(FeedService.Cursor.parse(" "));
+    }
+
+    @Test
+    void rejectsCursorWithoutSeparator() {
+        BlogException exception = assertThrows(BlogException.class, () -> FeedService.Cursor.parse("1700000000123"));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+    }
+
+    @Test
+    void rejectsNonNumericParts() {
+        assertThrows(BlogException.class, () -> FeedService.Cursor.parse("abc_42"));
+        assertThrows(BlogException.class, () -> FeedService.Cursor.parse("1700000000123_"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.blog.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Range 头单区间解析：bytes=first-last，参数为正则匹配出的 first、last（可为空）
+ */
+class FileServingServiceRangeTest {
+
+    private static final long LENGTH = 1000;
+
+    @Test
+    void closedRange() {
+        assertArrayEquals(new long[]{0, 499}, FileServingService.parseRange("0", "499", LENGTH));
+    }
+
+    @Test
+    void endIsClampedToLastByte() {
+        assertArrayEquals(new long[]{900, 999}, FileServingService.parseRange("900", "5000", LENGTH));
+    }
+
+    @Test
+    void openEndedRangeRunsToLastByte() {
+        assertArrayEquals(new long[]{200, 999}, FileServingService.parseRange("200", "", LENGTH));
+    }
+
+    @Test
+    void suffixRangeReturnsLastBytes() {
+        assertArrayEquals(new long[]{900, 999}, FileServingService.parseRange("", "100", LENGTH));
+    }
+
+    @Test
+    void suffixLongerThanFileReturnsWholeFile() {
+        assertArrayEquals(new long[]{0, 999}, FileServingService.parseRange("", "5000", LENGTH));
+    }
+
+    @Test
+    void unsatisfiableRanges() {
+        assertNull(FileServingService.parseRange("1000", "", LENGTH));
+        assertNull(FileServingService.parseRange("500", "100", LENGTH));
+        assertNull(FileServingService.parseRange("", "0", LENGTH));
+        assertNull(FileServingService.parseRange("", "", LENGTH));
+        assertNull(FileServingService.parseRange("99999999999999999999", "", LENGTH));
+    }
+}